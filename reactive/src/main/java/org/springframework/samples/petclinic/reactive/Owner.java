@@ -0,0 +1,37 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.samples.petclinic.reactive;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Table;
+
+/**
+ * Row of the {@code owners} table.
+ *
+ * @param id the owner id
+ * @param version the version, incremented on every update
+ * @param firstName the first name
+ * @param lastName the last name
+ * @param address the street address
+ * @param city the city
+ * @param telephone the telephone number
+ */
+@Table("owners")
+public record Owner(@Id Integer id, Integer version, String firstName, String lastName, String address, String city,
+		String telephone) {
+
+}
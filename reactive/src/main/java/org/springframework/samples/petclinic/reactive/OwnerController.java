@@ -0,0 +1,172 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.samples.petclinic.reactive;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.http.ETag;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.DigestUtils;
+import org.springframework.util.StringUtils;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import jakarta.validation.constraints.Min;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Read side of the owner API of the servlet application on WebFlux: the same paths,
+ * parameters, JSON and entity tags, served without blocking a thread per request.
+ *
+ * @author Spring PetClinic contributors
+ */
+@RestController
+@RequestMapping("/api/owners")
+class OwnerController {
+
+	private final OwnerRepository owners;
+
+	private final PetRepository pets;
+
+	private final PetTypeRepository types;
+
+	private final VisitRepository visits;
+
+	OwnerController(OwnerRepository owners, PetRepository pets, PetTypeRepository types, VisitRepository visits) {
+		this.owners = owners;
+		this.pets = pets;
+		this.types = types;
+		this.visits = visits;
+	}
+
+	@GetMapping("/{ownerId}")
+	Mono<ResponseEntity<OwnerDetails>> getOwner(@PathVariable("ownerId") @Min(1) Integer ownerId,
+			@RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+
+		return this.owners.findById(ownerId)
+			.flatMap(owner -> this.pets.findByOwnerIdOrderByName(ownerId)
+				.collectList()
+				.flatMap(pets -> details(owner, pets, ifNoneMatch)))
+			.defaultIfEmpty(ResponseEntity.notFound().build());
+	}
+
+	@GetMapping
+	Mono<Slice<OwnerSummary>> searchOwners(@RequestParam(value = "lastName", defaultValue = "") String lastName,
+			@RequestParam(value = "page", defaultValue = "0") @Min(0) Integer page,
+			@RequestParam(value = "size", defaultValue = "5") @Min(1) Integer size,
+			@RequestParam(value = "includeTotal", defaultValue = "true") boolean includeTotal) {
+
+		PageRequest pageable = PageRequest.of(page, size);
+		String pattern = pattern(lastName);
+		if (includeTotal) {
+			return Mono
+				.zip(this.owners.findSummaries(pattern, size, pageable.getOffset()).collectList(),
+						this.owners.countByPattern(pattern))
+				.map(result -> new PageImpl<>(result.getT1(), pageable, result.getT2()));
+		}
+		// read one more row than requested to tell whether a next page exists
+		return this.owners.findSummaries(pattern, size + 1, pageable.getOffset()).collectList().map(content -> {
+			boolean hasNext = content.size() > size;
+			return new SliceImpl<>(hasNext ? content.subList(0, size) : content, pageable, hasNext);
+		});
+	}
+
+	/**
+	 * Stream all matching owners as NDJSON. Rows are fetched from the database only as
+	 * fast as the client reads them, so a large result is never held in memory.
+	 */
+	@GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+	Flux<OwnerSummary> streamOwners(@RequestParam(value = "lastName", defaultValue = "") String lastName) {
+		return this.owners.streamSummaries(pattern(lastName));
+	}
+
+	private Mono<ResponseEntity<OwnerDetails>> details(Owner owner, List<Pet> pets, String ifNoneMatch) {
+		List<Integer> petIds = pets.stream().map(Pet::id).toList();
+		List<Integer> typeIds = pets.stream().map(Pet::typeId).distinct().toList();
+		return Mono.zip(this.types.findAllById(typeIds).collectMap(PetType::id), visitsByPet(petIds)).map(loaded -> {
+			Map<Integer, PetType> types = loaded.getT1();
+			Map<Integer, List<Visit>> visits = loaded.getT2();
+			String eTag = eTag(owner, pets, types, visits);
+			if (matches(ifNoneMatch, eTag)) {
+				return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).<OwnerDetails>build();
+			}
+			List<OwnerDetails.PetDetails> details = pets.stream()
+				.map(pet -> OwnerDetails.PetDetails.of(pet, types.get(pet.typeId()),
+						visits.getOrDefault(pet.id(), List.of())))
+				.toList();
+			return ResponseEntity.ok().eTag(eTag).body(OwnerDetails.of(owner, details));
+		});
+	}
+
+	private Mono<Map<Integer, List<Visit>>> visitsByPet(Collection<Integer> petIds) {
+		if (petIds.isEmpty()) {
+			return Mono.just(Map.of());
+		}
+		return this.visits.findByPetIdInOrderByDateAscIdAsc(petIds)
+			.collectList()
+			.map(visits -> visits.stream().collect(Collectors.groupingBy(Visit::petId)));
+	}
+
+	private static String pattern(String lastName) {
+		return lastName.toLowerCase(Locale.ROOT) + "%";
+	}
+
+	/**
+	 * Return the entity tag of an owner, equal to the one the servlet application sends
+	 * for the same rows: the owner version followed by a digest of the id and version of
+	 * each pet, the version of its type and the number and last id of its visits.
+	 */
+	private static String eTag(Owner owner, List<Pet> pets, Map<Integer, PetType> types,
+			Map<Integer, List<Visit>> visits) {
+		String parts = pets.stream().sorted(Comparator.comparing(Pet::id)).map(pet -> {
+			List<Visit> petVisits = visits.getOrDefault(pet.id(), List.of());
+			Integer lastVisitId = petVisits.stream().map(Visit::id).max(Integer::compare).orElse(null);
+			return pet.id() + "," + pet.version() + "," + types.get(pet.typeId()).version() + "," + petVisits.size()
+					+ "," + lastVisitId;
+		}).collect(Collectors.joining(","));
+		return "\"" + owner.version() + "-" + DigestUtils.md5DigestAsHex(parts.getBytes(StandardCharsets.UTF_8)) + "\"";
+	}
+
+	private static boolean matches(String ifNoneMatch, String eTag) {
+		if (!StringUtils.hasText(ifNoneMatch)) {
+			return false;
+		}
+		ETag current = ETag.create(eTag);
+		return ETag.parse(ifNoneMatch)
+			.stream()
+			.anyMatch(candidate -> candidate.isWildcard() || candidate.compare(current, false));
+	}
+
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.samples.petclinic.reactive;
+
+import java.time.LocalDate;
+import java.time.Period;
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * Owner with pets and visits, serialized like the owner of the servlet application: pets
+ * ordered by name and each pet's visits ordered by date.
+ *
+ * @param id the owner id
+ * @param firstName the first name
+ * @param lastName the last name
+ * @param address the street address
+ * @param city the city
+ * @param telephone the telephone number
+ * @param pets the pets of the owner
+ */
+public record OwnerDetails(Integer id, String firstName, String lastName, String address, String city, String telephone,
+		List<PetDetails> pets) {
+
+	static OwnerDetails of(Owner owner, List<PetDetails> pets) {
+		return new OwnerDetails(owner.id(), owner.firstName(), owner.lastName(), owner.address(), owner.city(),
+				owner.telephone(), pets);
+	}
+
+	@JsonProperty("new")
+	public boolean isNew() {
+		return this.id == null;
+	}
+
+	/**
+	 * Pet of an {@link OwnerDetails}.
+	 *
+	 * @param id the pet id
+	 * @param name the name
+	 * @param birthDate the date of birth
+	 * @param type the pet type
+	 * @param ownerId the id of the owner
+	 * @param visits the visits of the pet
+	 */
+	public record PetDetails(Integer id, String name, LocalDate birthDate, PetType type, Integer ownerId,
+			List<Visit> visits) {
+
+		static PetDetails of(Pet pet, PetType type, List<Visit> visits) {
+			return new PetDetails(pet.id(), pet.name(), pet.birthDate(), type, pet.ownerId(), visits);
+		}
+
+		@JsonProperty
+		public int age() {
+			if (this.birthDate == null) {
+				return 0;
+			}
+			return Period.between(this.birthDate, LocalDate.now()).getYears();
+		}
+
+		@JsonProperty("new")
+		public boolean isNew() {
+			return this.id == null;
+		}
+
+	}
+
+}
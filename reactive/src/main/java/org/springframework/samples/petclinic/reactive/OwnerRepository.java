@@ -0,0 +1,66 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.samples.petclinic.reactive;
+
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.data.repository.query.Param;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Reactive access to owners. Searches match the indexed {@code last_name_normalized}
+ * column, so a prefix is expected in lower case and with a trailing {@code %}.
+ *
+ * @author Spring PetClinic contributors
+ */
+public interface OwnerRepository extends R2dbcRepository<Owner, Integer> {
+
+	/**
+	 * Read one page of owners whose normalized last name matches the given pattern,
+	 * ordered by last name and id.
+	 * @param pattern the {@code LIKE} pattern, e.g. {@code "dav%"}
+	 * @param limit the maximum number of owners
+	 * @param offset the number of owners to skip
+	 * @return the matching owners
+	 */
+	@Query("""
+			SELECT o.id, o.first_name, o.last_name, o.city, o.telephone,
+			  (SELECT COUNT(*) FROM pets p WHERE p.owner_id = o.id) AS pet_count
+			FROM owners o WHERE o.last_name_normalized LIKE :pattern
+			ORDER BY o.last_name_normalized, o.id LIMIT :limit OFFSET :offset""")
+	Flux<OwnerSummary> findSummaries(@Param("pattern") String pattern, @Param("limit") int limit,
+			@Param("offset") long offset);
+
+	/**
+	 * Read all owners whose normalized last name matches the given pattern, ordered by
+	 * last name and id. Rows are fetched as the subscriber requests them.
+	 * @param pattern the {@code LIKE} pattern, e.g. {@code "dav%"}
+	 * @return the matching owners
+	 */
+	@Query("""
+			SELECT o.id, o.first_name, o.last_name, o.city, o.telephone,
+			  (SELECT COUNT(*) FROM pets p WHERE p.owner_id = o.id) AS pet_count
+			FROM owners o WHERE o.last_name_normalized LIKE :pattern
+			ORDER BY o.last_name_normalized, o.id""")
+	Flux<OwnerSummary> streamSummaries(@Param("pattern") String pattern);
+
+	@Query("SELECT COUNT(*) FROM owners WHERE last_name_normalized LIKE :pattern")
+	Mono<Long> countByPattern(@Param("pattern") String pattern);
+
+}
@@ -0,0 +1,33 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.samples.petclinic.reactive;
+
+/**
+ * Owner in search results, with the pets reduced to their count. Serializes like the
+ * summary of the servlet application.
+ *
+ * @param id the owner id
+ * @param firstName the first name
+ * @param lastName the last name
+ * @param city the city
+ * @param telephone the telephone number
+ * @param petCount the number of pets the owner has
+ */
+public record OwnerSummary(Integer id, String firstName, String lastName, String city, String telephone,
+		long petCount) {
+
+}
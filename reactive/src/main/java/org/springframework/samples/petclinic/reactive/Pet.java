@@ -0,0 +1,37 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.samples.petclinic.reactive;
+
+import java.time.LocalDate;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Table;
+
+/**
+ * Row of the {@code pets} table.
+ *
+ * @param id the pet id
+ * @param version the version, incremented on every update and visit
+ * @param name the name
+ * @param birthDate the date of birth
+ * @param typeId the id of the pet type
+ * @param ownerId the id of the owner
+ */
+@Table("pets")
+public record Pet(@Id Integer id, Integer version, String name, LocalDate birthDate, Integer typeId, Integer ownerId) {
+
+}
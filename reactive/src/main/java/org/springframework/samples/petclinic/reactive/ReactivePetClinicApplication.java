@@ -0,0 +1,37 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.samples.petclinic.reactive;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+
+/**
+ * Non-blocking variant of the owner API. It serves the read side of the
+ * {@code /api/owners} contract of the servlet application from the same schema, on
+ * WebFlux and R2DBC, so that no thread is held while a client waits on the database or
+ * reads a response.
+ *
+ * @author Spring PetClinic contributors
+ */
+@SpringBootApplication
+public class ReactivePetClinicApplication {
+
+	public static void main(String[] args) {
+		SpringApplication.run(ReactivePetClinicApplication.class, args);
+	}
+
+}
@@ -0,0 +1,43 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.samples.petclinic.reactive;
+
+import java.time.LocalDate;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Column;
+import org.springframework.data.relational.core.mapping.Table;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * Row of the {@code visits} table.
+ *
+ * @param id the visit id
+ * @param date the date of the visit
+ * @param description what was done
+ * @param petId the id of the visited pet
+ */
+@Table("visits")
+public record Visit(@Id Integer id, @Column("visit_date") LocalDate date, String description, Integer petId) {
+
+	@JsonProperty("new")
+	public boolean isNew() {
+		return this.id == null;
+	}
+
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.samples.petclinic.reactive;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+/**
+ * Load benchmark of the owner API at many concurrent connections, to compare this
+ * application with the servlet one under the same client.
+ * <p>
+ * {@value #DEFAULT_CONNECTIONS} clients each hold their own connection open and send
+ * requests back to back, alternating between an owner with pets and visits and a paged
+ * search. After a warm-up, completed requests and their latencies are counted for a fixed
+ * time, errors over the whole run. The client is non-blocking, so it does not need a
+ * thread per connection itself.
+ * <p>
+ * The benchmark runs against an application that is already started, so both can be
+ * measured the same way, and only when the <code>petclinic.benchmark</code> system
+ * property is set to <code>true</code>, e.g.
+ * <code>./mvnw test -Dtest=OwnerApiLoadBenchmarkTests -Dpetclinic.benchmark=true
+ * -Dpetclinic.benchmark.url=http://localhost:8080</code>. The number of connections and
+ * the measured time can be changed with <code>petclinic.benchmark.connections</code> and
+ * <code>petclinic.benchmark.seconds</code>.
+ */
+@EnabledIfSystemProperty(named = "petclinic.benchmark", matches = "true")
+class OwnerApiLoadBenchmarkTests {
+
+	private static final Logger logger = LoggerFactory.getLogger(OwnerApiLoadBenchmarkTests.class);
+
+	private static final int DEFAULT_CONNECTIONS = 10_000;
+
+	private static final Duration WARM_UP = Duration.ofSeconds(15);
+
+	private static final Duration ERROR_BACKOFF = Duration.ofMillis(100);
+
+	@Test
+	void ownerApiAtManyConnections() {
+		String url = System.getProperty("petclinic.benchmark.url", "http://localhost:8081");
+		int connections = Integer.getInteger("petclinic.benchmark.connections", DEFAULT_CONNECTIONS);
+		Duration measured = Duration.ofSeconds(Integer.getInteger("petclinic.benchmark.seconds", 30));
+
+		ConnectionProvider provider = ConnectionProvider.builder("benchmark")
+			.maxConnections(connections)
+			.pendingAcquireMaxCount(-1)
+			.pendingAcquireTimeout(Duration.ofMinutes(2))
+			.build();
+		HttpClient client = HttpClient.create(provider).baseUrl(url).responseTimeout(Duration.ofSeconds(60));
+
+		long start = System.nanoTime();
+		long measureFrom = start + WARM_UP.toNanos();
+		long measureUntil = measureFrom + measured.toNanos();
+		Queue<Long> latencies = new ConcurrentLinkedQueue<>();
+		Map<String, LongAdder> errors = new ConcurrentHashMap<>();
+		AtomicInteger served = new AtomicInteger();
+
+		Flux.range(0, connections).flatMap(id -> {
+			AtomicLong sent = new AtomicLong();
+			AtomicInteger answered = new AtomicInteger();
+			return Mono.defer(() -> {
+				long requestStart = System.nanoTime();
+				String path = (sent.getAndIncrement() % 2 == 0) ? "/api/owners/" + (1 + id % 10)
+						: "/api/owners?lastName=" + (char) ('a' + id % 26);
+				return client.get()
+					.uri(path)
+					.responseSingle((response, body) -> body.asByteArray().thenReturn(response.status().code()))
+					.doOnNext(status -> {
+						long end = System.nanoTime();
+						boolean counted = requestStart >= measureFrom && end <= measureUntil;
+						if (status != 200) {
+							errors.computeIfAbsent("HTTP " + status, key -> new LongAdder()).increment();
+						}
+						else if (counted) {
+							latencies.add(end - requestStart);
+						}
+						if (answered.getAndIncrement() == 0) {
+							served.incrementAndGet();
+						}
+					})
+					.then()
+					.onErrorResume(ex -> {
+						errors.computeIfAbsent(ex.getClass().getSimpleName(), key -> new LongAdder()).increment();
+						return Mono.delay(ERROR_BACKOFF).then();
+					});
+			}).repeat(() -> System.nanoTime() < measureUntil);
+		}, connections).blockLast();
+		provider.dispose();
+
+		long[] sorted = latencies.stream().mapToLong(Long::longValue).sorted().toArray();
+		assertThat(sorted).isNotEmpty();
+		logger.info(
+				"{} at {} connections: {} of {} clients served, {} requests/s, errors {}, "
+						+ "latency median {} ms, p99 {} ms, max {} ms",
+				url, connections, served.get(), connections, sorted.length / measured.toSeconds(), errors,
+				percentile(sorted, 50), percentile(sorted, 99), sorted[sorted.length - 1] / 1_000_000);
+	}
+
+	private static long percentile(long[] sorted, int percent) {
+		return sorted[Math.min(sorted.length - 1, sorted.length * percent / 100)] / 1_000_000;
+	}
+
+}
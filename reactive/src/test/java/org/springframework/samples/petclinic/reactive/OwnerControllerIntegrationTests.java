@@ -0,0 +1,163 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.samples.petclinic.reactive;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import reactor.test.StepVerifier;
+
+/**
+ * Integration tests for {@link OwnerController} against the sample data.
+ */
+@SpringBootTest(webEnvironment = WebEnvironment.RANDOM_PORT)
+class OwnerControllerIntegrationTests {
+
+	@Autowired
+	private WebTestClient client;
+
+	@Test
+	void shouldGetOwnerWithPetsOrderedByNameAndVisitsByDate() {
+		this.client.get()
+			.uri("/api/owners/6")
+			.exchange()
+			.expectStatus()
+			.isOk()
+			.expectHeader()
+			.valueMatches(HttpHeaders.ETAG, "\"0-[0-9a-f]{32}\"")
+			.expectBody()
+			.jsonPath("$.lastName")
+			.isEqualTo("Coleman")
+			.jsonPath("$.pets.length()")
+			.isEqualTo(2)
+			.jsonPath("$.pets[0].name")
+			.isEqualTo("Max")
+			.jsonPath("$.pets[0].type.name")
+			.isEqualTo("cat")
+			.jsonPath("$.pets[0].ownerId")
+			.isEqualTo(6)
+			.jsonPath("$.pets[0].visits[0].description")
+			.isEqualTo("rabies shot")
+			.jsonPath("$.pets[0].visits[0].date")
+			.isEqualTo("2013-01-02")
+			.jsonPath("$.pets[0].visits[1].date")
+			.isEqualTo("2013-01-03")
+			.jsonPath("$.pets[1].name")
+			.isEqualTo("Samantha")
+			.jsonPath("$.pets[0].age")
+			.isNumber()
+			.jsonPath("$.new")
+			.isEqualTo(false)
+			.jsonPath("$.version")
+			.doesNotExist();
+	}
+
+	@Test
+	void shouldAnswerCurrentETagWithNotModified() {
+		String eTag = this.client.get()
+			.uri("/api/owners/6")
+			.exchange()
+			.expectStatus()
+			.isOk()
+			.returnResult(OwnerDetails.class)
+			.getResponseHeaders()
+			.getETag();
+
+		this.client.get()
+			.uri("/api/owners/6")
+			.header(HttpHeaders.IF_NONE_MATCH, eTag)
+			.exchange()
+			.expectStatus()
+			.isNotModified()
+			.expectHeader()
+			.valueEquals(HttpHeaders.ETAG, eTag)
+			.expectBody()
+			.isEmpty();
+	}
+
+	@Test
+	void shouldReturnNotFoundForUnknownOwner() {
+		this.client.get().uri("/api/owners/999").exchange().expectStatus().isNotFound().expectBody().isEmpty();
+	}
+
+	@Test
+	void shouldSearchOwnersByLastNamePrefixIgnoringCase() {
+		this.client.get()
+			.uri("/api/owners?lastName=dav")
+			.exchange()
+			.expectStatus()
+			.isOk()
+			.expectBody()
+			.jsonPath("$.totalElements")
+			.isEqualTo(2)
+			.jsonPath("$.content[0].lastName")
+			.isEqualTo("Davis")
+			.jsonPath("$.content[0].petCount")
+			.isEqualTo(1)
+			.jsonPath("$.pageable.pageSize")
+			.isEqualTo(5);
+	}
+
+	@Test
+	void shouldPageSearchResultsWithoutTotal() {
+		this.client.get()
+			.uri("/api/owners?size=3&page=1&includeTotal=false")
+			.exchange()
+			.expectStatus()
+			.isOk()
+			.expectBody()
+			.jsonPath("$.content.length()")
+			.isEqualTo(3)
+			.jsonPath("$.number")
+			.isEqualTo(1)
+			.jsonPath("$.last")
+			.isEqualTo(false)
+			.jsonPath("$.totalElements")
+			.doesNotExist();
+	}
+
+	@Test
+	void shouldRejectInvalidPageSize() {
+		this.client.get().uri("/api/owners?size=0").exchange().expectStatus().isBadRequest();
+	}
+
+	@Test
+	void shouldStreamSearchResultsAsNdjson() {
+		var result = this.client.get()
+			.uri("/api/owners/stream?lastName=Davis")
+			.accept(MediaType.APPLICATION_NDJSON)
+			.exchange()
+			.expectStatus()
+			.isOk()
+			.returnResult(OwnerSummary.class);
+
+		assertThat(result.getResponseHeaders().getContentType()).isEqualTo(MediaType.APPLICATION_NDJSON);
+		StepVerifier.create(result.getResponseBody())
+			.assertNext(owner -> assertThat(owner.firstName()).isEqualTo("Betty"))
+			.assertNext(owner -> assertThat(owner.firstName()).isEqualTo("Harold"))
+			.verifyComplete();
+	}
+
+}
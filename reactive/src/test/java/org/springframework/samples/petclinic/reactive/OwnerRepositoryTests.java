@@ -0,0 +1,72 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.samples.petclinic.reactive;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.data.r2dbc.DataR2dbcTest;
+
+import reactor.test.StepVerifier;
+
+/**
+ * Tests for the queries of {@link OwnerRepository} against the sample data.
+ */
+@DataR2dbcTest
+class OwnerRepositoryTests {
+
+	@Autowired
+	private OwnerRepository owners;
+
+	@Test
+	void shouldPageSummariesInLastNameOrder() {
+		StepVerifier.create(this.owners.findSummaries("%", 2, 2))
+			.assertNext(owner -> assertThat(owner.lastName()).isEqualTo("Davis"))
+			.assertNext(owner -> assertThat(owner.lastName()).isEqualTo("Davis"))
+			.verifyComplete();
+	}
+
+	@Test
+	void shouldCountPetsOfSummaries() {
+		StepVerifier.create(this.owners.findSummaries("coleman%", 5, 0))
+			.assertNext(owner -> assertThat(owner.petCount()).isEqualTo(2))
+			.verifyComplete();
+	}
+
+	@Test
+	void shouldStreamSummariesOnlyAsFastAsRequested() {
+		StepVerifier.create(this.owners.streamSummaries("%"), 0)
+			.expectSubscription()
+			.expectNoEvent(Duration.ofMillis(100))
+			.thenRequest(1)
+			.assertNext(owner -> assertThat(owner.lastName()).isEqualTo("Black"))
+			.thenRequest(2)
+			.expectNextCount(2)
+			.thenCancel()
+			.verify();
+	}
+
+	@Test
+	void shouldCountMatchingOwners() {
+		StepVerifier.create(this.owners.countByPattern("dav%")).expectNext(2L).verifyComplete();
+	}
+
+}
@@ -30,6 +30,10 @@ import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 import org.springframework.web.context.request.WebRequest;
 
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.ConstraintViolationException;
+import jakarta.validation.Path;
+
 /**
  * Global exception handler for the PetClinic application. Provides centralized exception
  * handling and standardized error responses for all REST endpoints.
@@ -176,6 +180,41 @@ public class GlobalExceptionHandler {
 		return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
 	}
 
+	/**
+	 * Handles ConstraintViolationException for invalid request parameters and path
+	 * variables.
+	 * @param ex the ConstraintViolationException
+	 * @param request the web request
+	 * @return ResponseEntity with validation error details
+	 */
+	@ExceptionHandler(ConstraintViolationException.class)
+	public ResponseEntity<ValidationErrorResponse> handleConstraintViolation(ConstraintViolationException ex,
+			WebRequest request) {
+		List<FieldErrorDto> fieldErrors = new ArrayList<>();
+
+		for (ConstraintViolation<?> violation : ex.getConstraintViolations()) {
+			String field = null;
+			for (Path.Node node : violation.getPropertyPath()) {
+				field = node.getName();
+			}
+			FieldErrorDto dto = new FieldErrorDto();
+			dto.setField(field);
+			dto.setMessage(violation.getMessage());
+			dto.setRejectedValue(violation.getInvalidValue() != null ? violation.getInvalidValue().toString() : null);
+			fieldErrors.add(dto);
+		}
+
+		ValidationErrorResponse errorResponse = ValidationErrorResponse.validationBuilder()
+			.errorCode("VALIDATION_ERROR")
+			.message("Validation failed for request")
+			.timestamp(LocalDateTime.now())
+			.path(getRequestPath(request))
+			.fieldErrors(fieldErrors)
+			.build();
+
+		return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
+	}
+
 	/**
 	 * Handles generic RuntimeException as fallback.
 	 * @param ex the RuntimeException
@@ -21,10 +21,19 @@ import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.MappedSuperclass;
+import jakarta.persistence.Version;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
 
 /**
- * Simple JavaBean domain object with an id property. Used as a base class for objects
- * needing this property.
+ * Simple JavaBean domain object with an id and a version property. Used as a base class
+ * for objects needing these properties. The version is incremented by every update and
+ * guards against lost updates; it is published through entity tags rather than in the
+ * JSON representation.
+ * <p>
+ * Ids are assigned before insert from one sequence per table, named after the table (e.g.
+ * <code>owners_seq</code>) and incremented by 50. Hibernate reserves 50 ids per sequence
+ * call, so inserts need no round-trip of their own and are sent in JDBC batches.
  *
  * @author Ken Krebs
  * @author Juergen Hoeller
@@ -33,9 +42,12 @@ import jakarta.persistence.MappedSuperclass;
 public class BaseEntity implements Serializable {
 
 	@Id
-	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	@GeneratedValue(strategy = GenerationType.SEQUENCE)
 	private Integer id;
 
+	@Version
+	private Integer version;
+
 	public Integer getId() {
 		return id;
 	}
@@ -44,6 +56,15 @@ public class BaseEntity implements Serializable {
 		this.id = id;
 	}
 
+	@JsonIgnore
+	public Integer getVersion() {
+		return version;
+	}
+
+	public void setVersion(Integer version) {
+		this.version = version;
+	}
+
 	public boolean isNew() {
 		return this.id == null;
 	}
@@ -0,0 +1,42 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.owner;
+
+import java.util.Optional;
+
+import org.springframework.samples.petclinic.model.BaseEntity;
+
+/**
+ * Repository fragment for loading an entity by id with a named entity graph, while still
+ * going through the second-level cache. An entity that is cached is served from memory
+ * and the graph is ignored; one that is not is read with the graph's associations joined.
+ * Hibernate joins at most one collection per load, so a collection nested in another one
+ * is still fetched by a separate, batched query.
+ */
+public interface CachedGraphLoads {
+
+	/**
+	 * Find an entity by id, fetching the given entity graph if it has to be read from the
+	 * database.
+	 * @param type the type of the entity
+	 * @param id the id of the entity
+	 * @param graph the name of the entity graph to fetch on a cache miss
+	 * @return an {@link Optional} containing the entity if found, or an empty
+	 * {@link Optional} if not found
+	 */
+	<T extends BaseEntity> Optional<T> findById(Class<T> type, Integer id, String graph);
+
+}
@@ -0,0 +1,46 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.owner;
+
+import java.util.Map;
+import java.util.Optional;
+
+import org.springframework.samples.petclinic.model.BaseEntity;
+
+import jakarta.persistence.EntityManager;
+import org.hibernate.jpa.SpecHints;
+
+/**
+ * Implementation of {@link CachedGraphLoads}, picked up by Spring Data for the
+ * repositories extending it. The graph is passed as a load graph to
+ * {@link EntityManager#find(Class, Object, Map)}, which consults the second-level cache
+ * before building a query.
+ */
+class CachedGraphLoadsImpl implements CachedGraphLoads {
+
+	private final EntityManager entityManager;
+
+	CachedGraphLoadsImpl(EntityManager entityManager) {
+		this.entityManager = entityManager;
+	}
+
+	@Override
+	public <T extends BaseEntity> Optional<T> findById(Class<T> type, Integer id, String graph) {
+		Map<String, Object> hints = Map.of(SpecHints.HINT_SPEC_LOAD_GRAPH, this.entityManager.getEntityGraph(graph));
+		return Optional.ofNullable(this.entityManager.find(type, id, hints));
+	}
+
+}
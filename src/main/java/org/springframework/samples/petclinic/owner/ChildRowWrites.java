@@ -0,0 +1,54 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.samples.petclinic.owner;
+
+import org.springframework.samples.petclinic.model.BaseEntity;
+
+/**
+ * Repository fragment for child rows, such as pets and visits, that are written on their
+ * own through their foreign key rather than by saving their parent with all its children.
+ * The parent is only touched, not loaded with its collection.
+ */
+public interface ChildRowWrites {
+
+	/**
+	 * Account for a child row added to a parent's collection without going through the
+	 * collection, as Hibernate would if it had: the parent's version is incremented on
+	 * commit, and the parent's collection is then evicted from the second-level cache and
+	 * the parent published as changed.
+	 * @param parentType the type of the parent entity
+	 * @param parentId the id of the parent
+	 * @param collection the name of the parent's collection the child belongs to
+	 * @throws org.springframework.orm.ObjectRetrievalFailureException if there is no such
+	 * parent
+	 */
+	void childAdded(Class<? extends BaseEntity> parentType, Integer parentId, String collection);
+
+	/**
+	 * Account for a child row added to a parent's collection like
+	 * {@link #childAdded(Class, Integer, String)}, but leave the parent's version alone.
+	 * For children whose addition is tracked otherwise, so that concurrent additions to
+	 * the same parent neither write its row nor conflict with each other.
+	 * @param parentType the type of the parent entity
+	 * @param parentId the id of the parent
+	 * @param collection the name of the parent's collection the child belongs to
+	 * @throws org.springframework.orm.ObjectRetrievalFailureException if there is no such
+	 * parent
+	 */
+	void childAddedKeepingVersion(Class<? extends BaseEntity> parentType, Integer parentId, String collection);
+
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.samples.petclinic.owner;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.samples.petclinic.model.BaseEntity;
+import org.springframework.samples.petclinic.system.CacheInvalidationBus;
+import org.springframework.samples.petclinic.system.EntityChange;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.Assert;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityNotFoundException;
+import jakarta.persistence.LockModeType;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+
+/**
+ * Implementation of {@link ChildRowWrites}, picked up by Spring Data for the repositories
+ * extending it. Touched parents are collected per transaction, so that a parent gaining
+ * several children is evicted and published once, and incremented at most once.
+ */
+class ChildRowWritesImpl implements ChildRowWrites {
+
+	private final EntityManager entityManager;
+
+	private final ObjectProvider<CacheInvalidationBus> bus;
+
+	ChildRowWritesImpl(EntityManager entityManager, ObjectProvider<CacheInvalidationBus> bus) {
+		this.entityManager = entityManager;
+		this.bus = bus;
+	}
+
+	@Override
+	public void childAdded(Class<? extends BaseEntity> parentType, Integer parentId, String collection) {
+		BaseEntity parent = touch(parentType, parentId, collection);
+		if (this.entityManager.getLockMode(parent) != LockModeType.OPTIMISTIC_FORCE_INCREMENT) {
+			this.entityManager.lock(parent, LockModeType.OPTIMISTIC_FORCE_INCREMENT);
+		}
+	}
+
+	@Override
+	public void childAddedKeepingVersion(Class<? extends BaseEntity> parentType, Integer parentId, String collection) {
+		touch(parentType, parentId, collection);
+	}
+
+	private BaseEntity touch(Class<? extends BaseEntity> parentType, Integer parentId, String collection) {
+		Assert.state(TransactionSynchronizationManager.isSynchronizationActive(),
+				"Child rows must be written within a transaction");
+		BaseEntity parent = this.entityManager.find(parentType, parentId);
+		if (parent == null) {
+			throw new EntityNotFoundException("No " + parentType.getSimpleName() + " with id " + parentId);
+		}
+		touchedParents().add(new TouchedParent(parentType, parentId, parentType.getName() + "." + collection));
+		return parent;
+	}
+
+	private Set<TouchedParent> touchedParents() {
+		TouchedParents touched = (TouchedParents) TransactionSynchronizationManager.getResource(TouchedParents.class);
+		if (touched == null) {
+			touched = new TouchedParents();
+			TransactionSynchronizationManager.bindResource(TouchedParents.class, touched);
+			TransactionSynchronizationManager.registerSynchronization(touched);
+		}
+		return touched.parents;
+	}
+
+	private record TouchedParent(Class<? extends BaseEntity> type, Integer id, String role) {
+
+	}
+
+	/**
+	 * The parents touched within one transaction.
+	 */
+	private final class TouchedParents implements TransactionSynchronization {
+
+		private final Set<TouchedParent> parents = new LinkedHashSet<>();
+
+		@Override
+		public void afterCommit() {
+			// peers evict through the bus; this node's cache does not hear of local
+			// changes to the collection. A parent that was incremented went through
+			// Hibernate, which keeps its entry current; evicting it would let a load that
+			// started before the commit cache the old version again.
+			Cache cache = ChildRowWritesImpl.this.entityManager.getEntityManagerFactory()
+				.unwrap(SessionFactory.class)
+				.getCache();
+			for (TouchedParent parent : this.parents) {
+				cache.evictCollectionData(parent.role(), parent.id());
+			}
+			ChildRowWritesImpl.this.bus.ifAvailable(bus -> bus.publish(this.parents.stream()
+				.map(parent -> new EntityChange(parent.type().getName(), parent.id()))
+				.toList()));
+		}
+
+		@Override
+		public void afterCompletion(int status) {
+			TransactionSynchronizationManager.unbindResourceIfPossible(TouchedParents.class);
+		}
+
+	}
+
+}
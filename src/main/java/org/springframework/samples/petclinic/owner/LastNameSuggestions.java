@@ -0,0 +1,339 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.samples.petclinic.owner;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.samples.petclinic.owner.OwnerRepository.OwnerLastName;
+import org.springframework.samples.petclinic.owner.OwnerRepository.OwnerVisitCount;
+import org.springframework.samples.petclinic.system.CacheInvalidation;
+import org.springframework.samples.petclinic.system.CacheInvalidationBus;
+import org.springframework.samples.petclinic.system.CacheInvalidationListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * In-memory autocomplete for owner last names.
+ * <p>
+ * The distinct {@link Owner#normalizeLastName normalized} last names are kept in a trie
+ * whose nodes store their children in sorted arrays rather than maps. Each name is
+ * weighted by the number of owners carrying it plus the visits of their pets, and every
+ * node remembers the highest weight below it, so the top completions of a prefix are
+ * found best-first without walking the whole subtree.
+ * <p>
+ * The trie is loaded once the application is ready and updated by the controllers when
+ * owners are created, renamed or deleted and when visits are booked. Owners changed on
+ * other nodes are reloaded when the {@link CacheInvalidationBus} reports them; their
+ * visits only count once the trie is loaded again. Suggestions never query the database.
+ */
+@Component
+public class LastNameSuggestions implements CacheInvalidationListener {
+
+	private static final int BATCH_SIZE = 1_000;
+
+	private static final Comparator<Ranked> RANKING = Comparator.comparingLong(Ranked::weight)
+		.reversed()
+		.thenComparing(ranked -> ranked.name() == null);
+
+	private final OwnerRepository owners;
+
+	private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+	private final Node root = new Node();
+
+	/**
+	 * The normalized last name and visit count of every owner, needed to move its weight
+	 * when the owner is renamed or deleted.
+	 */
+	private final Map<Integer, Registration> registrations = new HashMap<>();
+
+	public LastNameSuggestions(OwnerRepository owners) {
+		this.owners = owners;
+	}
+
+	/**
+	 * Load the last names of all owners, in batches of {@value #BATCH_SIZE}.
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	public void load() {
+		List<OwnerLastName> batch = this.owners.findLastNamesAfter(0, Limit.of(BATCH_SIZE));
+		while (!batch.isEmpty()) {
+			Map<Integer, Long> visits = this.owners.countVisitsByIdIn(batch.stream().map(OwnerLastName::getId).toList())
+				.stream()
+				.collect(Collectors.toMap(OwnerVisitCount::getOwnerId, OwnerVisitCount::getVisits));
+			this.lock.writeLock().lock();
+			try {
+				batch.forEach(
+						owner -> register(owner.getId(), owner.getLastName(), visits.getOrDefault(owner.getId(), 0L)));
+			}
+			finally {
+				this.lock.writeLock().unlock();
+			}
+			batch = this.owners.findLastNamesAfter(batch.get(batch.size() - 1).getId(), Limit.of(BATCH_SIZE));
+		}
+	}
+
+	/**
+	 * Reload the owners changed on other nodes; local changes are reported by the
+	 * controllers.
+	 */
+	@Override
+	public void invalidate(CacheInvalidation invalidation) {
+		Set<Integer> ids = invalidation.ids(Owner.class);
+		if (!invalidation.remote() || ids.isEmpty()) {
+			return;
+		}
+		Set<Integer> deleted = new HashSet<>(ids);
+		this.owners.findAllById(ids).forEach(owner -> {
+			ownerSaved(owner);
+			deleted.remove(owner.getId());
+		});
+		deleted.forEach(this::ownerDeleted);
+	}
+
+	/**
+	 * Record the current last name of a created or updated owner.
+	 * @param owner the saved owner
+	 */
+	public void ownerSaved(Owner owner) {
+		this.lock.writeLock().lock();
+		try {
+			Registration previous = this.registrations.get(owner.getId());
+			register(owner.getId(), owner.getLastName(), previous == null ? 0 : previous.visits());
+		}
+		finally {
+			this.lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Forget a deleted owner.
+	 * @param ownerId the id of the deleted owner
+	 */
+	public void ownerDeleted(Integer ownerId) {
+		this.lock.writeLock().lock();
+		try {
+			Registration previous = this.registrations.remove(ownerId);
+			if (previous != null) {
+				update(this.root, previous.key(), 0, null, -1, -(1 + previous.visits()));
+			}
+		}
+		finally {
+			this.lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Weight the last name of an owner by one more visit.
+	 * @param ownerId the id of the owner whose pet was visited
+	 */
+	public void visitBooked(Integer ownerId) {
+		this.lock.writeLock().lock();
+		try {
+			Registration previous = this.registrations.get(ownerId);
+			if (previous != null) {
+				this.registrations.put(ownerId, new Registration(previous.key(), previous.visits() + 1));
+				update(this.root, previous.key(), 0, null, 0, 1);
+			}
+		}
+		finally {
+			this.lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Return the most weighted last names starting with the given prefix, ignoring case.
+	 * @param prefix the typed prefix
+	 * @param limit the maximum number of suggestions
+	 * @return the suggested last names, best first
+	 */
+	public List<String> suggest(String prefix, int limit) {
+		String key = Owner.normalizeLastName(prefix);
+		this.lock.readLock().lock();
+		try {
+			Node node = this.root;
+			for (int i = 0; i < key.length() && node != null; i++) {
+				node = node.child(key.charAt(i));
+			}
+			return node == null ? List.of() : top(node, limit);
+		}
+		finally {
+			this.lock.readLock().unlock();
+		}
+	}
+
+	private void register(Integer ownerId, String lastName, long visits) {
+		Registration previous = this.registrations.get(ownerId);
+		if (previous != null) {
+			update(this.root, previous.key(), 0, null, -1, -(1 + previous.visits()));
+		}
+		if (lastName == null || lastName.isEmpty()) {
+			this.registrations.remove(ownerId);
+			return;
+		}
+		Registration registration = new Registration(Owner.normalizeLastName(lastName), visits);
+		this.registrations.put(ownerId, registration);
+		update(this.root, registration.key(), 0, lastName, 1, 1 + visits);
+	}
+
+	/**
+	 * Add the deltas to the name ending below the given node, creating and pruning nodes
+	 * as needed, and refresh the subtree maxima on the way back.
+	 * @return whether the node became empty and can be removed
+	 */
+	private static boolean update(Node node, String key, int depth, String name, int ownersDelta, long weightDelta) {
+		if (depth == key.length()) {
+			node.owners += ownersDelta;
+			node.weight += weightDelta;
+			if (node.owners <= 0) {
+				node.owners = 0;
+				node.weight = 0;
+				node.name = null;
+			}
+			else if (node.name == null) {
+				node.name = name;
+			}
+		}
+		else {
+			char c = key.charAt(depth);
+			Node child = node.child(c);
+			if (child == null) {
+				if (ownersDelta <= 0) {
+					return false;
+				}
+				child = node.addChild(c);
+			}
+			if (update(child, key, depth + 1, name, ownersDelta, weightDelta)) {
+				node.removeChild(c);
+			}
+		}
+		node.refreshMaxWeight();
+		return node.name == null && node.labels.length == 0;
+	}
+
+	private static List<String> top(Node start, int limit) {
+		// best-first search: nodes are ranked by the best weight below them and names by
+		// their own weight, so names are taken in descending weight
+		PriorityQueue<Ranked> queue = new PriorityQueue<>(RANKING);
+		queue.add(new Ranked(start, null, start.maxWeight));
+		List<String> names = new ArrayList<>(limit);
+		while (!queue.isEmpty() && names.size() < limit) {
+			Ranked ranked = queue.poll();
+			if (ranked.name() != null) {
+				names.add(ranked.name());
+				continue;
+			}
+			Node node = ranked.node();
+			if (node.name != null) {
+				queue.add(new Ranked(null, node.name, node.weight));
+			}
+			for (Node child : node.children) {
+				queue.add(new Ranked(child, null, child.maxWeight));
+			}
+		}
+		return names;
+	}
+
+	/**
+	 * A trie node or a name waiting in the best-first search queue.
+	 */
+	private record Ranked(Node node, String name, long weight) {
+
+	}
+
+	private record Registration(String key, long visits) {
+
+	}
+
+	/**
+	 * A trie node. Children are kept in arrays sorted by their label.
+	 */
+	private static final class Node {
+
+		private static final char[] NO_LABELS = new char[0];
+
+		private static final Node[] NO_CHILDREN = new Node[0];
+
+		private char[] labels = NO_LABELS;
+
+		private Node[] children = NO_CHILDREN;
+
+		private String name;
+
+		private int owners;
+
+		private long weight;
+
+		private long maxWeight;
+
+		Node child(char label) {
+			int index = Arrays.binarySearch(this.labels, label);
+			return index >= 0 ? this.children[index] : null;
+		}
+
+		Node addChild(char label) {
+			int index = -(Arrays.binarySearch(this.labels, label) + 1);
+			char[] labels = new char[this.labels.length + 1];
+			Node[] children = new Node[this.children.length + 1];
+			System.arraycopy(this.labels, 0, labels, 0, index);
+			System.arraycopy(this.children, 0, children, 0, index);
+			System.arraycopy(this.labels, index, labels, index + 1, this.labels.length - index);
+			System.arraycopy(this.children, index, children, index + 1, this.children.length - index);
+			Node child = new Node();
+			labels[index] = label;
+			children[index] = child;
+			this.labels = labels;
+			this.children = children;
+			return child;
+		}
+
+		void removeChild(char label) {
+			int index = Arrays.binarySearch(this.labels, label);
+			char[] labels = new char[this.labels.length - 1];
+			Node[] children = new Node[this.children.length - 1];
+			System.arraycopy(this.labels, 0, labels, 0, index);
+			System.arraycopy(this.children, 0, children, 0, index);
+			System.arraycopy(this.labels, index + 1, labels, index, labels.length - index);
+			System.arraycopy(this.children, index + 1, children, index, children.length - index);
+			this.labels = labels;
+			this.children = children;
+		}
+
+		void refreshMaxWeight() {
+			long max = this.name != null ? this.weight : 0;
+			for (Node child : this.children) {
+				max = Math.max(max, child.maxWeight);
+			}
+			this.maxWeight = max;
+		}
+
+	}
+
+}
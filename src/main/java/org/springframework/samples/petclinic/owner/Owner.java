@@ -17,24 +17,47 @@ package org.springframework.samples.petclinic.owner;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
 
 import org.springframework.core.style.ToStringCreator;
 import org.springframework.samples.petclinic.model.Person;
+import org.springframework.samples.petclinic.system.CacheInvalidationEntityListener;
 import org.springframework.util.Assert;
 
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.JoinColumn;
+import jakarta.persistence.NamedAttributeNode;
+import jakarta.persistence.NamedEntityGraph;
+import jakarta.persistence.NamedSubgraph;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.OrderBy;
+import jakarta.persistence.PrePersist;
 import jakarta.persistence.Table;
 import jakarta.validation.constraints.Pattern;
 import jakarta.validation.constraints.NotBlank;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.Generated;
+import org.hibernate.generator.EventType;
 
 /**
  * Simple JavaBean domain object representing an owner.
+ * <p>
+ * The {@link #getPets() pets} and their visits are loaded lazily. Repository methods
+ * select one of the named entity graphs declared here to decide how much of the aggregate
+ * is fetched: {@code owner-summary} (owner columns only), {@code owner-with-pets} (pets
+ * and their types) or {@code owner-full} (pets, types and visits).
+ * <p>
+ * Last name searches go through the indexed <code>last_name_normalized</code> column,
+ * which the database derives from <code>last_name</code> with
+ * {@link #normalizeLastName(String) the same normalization} on every profile.
+ * <p>
+ * Owners and their pet collections are kept in the Hibernate second-level cache, so
+ * loading the same owner repeatedly within a user flow is served from memory.
  *
  * @author Ken Krebs
  * @author Juergen Hoeller
@@ -44,7 +67,15 @@ import jakarta.validation.constraints.NotBlank;
  * @author Wick Dynex
  */
 @Entity
+@EntityListeners(CacheInvalidationEntityListener.class)
 @Table(name = "owners")
+@NamedEntityGraph(name = "owner-summary")
+@NamedEntityGraph(name = "owner-with-pets", attributeNodes = @NamedAttributeNode(value = "pets", subgraph = "pet"),
+		subgraphs = @NamedSubgraph(name = "pet", attributeNodes = @NamedAttributeNode("type")))
+@NamedEntityGraph(name = "owner-full", attributeNodes = @NamedAttributeNode(value = "pets", subgraph = "pet"),
+		subgraphs = @NamedSubgraph(name = "pet",
+				attributeNodes = { @NamedAttributeNode("type"), @NamedAttributeNode("visits") }))
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public class Owner extends Person {
 
 	@Column(name = "address")
@@ -60,8 +91,13 @@ public class Owner extends Person {
 	@Pattern(regexp = "\\d{10}", message = "{telephone.invalid}")
 	private String telephone;
 
-	@OneToMany(cascade = CascadeType.ALL, fetch = FetchType.EAGER)
-	@JoinColumn(name = "owner_id")
+	@Column(name = "last_name_normalized", insertable = false, updatable = false)
+	@Generated(event = { EventType.INSERT, EventType.UPDATE })
+	private String lastNameNormalized;
+
+	@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+	@OneToMany(cascade = CascadeType.ALL, fetch = FetchType.LAZY)
+	@JoinColumn(name = "owner_id", insertable = false, updatable = false)
 	@OrderBy("name")
 	private final List<Pet> pets = new ArrayList<>();
 
@@ -87,6 +123,16 @@ public class Owner extends Person {
 		}
 	}
 
+	/**
+	 * Normalize a last name, or a prefix of one, the way the
+	 * <code>last_name_normalized</code> column is computed.
+	 * @param lastName the last name or prefix
+	 * @return the lower-cased value, or an empty string for <code>null</code>
+	 */
+	public static String normalizeLastName(String lastName) {
+		return lastName == null ? "" : lastName.toLowerCase(Locale.ROOT);
+	}
+
 	/**
 	 * Creates a new Builder for constructing Owner instances.
 	 * @return a new Builder instance
@@ -208,6 +254,10 @@ public class Owner extends Person {
 
 	}
 
+	String getLastNameNormalized() {
+		return this.lastNameNormalized;
+	}
+
 	public String getAddress() {
 		return this.address;
 	}
@@ -239,9 +289,19 @@ public class Owner extends Person {
 	public void addPet(Pet pet) {
 		if (pet.isNew()) {
 			getPets().add(pet);
+			pet.setOwner(this);
 		}
 	}
 
+	/**
+	 * Hand this owner to pets bound without {@link #addPet(Pet)}, such as those of a JSON
+	 * request, so that they take its id when they are persisted.
+	 */
+	@PrePersist
+	void adoptPets() {
+		this.pets.forEach(pet -> pet.setOwner(this));
+	}
+
 	/**
 	 * Return the Pet with the given name, or null if none found for this Owner.
 	 * @param name to test
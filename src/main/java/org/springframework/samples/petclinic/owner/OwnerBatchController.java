@@ -0,0 +1,152 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.samples.petclinic.owner;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RestController;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.ExampleObject;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+/**
+ * REST controller reading many owners in one request. Integrations that need a known set
+ * of owners send their ids at once instead of one <code>GET /api/owners/{ownerId}</code>
+ * per owner, and the owners are loaded with a fixed number of queries.
+ */
+@RestController
+@Tag(name = "Owners", description = "Pet clinic owner management operations")
+public class OwnerBatchController {
+
+	/**
+	 * Maximum number of ids per request.
+	 */
+	public static final int MAX_BATCH_SIZE = 200;
+
+	private final OwnerRepository owners;
+
+	public OwnerBatchController(OwnerRepository owners) {
+		this.owners = owners;
+	}
+
+	@Operation(summary = "Get owners by IDs",
+			description = "Retrieves up to " + MAX_BATCH_SIZE
+					+ " owners with their pets and visits. Results are returned in the order of the requested ids, "
+					+ "with 'found' set to false for ids that do not exist.")
+	@ApiResponses(value = {
+			@ApiResponse(responseCode = "200", description = "Owners retrieved successfully",
+					content = @Content(mediaType = "application/json",
+							schema = @Schema(implementation = OwnerBatchGetResponse.class),
+							examples = @ExampleObject(name = "Batch Response", summary = "Example with one unknown id",
+									value = """
+											{
+											  "results": [
+											    {
+											      "id": 1,
+											      "found": true,
+											      "owner": {
+											        "id": 1,
+											        "firstName": "George",
+											        "lastName": "Franklin",
+											        "address": "110 W. Liberty St.",
+											        "city": "Madison",
+											        "telephone": "6085551023",
+											        "pets": []
+											      }
+											    },
+											    {
+											      "id": 999,
+											      "found": false,
+											      "owner": null
+											    }
+											  ]
+											}
+											"""))),
+			@ApiResponse(responseCode = "400", description = "No ids or more than " + MAX_BATCH_SIZE + " ids given") })
+	@PostMapping("/api/owners:batchGet")
+	public ResponseEntity<OwnerBatchGetResponse> batchGetOwners(
+			@io.swagger.v3.oas.annotations.parameters.RequestBody(description = "Ids of the owners to retrieve",
+					required = true, content = @Content(mediaType = "application/json",
+							examples = @ExampleObject(name = "Batch Request", value = """
+									{
+									  "ids": [1, 999]
+									}
+									"""))) @Valid @RequestBody OwnerBatchGetRequest request) {
+
+		Map<Integer, Owner> found = this.owners.findWithVisitsByIdIn(new LinkedHashSet<>(request.ids()))
+			.stream()
+			.collect(Collectors.toMap(Owner::getId, Function.identity()));
+		List<OwnerBatchGetResult> results = request.ids()
+			.stream()
+			.map(id -> new OwnerBatchGetResult(id, found.containsKey(id), found.get(id)))
+			.toList();
+		return ResponseEntity.ok(new OwnerBatchGetResponse(results));
+	}
+
+	/**
+	 * Request of the batch read endpoint.
+	 *
+	 * @param ids the ids of the owners to retrieve, duplicates allowed
+	 */
+	@Schema(description = "Ids of the owners to retrieve")
+	public record OwnerBatchGetRequest(@Schema(description = "Owner ids, at most " + MAX_BATCH_SIZE,
+			example = "[1, 2]") @NotEmpty @Size(max = MAX_BATCH_SIZE) List<@NotNull Integer> ids) {
+
+	}
+
+	/**
+	 * Response of the batch read endpoint.
+	 *
+	 * @param results one result per requested id, in request order
+	 */
+	@Schema(description = "Owners in the order of the requested ids")
+	public record OwnerBatchGetResponse(
+			@Schema(description = "One result per requested id") List<OwnerBatchGetResult> results) {
+
+	}
+
+	/**
+	 * Result for one requested id.
+	 *
+	 * @param id the requested id
+	 * @param found whether an owner with the id exists
+	 * @param owner the owner with its pets and visits, or <code>null</code> if not found
+	 */
+	@Schema(description = "Owner for one requested id")
+	public record OwnerBatchGetResult(@Schema(description = "Requested id", example = "1") Integer id,
+			@Schema(description = "Whether the owner exists", example = "true") boolean found,
+			@Schema(description = "The owner, or null if not found") Owner owner) {
+
+	}
+
+}
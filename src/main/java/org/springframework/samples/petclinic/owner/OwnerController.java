@@ -15,13 +15,21 @@
  */
 package org.springframework.samples.petclinic.owner;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
+import org.springframework.samples.petclinic.owner.OwnerRepository.OwnerVersion;
+import org.springframework.samples.petclinic.system.ETags;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.validation.BindingResult;
@@ -32,6 +40,7 @@ import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.servlet.ModelAndView;
 
 import jakarta.validation.Valid;
@@ -49,13 +58,18 @@ class OwnerController {
 
 	private static final String VIEWS_OWNER_CREATE_OR_UPDATE_FORM = "owners/createOrUpdateOwnerForm";
 
+	private static final int VISIT_WINDOW_SIZE = 5;
+
 	private final OwnerRepository owners;
 
 	private final VisitRepository visits;
 
-	public OwnerController(OwnerRepository owners, VisitRepository visits) {
+	private final LastNameSuggestions suggestions;
+
+	public OwnerController(OwnerRepository owners, VisitRepository visits, LastNameSuggestions suggestions) {
 		this.owners = owners;
 		this.visits = visits;
+		this.suggestions = suggestions;
 	}
 
 	@InitBinder
@@ -66,7 +80,7 @@ class OwnerController {
 	@ModelAttribute("owner")
 	public Owner findOwner(@PathVariable(name = "ownerId", required = false) Integer ownerId) {
 		return ownerId == null ? new Owner()
-				: this.owners.findById(ownerId)
+				: this.owners.findWithPetsById(ownerId)
 					.orElseThrow(() -> new IllegalArgumentException("Owner not found with id: " + ownerId
 							+ ". Please ensure the ID is correct " + "and the owner exists in the database."));
 	}
@@ -84,6 +98,7 @@ class OwnerController {
 		}
 
 		this.owners.save(owner);
+		this.suggestions.ownerSaved(owner);
 		redirectAttributes.addFlashAttribute("message", "New Owner Created");
 		return "redirect:/owners/" + owner.getId();
 	}
@@ -101,22 +116,35 @@ class OwnerController {
 			owner.setLastName(""); // empty string signifies broadest possible search
 		}
 
-		// find owners by last name
-		Page<Owner> ownersResults = findPaginatedForOwnersLastName(page, owner.getLastName());
-		if (ownersResults.isEmpty()) {
+		// probe for up to two owners by last name instead of counting all matches
+		List<Owner> probe = this.owners.findTop2ByLastNameStartingWith(owner.getLastName());
+		if (probe.isEmpty()) {
 			// no owners found
 			result.rejectValue("lastName", "notFound", "not found");
 			return "owners/findOwners";
 		}
 
-		if (ownersResults.getTotalElements() == 1) {
+		if (probe.size() == 1) {
 			// 1 owner found
-			owner = ownersResults.iterator().next();
+			owner = probe.get(0);
 			return "redirect:/owners/" + owner.getId();
 		}
 
 		// multiple owners found
-		return addPaginationModel(page, model, ownersResults);
+		Page<Owner> ownersResults = findPaginatedForOwnersLastName(page, owner.getLastName());
+		return addPaginationModel(page, model, withPets(ownersResults));
+	}
+
+	/**
+	 * The search page only loads owner columns; fetch the pets of the owners on the
+	 * current page with a single additional query so that the list can show their names.
+	 */
+	private Page<Owner> withPets(Page<Owner> paginated) {
+		List<Integer> ids = paginated.map(Owner::getId).getContent();
+		Map<Integer, Owner> ownersWithPets = this.owners.findByIdIn(ids)
+			.stream()
+			.collect(Collectors.toMap(Owner::getId, Function.identity()));
+		return paginated.map(owner -> ownersWithPets.getOrDefault(owner.getId(), owner));
 	}
 
 	private String addPaginationModel(int page, Model model, Page<Owner> paginated) {
@@ -155,34 +183,64 @@ class OwnerController {
 
 		owner.setId(ownerId);
 		this.owners.save(owner);
+		this.suggestions.ownerSaved(owner);
 		redirectAttributes.addFlashAttribute("message", "Owner Values Updated");
 		return "redirect:/owners/{ownerId}";
 	}
 
 	/**
-	 * Custom handler for displaying an owner.
+	 * Custom handler for displaying an owner. The owner is loaded with its pets only, and
+	 * only the most recent visits of each pet are read, for all pets in one query; older
+	 * ones are fetched in further windows from the visits API.
+	 * <p>
+	 * The page is tagged from the versions of the owner, its pets and their types, so a
+	 * page the browser already holds is confirmed with <code>304 Not Modified</code>
+	 * before any visits are read or the page is rendered.
 	 * @param ownerId the ID of the owner to display
 	 * @param sortOrder the sort order for visits (asc or desc), defaults to asc
-	 * @return a ModelMap with the model attributes for the view
+	 * @return a ModelMap with the model attributes for the view, or {@code null} if the
+	 * page is not modified
 	 */
 	@GetMapping("/owners/{ownerId}")
 	public ModelAndView showOwner(@PathVariable("ownerId") int ownerId,
-			@RequestParam(defaultValue = "asc") String sortOrder) {
+			@RequestParam(defaultValue = "asc") String sortOrder, Locale locale, Model model, WebRequest request) {
+		List<OwnerVersion> versions = this.owners.findVersionsById(ownerId);
+		// a page showing a message is not the one the browser holds
+		if (!versions.isEmpty() && !model.containsAttribute("message") && !model.containsAttribute("error")
+				&& request.checkNotModified(ETags.of(List.of(OwnerVersion.eTag(versions), sortOrder, locale)))) {
+			return null;
+		}
+
 		ModelAndView mav = new ModelAndView("owners/ownerDetails");
-		Optional<Owner> optionalOwner = this.owners.findById(ownerId);
+		Optional<Owner> optionalOwner = this.owners.findWithPetsById(ownerId);
 		Owner owner = optionalOwner.orElseThrow(() -> new IllegalArgumentException(
 				"Owner not found with id: " + ownerId + ". Please ensure the ID is correct "));
 
-		// Apply sorting to visits for each pet
-		Sort sort = sortOrder.equalsIgnoreCase("desc") ? Sort.by("date").descending() : Sort.by("date").ascending();
-		for (Pet pet : owner.getPets()) {
-			List<Visit> sortedVisits = this.visits.findByPetId(pet.getId(), sort);
-			pet.getVisits().clear();
-			pet.getVisits().addAll(sortedVisits);
+		// Load one window of recent visits for all pets at once, plus one visit per pet
+		// to
+		// tell whether more follow
+		Map<Integer, List<Visit>> visitsByPet = new HashMap<>();
+		Map<Integer, String> nextVisits = new HashMap<>();
+		owner.getPets().forEach(pet -> visitsByPet.put(pet.getId(), new ArrayList<>()));
+		if (!visitsByPet.isEmpty()) {
+			this.visits.findRecentByPetIdIn(visitsByPet.keySet(), VISIT_WINDOW_SIZE + 1)
+				.forEach(visit -> visitsByPet.get(visit.getPetId()).add(visit));
 		}
+		visitsByPet.forEach((petId, recent) -> {
+			if (recent.size() > VISIT_WINDOW_SIZE) {
+				recent.subList(VISIT_WINDOW_SIZE, recent.size()).clear();
+				nextVisits.put(petId, VisitWindowToken.encode(recent.get(recent.size() - 1)));
+			}
+			if (!sortOrder.equalsIgnoreCase("desc")) {
+				Collections.reverse(recent);
+			}
+		});
 
 		mav.addObject(owner);
 		mav.addObject("sortOrder", sortOrder);
+		mav.addObject("visitsByPet", visitsByPet);
+		mav.addObject("nextVisits", nextVisits);
+		mav.addObject("visitWindowSize", VISIT_WINDOW_SIZE);
 		return mav;
 	}
 
@@ -0,0 +1,218 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.samples.petclinic.owner;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.DatabaseMetaData;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+/**
+ * Exports all owners with their pets and visits as NDJSON, e.g. for nightly backups or to
+ * migrate a clinic.
+ * <p>
+ * The whole dataset is read through a single forward-only query that joins owners, pets,
+ * types and visits in owner id order. Rows are fetched from a database cursor
+ * {@value #FETCH_SIZE} at a time, or streamed one by one on MySQL, and folded into one
+ * owner at a time, which is written as soon as its last row was read, so memory use does
+ * not grow with the number of owners. Neither the persistence context nor the
+ * second-level cache is involved.
+ * <p>
+ * Every line holds one owner in the JSON representation of the owner API, which
+ * {@link OwnerImporter} reads back. Since owners are written in ascending id order, an
+ * interrupted export is resumed by passing the id of the last complete line as the
+ * watermark.
+ */
+@Component
+public class OwnerExporter {
+
+	/**
+	 * Number of rows fetched from the cursor per round-trip.
+	 */
+	static final int FETCH_SIZE = 500;
+
+	/**
+	 * Time an export may take before the request times out.
+	 */
+	static final Duration TIMEOUT = Duration.ofHours(1);
+
+	private static final String SELECT = "SELECT o.id, o.first_name, o.last_name, o.address, o.city, o.telephone, "
+			+ "p.id AS pet_id, p.name AS pet_name, p.birth_date, t.id AS type_id, t.name AS type_name, "
+			+ "v.id AS visit_id, v.visit_date, v.description FROM owners o "
+			+ "LEFT JOIN pets p ON p.owner_id = o.id LEFT JOIN types t ON t.id = p.type_id "
+			+ "LEFT JOIN visits v ON v.pet_id = p.id WHERE o.id > ? ORDER BY o.id, p.id, v.visit_date, v.id";
+
+	private final JdbcTemplate jdbcTemplate;
+
+	private final TransactionTemplate transactionTemplate;
+
+	private final ObjectWriter ndjson;
+
+	public OwnerExporter(DataSource dataSource, PlatformTransactionManager transactionManager,
+			ObjectMapper objectMapper) {
+		this.jdbcTemplate = new JdbcTemplate(dataSource);
+		// MySQL reads whole result sets unless a statement asks for its rows one by one
+		this.jdbcTemplate.setFetchSize(isMySql(dataSource) ? Integer.MIN_VALUE : FETCH_SIZE);
+		// PostgreSQL only reads through a cursor within a transaction
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+		this.transactionTemplate.setReadOnly(true);
+		this.ndjson = objectMapper.writerFor(Owner.class);
+	}
+
+	/**
+	 * Write all owners with an id greater than the watermark, one per line.
+	 * @param after the id of the last owner already exported, <code>0</code> for all
+	 * owners
+	 * @param out the stream to write to, left open
+	 * @return the number of owners written
+	 * @throws IOException if the stream cannot be written
+	 */
+	public long export(int after, OutputStream out) throws IOException {
+		try {
+			return this.transactionTemplate.execute(status -> {
+				Export export = new Export(out);
+				this.jdbcTemplate.query(SELECT, export, after);
+				return export.finish();
+			});
+		}
+		catch (UncheckedIOException ex) {
+			throw ex.getCause();
+		}
+	}
+
+	private static boolean isMySql(DataSource dataSource) {
+		try {
+			return "MySQL"
+				.equals(JdbcUtils.extractDatabaseMetaData(dataSource, DatabaseMetaData::getDatabaseProductName));
+		}
+		catch (MetaDataAccessException ex) {
+			return false;
+		}
+	}
+
+	/**
+	 * Folds consecutive rows of the same owner and pet into one owner.
+	 */
+	private final class Export implements RowCallbackHandler {
+
+		private final OutputStream out;
+
+		private final Map<Integer, PetType> types = new HashMap<>();
+
+		private Owner owner;
+
+		private Pet pet;
+
+		private long count;
+
+		private Export(OutputStream out) {
+			this.out = out;
+		}
+
+		@Override
+		public void processRow(ResultSet rs) throws SQLException {
+			int ownerId = rs.getInt("id");
+			if (this.owner == null || !this.owner.getId().equals(ownerId)) {
+				write();
+				this.owner = new Owner();
+				this.owner.setId(ownerId);
+				this.owner.setFirstName(rs.getString("first_name"));
+				this.owner.setLastName(rs.getString("last_name"));
+				this.owner.setAddress(rs.getString("address"));
+				this.owner.setCity(rs.getString("city"));
+				this.owner.setTelephone(rs.getString("telephone"));
+				this.pet = null;
+			}
+			int petId = rs.getInt("pet_id");
+			if (rs.wasNull()) {
+				return;
+			}
+			if (this.pet == null || !this.pet.getId().equals(petId)) {
+				this.pet = new Pet();
+				this.pet.setId(petId);
+				this.pet.setName(rs.getString("pet_name"));
+				Date birthDate = rs.getDate("birth_date");
+				this.pet.setBirthDate(birthDate != null ? birthDate.toLocalDate() : null);
+				this.pet.setType(type(rs));
+				this.owner.getPets().add(this.pet);
+			}
+			int visitId = rs.getInt("visit_id");
+			if (!rs.wasNull()) {
+				Visit visit = new Visit();
+				visit.setId(visitId);
+				Date date = rs.getDate("visit_date");
+				visit.setDate(date != null ? date.toLocalDate() : null);
+				visit.setDescription(rs.getString("description"));
+				this.pet.addVisit(visit);
+			}
+		}
+
+		private PetType type(ResultSet rs) throws SQLException {
+			int typeId = rs.getInt("type_id");
+			if (rs.wasNull()) {
+				return null;
+			}
+			String name = rs.getString("type_name");
+			return this.types.computeIfAbsent(typeId, id -> {
+				PetType type = new PetType();
+				type.setId(id);
+				type.setName(name);
+				return type;
+			});
+		}
+
+		private void write() {
+			if (this.owner == null) {
+				return;
+			}
+			try {
+				this.out.write(OwnerExporter.this.ndjson.writeValueAsBytes(this.owner));
+				this.out.write('\n');
+			}
+			catch (IOException ex) {
+				throw new UncheckedIOException(ex);
+			}
+			this.count++;
+		}
+
+		private long finish() {
+			write();
+			return this.count;
+		}
+
+	}
+
+}
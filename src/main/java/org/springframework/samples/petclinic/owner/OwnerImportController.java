@@ -0,0 +1,108 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.samples.petclinic.owner;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.ExampleObject;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+
+/**
+ * REST controller importing owners with their pets and visits in bulk. The body is
+ * streamed to the {@link OwnerImporter} rather than bound as a whole.
+ */
+@RestController
+@Validated
+@Tag(name = "Owners", description = "Pet clinic owner management operations")
+public class OwnerImportController {
+
+	static final String TEXT_CSV_VALUE = "text/csv";
+
+	private final OwnerImporter importer;
+
+	public OwnerImportController(OwnerImporter importer) {
+		this.importer = importer;
+	}
+
+	@Operation(summary = "Import owners from NDJSON",
+			description = "Imports owners with their pets and visits, one owner per line in the JSON representation of the owner API. "
+					+ "Pet types are matched by name. Owners that do not validate are skipped and reported by line number.")
+	@ApiResponses(value = { @ApiResponse(responseCode = "200", description = "Import completed",
+			content = @Content(mediaType = "application/json",
+					schema = @Schema(implementation = OwnerImportResult.class),
+					examples = @ExampleObject(name = "Import Result", summary = "Example import with one rejected line",
+							value = """
+									{
+									  "owners": 2,
+									  "pets": 3,
+									  "visits": 1,
+									  "rejected": 1,
+									  "errors": [
+									    {
+									      "line": 2,
+									      "message": "telephone: Telephone must be a 10-digit number"
+									    }
+									  ]
+									}
+									"""))) })
+	@PostMapping(path = "/api/owners:bulk", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+	public ResponseEntity<OwnerImportResult> importNdjson(InputStream body,
+			@Parameter(description = "Number of owners written per transaction", example = "1000") @RequestParam(
+					value = "chunkSize",
+					defaultValue = "" + OwnerImporter.DEFAULT_CHUNK_SIZE) @Min(1) @Max(10000) int chunkSize)
+			throws IOException {
+		return ResponseEntity
+			.ok(this.importer.importNdjson(new InputStreamReader(body, StandardCharsets.UTF_8), chunkSize));
+	}
+
+	@Operation(summary = "Import owners from CSV",
+			description = "Imports owners, pets and visits from CSV with one row per record: "
+					+ "'owner,firstName,lastName,address,city,telephone', 'pet,name,birthDate,type' and 'visit,date,description'. "
+					+ "Pet rows belong to the preceding owner row and visit rows to the preceding pet row. "
+					+ "Rows that do not validate are skipped with the rows belonging to them and reported by line number.")
+	@ApiResponses(value = { @ApiResponse(responseCode = "200", description = "Import completed",
+			content = @Content(mediaType = "application/json",
+					schema = @Schema(implementation = OwnerImportResult.class))) })
+	@PostMapping(path = "/api/owners:bulk", consumes = TEXT_CSV_VALUE)
+	public ResponseEntity<OwnerImportResult> importCsv(InputStream body,
+			@Parameter(description = "Number of owners written per transaction", example = "1000") @RequestParam(
+					value = "chunkSize",
+					defaultValue = "" + OwnerImporter.DEFAULT_CHUNK_SIZE) @Min(1) @Max(10000) int chunkSize)
+			throws IOException {
+		return ResponseEntity
+			.ok(this.importer.importCsv(new InputStreamReader(body, StandardCharsets.UTF_8), chunkSize));
+	}
+
+}
@@ -0,0 +1,42 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.samples.petclinic.owner;
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk owner import.
+ *
+ * @param owners the number of imported owners
+ * @param pets the number of imported pets
+ * @param visits the number of imported visits
+ * @param rejected the number of rejected lines
+ * @param errors the first rejected lines with the reason, by line number
+ */
+public record OwnerImportResult(long owners, long pets, long visits, long rejected, List<Error> errors) {
+
+	/**
+	 * A rejected line of the import body.
+	 *
+	 * @param line the 1-based line number
+	 * @param message why the line was rejected
+	 */
+	public record Error(long line, String message) {
+
+	}
+
+}
@@ -0,0 +1,520 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.samples.petclinic.owner;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.samples.petclinic.model.BaseEntity;
+import org.springframework.samples.petclinic.system.CacheInvalidationBus;
+import org.springframework.samples.petclinic.system.EntityChange;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.Errors;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+
+/**
+ * Imports owners with their pets and visits in bulk, e.g. when a clinic is migrated.
+ * <p>
+ * The body is read line by line and never held in memory as a whole. Every owner is
+ * validated like one created through the API, and pet types are resolved by name; lines
+ * that do not validate are reported with their number and skipped. Valid owners are
+ * written in chunks, each in its own transaction, through batched JDBC inserts, so that a
+ * chunk costs three round-trips rather than one per owner, pet and visit. Ids are taken
+ * from the same pooled sequences that Hibernate assigns them from.
+ * <p>
+ * Two formats are accepted:
+ * <ul>
+ * <li>NDJSON: one owner per line in the JSON representation of the owner API, with its
+ * <code>pets</code>, their <code>type</code> and their <code>visits</code>. An owner is
+ * imported or rejected as a whole.</li>
+ * <li>CSV: one row per owner, pet or visit, told apart by the first column. Pet rows
+ * belong to the preceding owner row and visit rows to the preceding pet row. A rejected
+ * row is skipped together with the rows belonging to it. Fields may be quoted but must
+ * not contain line breaks; a first row starting with <code>record</code> is taken as a
+ * header. <pre>
+ * owner,George,Franklin,110 W. Liberty St.,Madison,6085551023
+ * pet,Leo,2010-09-07,cat
+ * visit,2013-01-01,rabies shot
+ * </pre></li>
+ * </ul>
+ * Entity listeners do not see JDBC inserts, so the owners of every chunk are published on
+ * the {@link CacheInvalidationBus} and registered with the {@link LastNameSuggestions}
+ * once the chunk is committed.
+ */
+@Component
+public class OwnerImporter {
+
+	/**
+	 * Default number of owners written per transaction.
+	 */
+	public static final int DEFAULT_CHUNK_SIZE = 1000;
+
+	/**
+	 * Maximum number of errors listed in a result; further rejected lines are only
+	 * counted.
+	 */
+	static final int MAX_ERRORS = 100;
+
+	private static final String INSERT_OWNER = "INSERT INTO owners (id, first_name, last_name, address, city, telephone) "
+			+ "VALUES (?, ?, ?, ?, ?, ?)";
+
+	private static final String INSERT_PET = "INSERT INTO pets (id, name, birth_date, type_id, owner_id) "
+			+ "VALUES (?, ?, ?, ?, ?)";
+
+	private static final String INSERT_VISIT = "INSERT INTO visits (id, pet_id, visit_date, description) "
+			+ "VALUES (?, ?, ?, ?)";
+
+	private static final PetValidator PET_VALIDATOR = new PetValidator();
+
+	private final JdbcTemplate jdbcTemplate;
+
+	private final EntityManager entityManager;
+
+	private final TransactionTemplate transactionTemplate;
+
+	private final ObjectReader ndjson;
+
+	private final Validator validator;
+
+	private final PetTypeRegistry petTypes;
+
+	private final CacheInvalidationBus bus;
+
+	private final LastNameSuggestions suggestions;
+
+	public OwnerImporter(JdbcTemplate jdbcTemplate, EntityManager entityManager,
+			PlatformTransactionManager transactionManager, ObjectMapper objectMapper, Validator validator,
+			PetTypeRegistry petTypes, CacheInvalidationBus bus, LastNameSuggestions suggestions) {
+		this.jdbcTemplate = jdbcTemplate;
+		this.entityManager = entityManager;
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+		this.ndjson = objectMapper.readerFor(Owner.class);
+		this.validator = validator;
+		this.petTypes = petTypes;
+		this.bus = bus;
+		this.suggestions = suggestions;
+	}
+
+	/**
+	 * Import owners from NDJSON, one owner per line.
+	 * @param body the body to read
+	 * @param chunkSize the number of owners to write per transaction
+	 * @return the numbers of imported and rejected records
+	 * @throws IOException if the body cannot be read
+	 */
+	public OwnerImportResult importNdjson(Reader body, int chunkSize) throws IOException {
+		Run run = new Run(chunkSize);
+		BufferedReader reader = new BufferedReader(body);
+		long number = 0;
+		String line;
+		while ((line = reader.readLine()) != null) {
+			number++;
+			if (line.isBlank()) {
+				continue;
+			}
+			try {
+				run.add(number, this.ndjson.readValue(line));
+			}
+			catch (JsonProcessingException ex) {
+				run.reject(number, "malformed JSON: " + ex.getOriginalMessage());
+			}
+		}
+		return run.finish();
+	}
+
+	/**
+	 * Import owners, pets and visits from CSV, one row per record.
+	 * @param body the body to read
+	 * @param chunkSize the number of owners to write per transaction
+	 * @return the numbers of imported and rejected records
+	 * @throws IOException if the body cannot be read
+	 */
+	public OwnerImportResult importCsv(Reader body, int chunkSize) throws IOException {
+		Run run = new Run(chunkSize);
+		BufferedReader reader = new BufferedReader(body);
+		Owner owner = null;
+		long ownerLine = 0;
+		Pet pet = null;
+		long number = 0;
+		String line;
+		while ((line = reader.readLine()) != null) {
+			number++;
+			if (line.isBlank()) {
+				continue;
+			}
+			try {
+				List<String> fields = parseCsvLine(line);
+				String record = fields.get(0).trim();
+				if (number == 1 && record.equals("record")) {
+					continue;
+				}
+				switch (record) {
+					case "owner" -> {
+						if (owner != null) {
+							run.add(ownerLine, owner);
+						}
+						owner = null;
+						pet = null;
+						requireFields(fields, 6);
+						owner = new Owner();
+						owner.setFirstName(fields.get(1));
+						owner.setLastName(fields.get(2));
+						owner.setAddress(fields.get(3));
+						owner.setCity(fields.get(4));
+						owner.setTelephone(fields.get(5));
+						ownerLine = number;
+					}
+					case "pet" -> {
+						pet = null;
+						if (owner == null) {
+							throw new IllegalArgumentException("pet row without a valid owner row");
+						}
+						requireFields(fields, 4);
+						Pet parsed = new Pet();
+						parsed.setName(fields.get(1));
+						parsed.setBirthDate(parseDate(fields.get(2)));
+						if (StringUtils.hasText(fields.get(3))) {
+							PetType type = new PetType();
+							type.setName(fields.get(3));
+							parsed.setType(type);
+						}
+						requireValid(validate(parsed));
+						owner.addPet(parsed);
+						pet = parsed;
+					}
+					case "visit" -> {
+						if (pet == null) {
+							throw new IllegalArgumentException("visit row without a valid pet row");
+						}
+						requireFields(fields, 3);
+						Visit visit = new Visit();
+						visit.setDate(parseDate(fields.get(1)));
+						visit.setDescription(fields.get(2));
+						requireValid(validate(visit));
+						pet.addVisit(visit);
+					}
+					default -> throw new IllegalArgumentException("unknown record type '" + record + "'");
+				}
+			}
+			catch (IllegalArgumentException | DateTimeParseException ex) {
+				run.reject(number, ex.getMessage());
+			}
+		}
+		if (owner != null) {
+			run.add(ownerLine, owner);
+		}
+		return run.finish();
+	}
+
+	/**
+	 * Split a CSV line into its fields. Fields may be enclosed in double quotes, which
+	 * are escaped by doubling them.
+	 */
+	static List<String> parseCsvLine(String line) {
+		List<String> fields = new ArrayList<>();
+		StringBuilder field = new StringBuilder();
+		boolean quoted = false;
+		for (int i = 0; i < line.length(); i++) {
+			char c = line.charAt(i);
+			if (quoted) {
+				if (c != '"') {
+					field.append(c);
+				}
+				else if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+					field.append('"');
+					i++;
+				}
+				else {
+					quoted = false;
+				}
+			}
+			else if (c == '"') {
+				quoted = true;
+			}
+			else if (c == ',') {
+				fields.add(field.toString());
+				field.setLength(0);
+			}
+			else {
+				field.append(c);
+			}
+		}
+		if (quoted) {
+			throw new IllegalArgumentException("unterminated quoted field");
+		}
+		fields.add(field.toString());
+		return fields;
+	}
+
+	private static void requireFields(List<String> fields, int count) {
+		if (fields.size() != count) {
+			throw new IllegalArgumentException(
+					"expected " + count + " fields for a " + fields.get(0).trim() + " row but found " + fields.size());
+		}
+	}
+
+	private static LocalDate parseDate(String value) {
+		return StringUtils.hasText(value) ? LocalDate.parse(value.trim()) : null;
+	}
+
+	/**
+	 * Validate an owner with its pets and visits and resolve the pet types by name.
+	 * @return the problems found, empty if the owner can be imported
+	 */
+	private List<String> validate(Owner owner) {
+		List<String> problems = new ArrayList<>();
+		// ids are assigned on import
+		owner.setId(null);
+		for (ConstraintViolation<Owner> violation : this.validator.validate(owner)) {
+			problems.add(violation.getPropertyPath() + ": " + violation.getMessage());
+		}
+		for (Pet pet : owner.getPets()) {
+			validate(pet).forEach(problem -> problems.add("pet '" + pet.getName() + "': " + problem));
+		}
+		return problems;
+	}
+
+	/**
+	 * Validate a pet with its visits and resolve its type by name, so that type ids need
+	 * not match between clinics.
+	 */
+	private List<String> validate(Pet pet) {
+		List<String> problems = new ArrayList<>();
+		pet.setId(null);
+		if (pet.getType() != null) {
+			Optional<PetType> type = this.petTypes.findByName(pet.getType().getName());
+			if (type.isPresent()) {
+				pet.setType(type.get());
+			}
+			else {
+				problems.add("unknown type '" + pet.getType().getName() + "'");
+			}
+		}
+		Errors errors = new BeanPropertyBindingResult(pet, "pet");
+		PET_VALIDATOR.validate(pet, errors);
+		errors.getFieldErrors().forEach(error -> problems.add(error.getField() + ": " + error.getDefaultMessage()));
+		for (Visit visit : pet.getVisits()) {
+			validate(visit).forEach(problem -> problems.add("visit: " + problem));
+		}
+		return problems;
+	}
+
+	private List<String> validate(Visit visit) {
+		List<String> problems = new ArrayList<>();
+		visit.setId(null);
+		for (ConstraintViolation<Visit> violation : this.validator.validate(visit)) {
+			problems.add(violation.getPropertyPath() + ": " + violation.getMessage());
+		}
+		if (visit.getDate() == null) {
+			problems.add("date: required");
+		}
+		return problems;
+	}
+
+	private static void requireValid(List<String> problems) {
+		if (!problems.isEmpty()) {
+			throw new IllegalArgumentException(String.join("; ", problems));
+		}
+	}
+
+	/**
+	 * Assign ids to the owners of a chunk with their pets and visits and insert them in
+	 * one transaction.
+	 */
+	private void write(List<Owner> owners) {
+		this.transactionTemplate.executeWithoutResult(status -> {
+			SharedSessionContractImplementor session = this.entityManager
+				.unwrap(SharedSessionContractImplementor.class);
+			List<PetRow> pets = new ArrayList<>();
+			List<VisitRow> visits = new ArrayList<>();
+			for (Owner owner : owners) {
+				assignId(session, owner);
+				for (Pet pet : owner.getPets()) {
+					assignId(session, pet);
+					pets.add(new PetRow(owner.getId(), pet));
+					for (Visit visit : pet.getVisits()) {
+						assignId(session, visit);
+						visits.add(new VisitRow(pet.getId(), visit));
+					}
+				}
+			}
+
+			insert(INSERT_OWNER, owners, (ps, owner) -> {
+				ps.setInt(1, owner.getId());
+				ps.setString(2, owner.getFirstName());
+				ps.setString(3, owner.getLastName());
+				ps.setString(4, owner.getAddress());
+				ps.setString(5, owner.getCity());
+				ps.setString(6, owner.getTelephone());
+			});
+			insert(INSERT_PET, pets, (ps, row) -> {
+				ps.setInt(1, row.pet().getId());
+				ps.setString(2, row.pet().getName());
+				ps.setObject(3, row.pet().getBirthDate());
+				ps.setInt(4, row.pet().getType().getId());
+				ps.setInt(5, row.ownerId());
+			});
+			insert(INSERT_VISIT, visits, (ps, row) -> {
+				ps.setInt(1, row.visit().getId());
+				ps.setInt(2, row.petId());
+				ps.setObject(3, row.visit().getDate());
+				ps.setString(4, row.visit().getDescription());
+			});
+		});
+	}
+
+	/**
+	 * Assign the next id from the entity's sequence through Hibernate's generator, which
+	 * hands out ids from the same pooled blocks as for entities persisted through JPA.
+	 */
+	private static void assignId(SharedSessionContractImplementor session, BaseEntity entity) {
+		BeforeExecutionGenerator generator = (BeforeExecutionGenerator) session.getEntityPersister(null, entity)
+			.getGenerator();
+		entity.setId((Integer) generator.generate(session, entity, null, EventType.INSERT));
+	}
+
+	/**
+	 * Insert the given rows with one JDBC batch.
+	 */
+	private <T> void insert(String sql, List<T> rows, ParameterizedPreparedStatementSetter<T> setter) {
+		if (!rows.isEmpty()) {
+			this.jdbcTemplate.batchUpdate(sql, rows, rows.size(), setter);
+		}
+	}
+
+	/**
+	 * Announce the owners of a committed chunk, as the entity listeners would have.
+	 */
+	private void announce(List<Owner> owners) {
+		// pets and visits are new, so no cache holds them; the owners are all that
+		// indexes and peers need to hear about
+		this.bus.publish(owners.stream().map(owner -> new EntityChange(Owner.class.getName(), owner.getId())).toList());
+		for (Owner owner : owners) {
+			this.suggestions.ownerSaved(owner);
+			owner.getPets()
+				.forEach(pet -> pet.getVisits().forEach(visit -> this.suggestions.visitBooked(owner.getId())));
+		}
+	}
+
+	private record PetRow(Integer ownerId, Pet pet) {
+
+	}
+
+	private record VisitRow(Integer petId, Visit visit) {
+
+	}
+
+	/**
+	 * State of one import: the pending chunk, the counts and the errors.
+	 */
+	private final class Run {
+
+		private final int chunkSize;
+
+		private final List<Owner> chunk = new ArrayList<>();
+
+		private final List<Long> lines = new ArrayList<>();
+
+		private final List<OwnerImportResult.Error> errors = new ArrayList<>();
+
+		private long owners;
+
+		private long pets;
+
+		private long visits;
+
+		private long rejected;
+
+		Run(int chunkSize) {
+			this.chunkSize = chunkSize;
+		}
+
+		void add(long line, Owner owner) {
+			List<String> problems = validate(owner);
+			if (!problems.isEmpty()) {
+				reject(line, String.join("; ", problems));
+				return;
+			}
+			this.chunk.add(owner);
+			this.lines.add(line);
+			if (this.chunk.size() >= this.chunkSize) {
+				flush();
+			}
+		}
+
+		void reject(long line, String message) {
+			this.rejected++;
+			if (this.errors.size() < MAX_ERRORS) {
+				this.errors.add(new OwnerImportResult.Error(line, message));
+			}
+		}
+
+		void flush() {
+			if (this.chunk.isEmpty()) {
+				return;
+			}
+			try {
+				write(this.chunk);
+			}
+			catch (DataAccessException ex) {
+				String message = "not imported: " + NestedExceptionUtils.getMostSpecificCause(ex).getMessage();
+				this.lines.forEach(line -> reject(line, message));
+				this.chunk.clear();
+				this.lines.clear();
+				return;
+			}
+			announce(this.chunk);
+			for (Owner owner : this.chunk) {
+				this.owners++;
+				this.pets += owner.getPets().size();
+				this.visits += owner.getPets().stream().mapToLong(pet -> pet.getVisits().size()).sum();
+			}
+			this.chunk.clear();
+			this.lines.clear();
+		}
+
+		OwnerImportResult finish() {
+			flush();
+			return new OwnerImportResult(this.owners, this.pets, this.visits, this.rejected, List.copyOf(this.errors));
+		}
+
+	}
+
+}
@@ -15,14 +15,28 @@
  */
 package org.springframework.samples.petclinic.owner;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 
 import jakarta.annotation.Nonnull;
+import org.hibernate.Hibernate;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.samples.petclinic.system.ETags;
+import org.springframework.transaction.annotation.Transactional;
 
 /**
  * Repository class for <code>Owner</code> domain objects. All method names are compliant
@@ -36,23 +50,230 @@ import org.springframework.data.jpa.repository.Query;
  * @author Michael Isvy
  * @author Wick Dynex
  */
-public interface OwnerRepository extends JpaRepository<Owner, Integer> {
+public interface OwnerRepository extends JpaRepository<Owner, Integer>, CachedGraphLoads {
 
 	/**
 	 * Retrieve {@link Owner}s from the data store by last name, returning all owners
-	 * whose last name <i>starts</i> with the given name.
+	 * whose last name <i>starts</i> with the given name, ignoring case.
+	 * <p>
+	 * Only the owner columns are loaded; use {@link #findByIdIn(Collection)} to fetch the
+	 * pets of the returned page.
+	 * </p>
 	 * @param lastName Value to search for
 	 * @return a Collection of matching {@link Owner}s (or an empty Collection if none
 	 * found)
 	 */
-	Page<Owner> findByLastNameStartingWith(String lastName, Pageable pageable);
+	default Page<Owner> findByLastNameStartingWith(String lastName, Pageable pageable) {
+		return findByLastNameNormalizedStartingWith(Owner.normalizeLastName(lastName), pageable);
+	}
+
+	/**
+	 * Retrieve the {@link Owner}s whose normalized last name <i>starts</i> with the given
+	 * prefix, using the index on <code>last_name_normalized</code>.
+	 * @param prefix a prefix already passed through {@link Owner#normalizeLastName}
+	 * @param pageable the page to read
+	 * @return a page of matching {@link Owner}s without their pets
+	 */
+	@EntityGraph("owner-summary")
+	Page<Owner> findByLastNameNormalizedStartingWith(String prefix, Pageable pageable);
+
+	/**
+	 * Select clause of the {@link OwnerSummary} queries. The pets are only counted.
+	 */
+	String SUMMARY_SELECT = "SELECT new org.springframework.samples.petclinic.owner.OwnerSummary("
+			+ "o.id, o.firstName, o.lastName, o.city, o.telephone, SIZE(o.pets)) FROM Owner o";
+
+	/**
+	 * Retrieve {@link OwnerSummary summaries} of the owners whose last name <i>starts</i>
+	 * with the given name, ignoring case. Only the summary columns are selected.
+	 * @param lastName Value to search for
+	 * @param pageable the page to read
+	 * @return a page of matching {@link OwnerSummary summaries}
+	 */
+	default Page<OwnerSummary> findSummariesByLastNameStartingWith(String lastName, Pageable pageable) {
+		return findSummariesByLastNameNormalizedStartingWith(Owner.normalizeLastName(lastName), pageable);
+	}
+
+	/**
+	 * Retrieve {@link OwnerSummary summaries} of the owners whose normalized last name
+	 * <i>starts</i> with the given prefix.
+	 * @param prefix a prefix already passed through {@link Owner#normalizeLastName}
+	 * @param pageable the page to read
+	 * @return a page of matching {@link OwnerSummary summaries}
+	 */
+	@Query(value = SUMMARY_SELECT + " WHERE o.lastNameNormalized LIKE :prefix%",
+			countQuery = "SELECT COUNT(o) FROM Owner o WHERE o.lastNameNormalized LIKE :prefix%")
+	Page<OwnerSummary> findSummariesByLastNameNormalizedStartingWith(@Param("prefix") String prefix, Pageable pageable);
+
+	/**
+	 * Retrieve a {@link Slice} of {@link OwnerSummary summaries} of the owners whose last
+	 * name <i>starts</i> with the given name, ignoring case. Unlike the {@link Page}
+	 * variant no count query is issued; one extra row is read to tell whether a next
+	 * slice exists.
+	 * @param lastName Value to search for
+	 * @param pageable the slice to read
+	 * @return a slice of matching {@link OwnerSummary summaries}
+	 */
+	default Slice<OwnerSummary> findSummarySliceByLastNameStartingWith(String lastName, Pageable pageable) {
+		return findSummarySliceByLastNameNormalizedStartingWith(Owner.normalizeLastName(lastName), pageable);
+	}
+
+	/**
+	 * Retrieve a {@link Slice} of {@link OwnerSummary summaries} of the owners whose
+	 * normalized last name <i>starts</i> with the given prefix.
+	 * @param prefix a prefix already passed through {@link Owner#normalizeLastName}
+	 * @param pageable the slice to read
+	 * @return a slice of matching {@link OwnerSummary summaries}
+	 */
+	@Query(SUMMARY_SELECT + " WHERE o.lastNameNormalized LIKE :prefix%")
+	Slice<OwnerSummary> findSummarySliceByLastNameNormalizedStartingWith(@Param("prefix") String prefix,
+			Pageable pageable);
+
+	/**
+	 * Retrieve a page of {@link OwnerSummary summaries} of all owners.
+	 * @param pageable the page to read
+	 * @return a page of {@link OwnerSummary summaries}
+	 */
+	@Query(value = SUMMARY_SELECT, countQuery = "SELECT COUNT(o) FROM Owner o")
+	Page<OwnerSummary> findAllSummaries(Pageable pageable);
+
+	/**
+	 * Retrieve at most two {@link Owner}s whose last name <i>starts</i> with the given
+	 * name, ignoring case. This is enough to tell no match, a single match and several
+	 * matches apart without counting all of them.
+	 * @param lastName Value to search for
+	 * @return up to two matching {@link Owner}s without their pets
+	 */
+	default List<Owner> findTop2ByLastNameStartingWith(String lastName) {
+		return findTop2ByLastNameNormalizedStartingWith(Owner.normalizeLastName(lastName));
+	}
+
+	/**
+	 * Retrieve at most two {@link Owner}s whose normalized last name <i>starts</i> with
+	 * the given prefix.
+	 * @param prefix a prefix already passed through {@link Owner#normalizeLastName}
+	 * @return up to two matching {@link Owner}s without their pets
+	 */
+	@EntityGraph("owner-summary")
+	List<Owner> findTop2ByLastNameNormalizedStartingWith(String prefix);
+
+	/**
+	 * Scroll through the {@link Owner}s whose last name <i>starts</i> with the given
+	 * name, ignoring case. Used with a keyset {@link ScrollPosition}, every window is
+	 * read by seeking past the previous position instead of skipping rows with an offset,
+	 * and no count query is issued. Only the owner columns are loaded.
+	 * @param lastName Value to search for
+	 * @param position the position to continue from
+	 * @param limit the maximum number of owners to return
+	 * @param sort the sort order; must be unique, e.g. normalized last name and id
+	 * @return a {@link Window} of matching {@link Owner}s
+	 */
+	default Window<Owner> findByLastNameStartingWith(String lastName, ScrollPosition position, Limit limit, Sort sort) {
+		return findByLastNameNormalizedStartingWith(Owner.normalizeLastName(lastName), position, limit, sort);
+	}
+
+	/**
+	 * Scroll through the {@link Owner}s whose normalized last name <i>starts</i> with the
+	 * given prefix.
+	 * @param prefix a prefix already passed through {@link Owner#normalizeLastName}
+	 * @param position the position to continue from
+	 * @param limit the maximum number of owners to return
+	 * @param sort the sort order; must be unique
+	 * @return a {@link Window} of matching {@link Owner}s
+	 */
+	@EntityGraph("owner-summary")
+	Window<Owner> findByLastNameNormalizedStartingWith(String prefix, ScrollPosition position, Limit limit, Sort sort);
+
+	/**
+	 * Retrieve a page of {@link Owner}s without their pets.
+	 * @param pageable the paging information
+	 * @return a page of {@link Owner}s
+	 */
+	@Override
+	@EntityGraph("owner-summary")
+	Page<Owner> findAll(@Nonnull Pageable pageable);
+
+	/**
+	 * Retrieve the {@link Owner}s with the given ids together with their pets and pet
+	 * types, in a single query. Visits are not loaded.
+	 * @param ids the ids of the owners to load
+	 * @return the matching {@link Owner}s, in no particular order
+	 */
+	@EntityGraph("owner-with-pets")
+	List<Owner> findByIdIn(Collection<Integer> ids);
+
+	/**
+	 * Retrieve the {@link Owner}s with the given ids together with their pets, pet types
+	 * and visits. The owners, pets and types are read in one query; the visits are then
+	 * fetched for up to 100 pets at a time rather than pet by pet.
+	 * @param ids the ids of the owners to load
+	 * @return the matching {@link Owner}s, in no particular order
+	 */
+	@Transactional(readOnly = true)
+	default List<Owner> findWithVisitsByIdIn(Collection<Integer> ids) {
+		List<Owner> owners = findByIdIn(ids);
+		owners.forEach(owner -> owner.getPets().forEach(pet -> Hibernate.initialize(pet.getVisits())));
+		return owners;
+	}
+
+	/**
+	 * Retrieve the ids of the owners following the given id, in id order. Used to walk
+	 * over all owners in batches without an offset.
+	 * @param afterId the last id of the previous batch, or 0 to start
+	 * @param limit the maximum number of ids to return
+	 * @return the next owner ids
+	 */
+	@Query("SELECT o.id FROM Owner o WHERE o.id > :afterId ORDER BY o.id")
+	List<Integer> findIdsAfter(@Param("afterId") int afterId, Limit limit);
+
+	/**
+	 * Retrieve the ids and last names of the owners following the given id, in id order.
+	 * @param afterId the last id of the previous batch, or 0 to start
+	 * @param limit the maximum number of owners to return
+	 * @return the next owners' ids and last names
+	 */
+	@Query("SELECT o.id AS id, o.lastName AS lastName FROM Owner o WHERE o.id > :afterId ORDER BY o.id")
+	List<OwnerLastName> findLastNamesAfter(@Param("afterId") int afterId, Limit limit);
+
+	/**
+	 * Retrieve the ids of the owners of the given pets.
+	 * @param petIds the ids of the pets
+	 * @return the distinct owner ids
+	 */
+	@Query("SELECT DISTINCT o.id FROM Owner o JOIN o.pets p WHERE p.id IN :petIds")
+	List<Integer> findIdsByPetIdIn(@Param("petIds") Collection<Integer> petIds);
+
+	/**
+	 * Retrieve the ids of the owners whose pets had the given visits.
+	 * @param visitIds the ids of the visits
+	 * @return the distinct owner ids
+	 */
+	@Query("SELECT DISTINCT o.id FROM Owner o JOIN o.pets p JOIN p.visits v WHERE v.id IN :visitIds")
+	List<Integer> findIdsByVisitIdIn(@Param("visitIds") Collection<Integer> visitIds);
+
+	/**
+	 * Count the visits of the given owners' pets. Owners without visits are not returned.
+	 * @param ids the ids of the owners
+	 * @return the visit count per owner
+	 */
+	@Query("SELECT o.id AS ownerId, COUNT(v) AS visits FROM Owner o JOIN o.pets p JOIN p.visits v "
+			+ "WHERE o.id IN :ids GROUP BY o.id")
+	List<OwnerVisitCount> countVisitsByIdIn(@Param("ids") Collection<Integer> ids);
 
 	/**
 	 * Retrieve an {@link Owner} from the data store by id.
 	 * <p>
 	 * This method returns an {@link Optional} containing the {@link Owner} if found. If
 	 * no {@link Owner} is found with the provided id, it will return an empty
-	 * {@link Optional}.
+	 * {@link Optional}. The owner is loaded with its pets and their visits.
+	 * </p>
+	 * <p>
+	 * On a cold cache the owner, its pets and their types are read in one query through
+	 * the <code>owner-full</code> graph, and the visits of all pets in a second one:
+	 * joining them as well would repeat every pet in the pets list once per visit.
+	 * Hibernate ignores entity graphs for entities served from the second-level cache, so
+	 * the pets and visits of a cached owner are initialized explicitly; a repeated load
+	 * of the same owner does not reach the database.
 	 * </p>
 	 * @param id the id to search for
 	 * @return an {@link Optional} containing the {@link Owner} if found, or an empty
@@ -60,6 +281,188 @@ public interface OwnerRepository extends JpaRepository<Owner, Integer> {
 	 * @throws IllegalArgumentException if the id is null (assuming null is not a valid
 	 * input for id)
 	 */
-	Optional<Owner> findById(@Nonnull Integer id);
+	@Override
+	@Transactional(readOnly = true)
+	default Optional<Owner> findById(@Nonnull Integer id) {
+		Optional<Owner> found = findById(id, "owner-full");
+		found.ifPresent(owner -> owner.getPets().forEach(pet -> Hibernate.initialize(pet.getVisits())));
+		return found;
+	}
+
+	/**
+	 * Retrieve an {@link Owner} by id without its pets, resolved through the second-level
+	 * cache. Only the owner's own details can be read from the result.
+	 * @param id the id to search for
+	 * @return an {@link Optional} containing the {@link Owner} if found, or an empty
+	 * {@link Optional} if not found.
+	 */
+	@Transactional(readOnly = true)
+	default Optional<Owner> findWithoutPetsById(@Nonnull Integer id) {
+		return findById(id, "owner-summary");
+	}
+
+	/**
+	 * Retrieve an {@link Owner} by id together with its pets and their types, but not
+	 * their visits. Like {@link #findById(Integer)}, the owner and pets are resolved
+	 * through the second-level cache, or read in one query through the
+	 * <code>owner-with-pets</code> graph.
+	 * @param id the id to search for
+	 * @return an {@link Optional} containing the {@link Owner} if found, or an empty
+	 * {@link Optional} if not found.
+	 */
+	@Transactional(readOnly = true)
+	default Optional<Owner> findWithPetsById(@Nonnull Integer id) {
+		Optional<Owner> found = findById(id, "owner-with-pets");
+		found.ifPresent(owner -> Hibernate.initialize(owner.getPets()));
+		return found;
+	}
+
+	/**
+	 * Update the details of an {@link Owner}, leaving its pets untouched. Unlike saving a
+	 * detached owner, nothing is merged: the owner is resolved through the second-level
+	 * cache and only its own row is written, with a single <code>UPDATE</code> guarded by
+	 * its version.
+	 * <p>
+	 * Only the owner's own details can be read from the returned owner. Its pets and
+	 * their visits are not loaded within the write transaction; read them once it has
+	 * committed, e.g. with {@link #findById(Integer)}.
+	 * </p>
+	 * @param id the id of the owner to update
+	 * @param expectedVersion the version the caller's copy was read at, or {@code null}
+	 * to update any version
+	 * @param details the owner carrying the new first and last name, address, city and
+	 * telephone
+	 * @return the updated {@link Owner}, or an empty {@link Optional} if there is no such
+	 * owner
+	 * @throws org.springframework.dao.OptimisticLockingFailureException if the owner is
+	 * not at the expected version or was changed concurrently
+	 */
+	@Transactional
+	default Optional<Owner> updateById(Integer id, Integer expectedVersion, Owner details) {
+		Optional<Owner> found = findCurrentById(id, expectedVersion);
+		found.ifPresent(owner -> {
+			owner.setFirstName(details.getFirstName());
+			owner.setLastName(details.getLastName());
+			owner.setAddress(details.getAddress());
+			owner.setCity(details.getCity());
+			owner.setTelephone(details.getTelephone());
+		});
+		return found;
+	}
+
+	/**
+	 * Delete an {@link Owner} together with its pets and their visits, provided the owner
+	 * is still at the expected version. The owner row is deleted with a
+	 * <code>DELETE</code> guarded by its version.
+	 * @param id the id of the owner to delete
+	 * @param expectedVersion the version the caller's copy was read at, or {@code null}
+	 * to delete any version
+	 * @return {@code true} if the owner was deleted, {@code false} if there is no such
+	 * owner
+	 * @throws org.springframework.dao.OptimisticLockingFailureException if the owner is
+	 * not at the expected version or was changed concurrently
+	 */
+	@Transactional
+	default boolean deleteById(Integer id, Integer expectedVersion) {
+		Optional<Owner> found = findCurrentById(id, expectedVersion);
+		found.ifPresent(this::delete);
+		return found.isPresent();
+	}
+
+	/**
+	 * Resolve an {@link Owner} through the second-level cache and check its version.
+	 */
+	private Optional<Owner> findCurrentById(Integer id, Integer expectedVersion) {
+		Optional<Owner> found = findById(id, "owner-summary");
+		found.ifPresent(owner -> {
+			if (expectedVersion != null && !expectedVersion.equals(owner.getVersion())) {
+				throw new ObjectOptimisticLockingFailureException(Owner.class, id);
+			}
+		});
+		return found;
+	}
+
+	/**
+	 * Resolve an {@link Owner} through the second-level cache, or read it with the given
+	 * entity graph if it is not cached.
+	 */
+	private Optional<Owner> findById(Integer id, String graph) {
+		return findById(Owner.class, id, graph);
+	}
+
+	/**
+	 * Retrieve the versions of an owner, of its pets and of their types, and the number
+	 * and last id of each pet's visits, without loading the owner. Adding or removing a
+	 * pet increments the owner's version and visits are only ever added, so together they
+	 * change whenever the owner's representation does.
+	 * @param id the id of the owner
+	 * @return one row per pet, ordered by pet id, or a single row without pet for an
+	 * owner without pets; empty if there is no such owner
+	 */
+	@Query("SELECT o.version AS version, p.id AS petId, p.version AS petVersion, t.version AS typeVersion, "
+			+ "COUNT(v) AS visitCount, MAX(v.id) AS lastVisitId FROM Owner o LEFT JOIN o.pets p LEFT JOIN p.type t "
+			+ "LEFT JOIN p.visits v WHERE o.id = :id GROUP BY o.version, p.id, p.version, t.version ORDER BY p.id")
+	List<OwnerVersion> findVersionsById(@Param("id") Integer id);
+
+	/**
+	 * Projection of the number of visits of an owner's pets.
+	 */
+	interface OwnerVisitCount {
+
+		Integer getOwnerId();
+
+		long getVisits();
+
+	}
+
+	/**
+	 * Projection of an owner's id and last name.
+	 */
+	interface OwnerLastName {
+
+		Integer getId();
+
+		String getLastName();
+
+	}
+
+	/**
+	 * Projection of the versions an owner's representation depends on.
+	 */
+	interface OwnerVersion {
+
+		Integer getVersion();
+
+		Integer getPetId();
+
+		Integer getPetVersion();
+
+		Integer getTypeVersion();
+
+		long getVisitCount();
+
+		Integer getLastVisitId();
+
+		/**
+		 * Return the entity tag of an owner's representation from its versions. The tag
+		 * carries the owner's own version, which <code>If-Match</code> is checked
+		 * against: a tag still matches for an update or delete after a pet was edited or
+		 * a visit added, but not after the owner's details changed or a pet was added or
+		 * removed.
+		 * @param versions the versions returned by {@link #findVersionsById}
+		 * @return the quoted entity tag
+		 */
+		static String eTag(List<OwnerVersion> versions) {
+			List<Object> parts = new ArrayList<>();
+			for (OwnerVersion version : versions) {
+				if (version.getPetId() != null) {
+					Collections.addAll(parts, version.getPetId(), version.getPetVersion(), version.getTypeVersion(),
+							version.getVisitCount(), version.getLastVisitId());
+				}
+			}
+			return ETags.of(versions.get(0).getVersion(), parts);
+		}
+
+	}
 
 }
@@ -15,14 +15,26 @@
  */
 package org.springframework.samples.petclinic.owner;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
 
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Window;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.samples.petclinic.owner.OwnerRepository.OwnerVersion;
+import org.springframework.samples.petclinic.system.ETags;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -30,9 +42,12 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.WebAsyncTask;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -42,7 +57,9 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
 
 /**
@@ -59,8 +76,24 @@ public class OwnerRestController {
 
 	private final OwnerRepository owners;
 
-	public OwnerRestController(OwnerRepository owners) {
+	private final LastNameSuggestions suggestions;
+
+	private final OwnerExporter exporter;
+
+	private final PetRepository pets;
+
+	private final VisitRepository visits;
+
+	private final PetTypeRegistry petTypes;
+
+	public OwnerRestController(OwnerRepository owners, LastNameSuggestions suggestions, OwnerExporter exporter,
+			PetRepository pets, VisitRepository visits, PetTypeRegistry petTypes) {
 		this.owners = owners;
+		this.suggestions = suggestions;
+		this.exporter = exporter;
+		this.pets = pets;
+		this.visits = visits;
+		this.petTypes = petTypes;
 	}
 
 	@Operation(summary = "Create a new owner",
@@ -109,7 +142,19 @@ public class OwnerRestController {
 											"""))) })
 	@PostMapping
 	public ResponseEntity<Owner> createOwner(@Valid @RequestBody Owner owner) {
+		// bound pet types carry no version and would be taken for detached copies; use
+		// the registry's instead
+		for (Pet pet : owner.getPets()) {
+			if (pet.getType() != null) {
+				Optional<PetType> type = this.petTypes.findByName(pet.getType().getName());
+				if (type.isEmpty()) {
+					return ResponseEntity.badRequest().build();
+				}
+				pet.setType(type.get());
+			}
+		}
 		Owner savedOwner = this.owners.save(owner);
+		this.suggestions.ownerSaved(savedOwner);
 		return ResponseEntity.status(HttpStatus.CREATED).body(savedOwner);
 	}
 
@@ -140,6 +185,8 @@ public class OwnerRestController {
 											  ]
 											}
 											"""))),
+			@ApiResponse(responseCode = "304",
+					description = "The representation identified by If-None-Match is still current"),
 			@ApiResponse(responseCode = "404", description = "Owner not found",
 					content = @Content(mediaType = "application/json",
 							examples = @ExampleObject(name = "Not Found Error", summary = "Owner not found response",
@@ -150,12 +197,28 @@ public class OwnerRestController {
 											}
 											"""))) })
 	@GetMapping("/{ownerId}")
-	public ResponseEntity<Owner> getOwner(@Parameter(description = "Unique identifier of the owner",
-			example = "1") @PathVariable("ownerId") @Min(1) Integer ownerId) {
+	public ResponseEntity<Owner> getOwner(
+			@Parameter(description = "Unique identifier of the owner",
+					example = "1") @PathVariable("ownerId") @Min(1) Integer ownerId,
+			@Parameter(description = "Entity tag of a previously returned representation") @RequestHeader(
+					name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+
+		// the tag is derived from versions alone, so a current copy is confirmed without
+		// loading the owner, its pets and their visits
+		List<OwnerVersion> versions = this.owners.findVersionsById(ownerId);
+		if (versions.isEmpty()) {
+			return ResponseEntity.notFound().build();
+		}
+		String eTag = OwnerVersion.eTag(versions);
+		if (ETags.matches(ifNoneMatch, eTag)) {
+			return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+		}
 
 		Optional<Owner> owner = this.owners.findById(ownerId);
 		if (owner.isPresent()) {
-			return ResponseEntity.ok(owner.get());
+			// tag what was actually loaded, which may be newer than the versions read
+			// above
+			return ResponseEntity.ok().eTag(eTag(owner.get())).body(owner.get());
 		}
 		else {
 			return ResponseEntity.notFound().build();
@@ -163,7 +226,10 @@ public class OwnerRestController {
 	}
 
 	@Operation(summary = "Update an existing owner",
-			description = "Updates an existing owner with new information. The owner ID in the path must match the owner being updated.")
+			description = "Updates an existing owner with new information. The owner ID in the path must match the owner being updated. "
+					+ "Only the owner's own details are written; its pets are left untouched. "
+					+ "With If-Match, the owner is only updated if its own details and the set of its pets were not changed since the given ETag was returned; "
+					+ "edits of its pets and new visits do not fail the precondition.")
 	@ApiResponses(value = {
 			@ApiResponse(responseCode = "200", description = "Owner updated successfully",
 					content = @Content(mediaType = "application/json", schema = @Schema(implementation = Owner.class),
@@ -188,7 +254,8 @@ public class OwnerRestController {
 											  "message": "The owner ID in the URL does not match the owner ID in the request body"
 											}
 											"""))),
-			@ApiResponse(responseCode = "404", description = "Owner not found") })
+			@ApiResponse(responseCode = "404", description = "Owner not found"),
+			@ApiResponse(responseCode = "412", description = "The owner was changed since the If-Match ETag") })
 	@PutMapping("/{ownerId}")
 	public ResponseEntity<Owner> updateOwner(
 			@Parameter(description = "Unique identifier of the owner to update",
@@ -206,39 +273,65 @@ public class OwnerRestController {
 											  "city": "Springfield",
 											  "telephone": "555-987-6543"
 											}
-											"""))) @Valid @RequestBody Owner owner) {
-
-		if (!this.owners.existsById(ownerId)) {
-			return ResponseEntity.notFound().build();
-		}
+											"""))) @Valid @RequestBody Owner owner,
+			@Parameter(description = "ETag the owner must still have") @RequestHeader(name = HttpHeaders.IF_MATCH,
+					required = false) String ifMatch) {
 
 		if (owner.getId() != null && !owner.getId().equals(ownerId)) {
 			return ResponseEntity.badRequest().build();
 		}
 
-		owner.setId(ownerId);
-		Owner savedOwner = this.owners.save(owner);
-		return ResponseEntity.ok(savedOwner);
+		Optional<Owner> updated;
+		try {
+			updated = this.owners.updateById(ownerId, ETags.version(ifMatch), owner);
+		}
+		catch (OptimisticLockingFailureException ex) {
+			return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
+		}
+		if (updated.isEmpty()) {
+			return ResponseEntity.notFound().build();
+		}
+
+		this.suggestions.ownerSaved(updated.get());
+		// the update only wrote the owner's row; its pets and their visits are read once
+		// it is committed, and tagged as read
+		Optional<Owner> current = this.owners.findById(ownerId);
+		if (current.isEmpty()) {
+			return ResponseEntity.notFound().build();
+		}
+		return ResponseEntity.ok().eTag(eTag(current.get())).body(current.get());
 	}
 
 	@Operation(summary = "Delete an owner",
-			description = "Removes an owner from the system. This operation cannot be undone.")
+			description = "Removes an owner from the system. This operation cannot be undone. "
+					+ "With If-Match, the owner is only deleted if its own details and the set of its pets were not changed since the given ETag was returned; "
+					+ "edits of its pets and new visits do not fail the precondition.")
 	@ApiResponses(value = { @ApiResponse(responseCode = "204", description = "Owner deleted successfully"),
-			@ApiResponse(responseCode = "404", description = "Owner not found") })
+			@ApiResponse(responseCode = "404", description = "Owner not found"),
+			@ApiResponse(responseCode = "412", description = "The owner was changed since the If-Match ETag") })
 	@DeleteMapping("/{ownerId}")
-	public ResponseEntity<Void> deleteOwner(@Parameter(description = "Unique identifier of the owner to delete",
-			example = "1") @PathVariable("ownerId") @Min(1) Integer ownerId) {
+	public ResponseEntity<Void> deleteOwner(
+			@Parameter(description = "Unique identifier of the owner to delete",
+					example = "1") @PathVariable("ownerId") @Min(1) Integer ownerId,
+			@Parameter(description = "ETag the owner must still have") @RequestHeader(name = HttpHeaders.IF_MATCH,
+					required = false) String ifMatch) {
 
-		if (!this.owners.existsById(ownerId)) {
-			return ResponseEntity.notFound().build();
+		try {
+			if (!this.owners.deleteById(ownerId, ETags.version(ifMatch))) {
+				return ResponseEntity.notFound().build();
+			}
+		}
+		catch (OptimisticLockingFailureException ex) {
+			return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
 		}
 
-		this.owners.deleteById(ownerId);
+		this.suggestions.ownerDeleted(ownerId);
 		return ResponseEntity.noContent().build();
 	}
 
 	@Operation(summary = "Search owners by last name",
-			description = "Searches for owners whose last name starts with the specified text. Returns paginated results. If no lastName is provided, returns all owners.")
+			description = "Searches for owners whose last name starts with the specified text. Returns paginated owner summaries. If no lastName is provided, returns all owners. "
+					+ "With includeTotal=false the total count is skipped and only whether a next page exists is reported.")
 	@ApiResponses(value = { @ApiResponse(responseCode = "200", description = "Search completed successfully",
 			content = @Content(mediaType = "application/json",
 					schema = @Schema(implementation = OwnerSearchResponse.class),
@@ -250,10 +343,9 @@ public class OwnerRestController {
 									      "id": 1,
 									      "firstName": "John",
 									      "lastName": "Doe",
-									      "address": "123 Main Street",
 									      "city": "Springfield",
 									      "telephone": "555-123-4567",
-									      "pets": []
+									      "petCount": 0
 									    }
 									  ],
 									  "pageable": {
@@ -269,7 +361,7 @@ public class OwnerRestController {
 									}
 									"""))) })
 	@GetMapping
-	public ResponseEntity<Page<Owner>> searchOwners(
+	public ResponseEntity<Slice<OwnerSummary>> searchOwners(
 			@Parameter(description = "Last name to search for (partial match supported)",
 					example = "Doe") @RequestParam(value = "lastName", defaultValue = "") String lastName,
 
@@ -277,15 +369,22 @@ public class OwnerRestController {
 					defaultValue = "0") @Min(0) Integer page,
 
 			@Parameter(description = "Number of results per page", example = "5") @RequestParam(value = "size",
-					defaultValue = "5") @Min(1) Integer size) {
+					defaultValue = "5") @Min(1) Integer size,
+
+			@Parameter(description = "Whether to count all matches; false returns a slice without totals",
+					example = "true") @RequestParam(value = "includeTotal",
+							defaultValue = "true") boolean includeTotal) {
 
 		Pageable pageable = PageRequest.of(page, size);
-		Page<Owner> ownersResults = this.owners.findByLastNameStartingWith(lastName, pageable);
+		Slice<OwnerSummary> ownersResults = includeTotal
+				? this.owners.findSummariesByLastNameStartingWith(lastName, pageable)
+				: this.owners.findSummarySliceByLastNameStartingWith(lastName, pageable);
 
 		return ResponseEntity.ok(ownersResults);
 	}
 
-	@Operation(summary = "Get all owners", description = "Retrieves all owners in the system with pagination support.")
+	@Operation(summary = "Get all owners",
+			description = "Retrieves summaries of all owners in the system with pagination support.")
 	@ApiResponses(value = { @ApiResponse(responseCode = "200", description = "Owners retrieved successfully",
 			content = @Content(mediaType = "application/json",
 					schema = @Schema(implementation = OwnerSearchResponse.class),
@@ -297,19 +396,17 @@ public class OwnerRestController {
 									      "id": 1,
 									      "firstName": "John",
 									      "lastName": "Doe",
-									      "address": "123 Main Street",
 									      "city": "Springfield",
 									      "telephone": "555-123-4567",
-									      "pets": []
+									      "petCount": 0
 									    },
 									    {
 									      "id": 2,
 									      "firstName": "Jane",
 									      "lastName": "Smith",
-									      "address": "789 Elm Street",
 									      "city": "Springfield",
 									      "telephone": "555-456-7890",
-									      "pets": []
+									      "petCount": 0
 									    }
 									  ],
 									  "pageable": {
@@ -325,7 +422,7 @@ public class OwnerRestController {
 									}
 									"""))) })
 	@GetMapping("/all")
-	public ResponseEntity<Page<Owner>> getAllOwners(
+	public ResponseEntity<Page<OwnerSummary>> getAllOwners(
 			@Parameter(description = "Page number (0-based)", example = "0") @RequestParam(value = "page",
 					defaultValue = "0") @Min(0) Integer page,
 
@@ -333,19 +430,210 @@ public class OwnerRestController {
 					defaultValue = "10") @Min(1) Integer size) {
 
 		Pageable pageable = PageRequest.of(page, size);
-		Page<Owner> allOwners = this.owners.findAll(pageable);
+		Page<OwnerSummary> allOwners = this.owners.findAllSummaries(pageable);
 
 		return ResponseEntity.ok(allOwners);
 	}
 
+	@Operation(summary = "Export all owners",
+			description = "Streams all owners with their pets and visits as NDJSON, one owner per line in ascending id order, "
+					+ "in the format accepted by the bulk import. The export is read through a database cursor and written "
+					+ "as it is read, so it is not held in memory. An interrupted export is resumed by passing the id of "
+					+ "the last complete line as 'after'.")
+	@ApiResponses(value = { @ApiResponse(responseCode = "200", description = "Export streamed successfully",
+			content = @Content(mediaType = MediaType.APPLICATION_NDJSON_VALUE,
+					examples = @ExampleObject(name = "Export", summary = "Example line of an export",
+							value = """
+									{"id":1,"firstName":"George","lastName":"Franklin","address":"110 W. Liberty St.","city":"Madison","telephone":"6085551023","pets":[{"id":1,"name":"Leo","birthDate":"2010-09-07","type":{"id":1,"name":"cat"},"visits":[]}]}
+									"""))) })
+	@GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+	public WebAsyncTask<Void> exportOwners(
+			@Parameter(description = "Id of the last owner already exported; only owners with a greater id are written",
+					example = "0") @RequestParam(value = "after", defaultValue = "0") @Min(0) Integer after,
+			HttpServletResponse response) {
+
+		return stream(response, out -> this.exporter.export(after, out));
+	}
+
+	@Operation(summary = "Scroll through owners by last name",
+			description = "Returns owners whose last name starts with the specified text, ignoring case, ordered by last name and id. "
+					+ "Instead of page numbers, the response carries an opaque 'next' token to pass as 'after' for the "
+					+ "following window. No total count is computed, so deep windows cost the same as the first one.")
+	@ApiResponses(value = {
+			@ApiResponse(responseCode = "200", description = "Window returned successfully",
+					content = @Content(mediaType = "application/json",
+							schema = @Schema(implementation = OwnerScrollResponse.class),
+							examples = @ExampleObject(name = "Scroll Window",
+									summary = "Example window with a continuation token", value = """
+											{
+											  "content": [
+											    {
+											      "id": 1,
+											      "firstName": "John",
+											      "lastName": "Doe",
+											      "address": "123 Main Street",
+											      "city": "Springfield",
+											      "telephone": "555-123-4567",
+											      "pets": null
+											    }
+											  ],
+											  "size": 1,
+											  "hasNext": true,
+											  "next": "MTpEb2U"
+											}
+											"""))),
+			@ApiResponse(responseCode = "400", description = "Malformed continuation token or invalid window size") })
+	@GetMapping("/scroll")
+	public ResponseEntity<OwnerScrollResponse> scrollOwners(
+			@Parameter(description = "Last name to search for (partial match supported)",
+					example = "Doe") @RequestParam(value = "lastName", defaultValue = "") String lastName,
+
+			@Parameter(
+					description = "Continuation token from the previous window; omit for the first window") @RequestParam(
+							value = "after", required = false) String after,
+
+			@Parameter(description = "Number of results per window", example = "5") @RequestParam(value = "size",
+					defaultValue = "5") @Min(1) @Max(100) Integer size) {
+
+		ScrollPosition position;
+		try {
+			position = OwnerScrollToken.decode(after);
+		}
+		catch (IllegalArgumentException ex) {
+			return ResponseEntity.badRequest().build();
+		}
+
+		Window<Owner> window = this.owners.findByLastNameStartingWith(lastName, position, Limit.of(size),
+				OwnerScrollToken.SORT);
+		List<Owner> content = window.getContent();
+		String next = window.hasNext() ? OwnerScrollToken.encode(content.get(content.size() - 1)) : null;
+
+		return ResponseEntity.ok(new OwnerScrollResponse(content, content.size(), window.hasNext(), next));
+	}
+
+	@Operation(summary = "Get the visit history of a pet",
+			description = "Returns the visits of a pet in windows, most recent first. The first window holds the "
+					+ "most recent visits; pass the 'next' token of a window as 'before' to load the visits preceding it. "
+					+ "Windows are keyed on visit date and id, so older windows cost the same as the first one.")
+	@ApiResponses(value = {
+			@ApiResponse(responseCode = "200", description = "Window returned successfully",
+					content = @Content(mediaType = "application/json",
+							schema = @Schema(implementation = VisitWindowResponse.class),
+							examples = @ExampleObject(name = "Visit Window",
+									summary = "Example window with a continuation token", value = """
+											{
+											  "content": [
+											    {
+											      "id": 1,
+											      "date": "2013-01-01",
+											      "description": "rabies shot",
+											      "petId": 7
+											    }
+											  ],
+											  "size": 1,
+											  "hasNext": true,
+											  "next": "MToyMDEzLTAxLTAx"
+											}
+											"""))),
+			@ApiResponse(responseCode = "400", description = "Malformed continuation token"),
+			@ApiResponse(responseCode = "404", description = "Owner has no such pet") })
+	@GetMapping("/{ownerId}/pets/{petId}/visits")
+	public ResponseEntity<VisitWindowResponse> getVisits(
+			@Parameter(description = "Unique identifier of the owner",
+					example = "6") @PathVariable("ownerId") @Min(1) Integer ownerId,
+
+			@Parameter(description = "Unique identifier of the pet",
+					example = "7") @PathVariable("petId") @Min(1) Integer petId,
+
+			@Parameter(
+					description = "Continuation token from the previous window; omit for the most recent visits") @RequestParam(
+							value = "before", required = false) String before,
+
+			@Parameter(description = "Number of visits per window", example = "5") @RequestParam(value = "limit",
+					defaultValue = "5") @Min(1) @Max(100) Integer limit) {
+
+		ScrollPosition position;
+		try {
+			position = VisitWindowToken.decode(before);
+		}
+		catch (IllegalArgumentException ex) {
+			return ResponseEntity.badRequest().build();
+		}
+
+		// the pet is resolved through the second-level cache
+		if (this.pets.findById(petId).filter(pet -> ownerId.equals(pet.getOwnerId())).isEmpty()) {
+			return ResponseEntity.notFound().build();
+		}
+
+		Window<Visit> window = this.visits.findByPetId(petId, position, Limit.of(limit), VisitWindowToken.SORT);
+		List<Visit> content = window.getContent();
+		String next = window.hasNext() ? VisitWindowToken.encode(content.get(content.size() - 1)) : null;
+
+		return ResponseEntity.ok(new VisitWindowResponse(content, content.size(), window.hasNext(), next));
+	}
+
+	@Operation(summary = "Suggest last names",
+			description = "Completes a typed prefix to the most common last names of owners, ignoring case. "
+					+ "Names are weighted by the number of owners and the visits of their pets. "
+					+ "Suggestions are served from memory without querying the database.")
+	@ApiResponses(value = { @ApiResponse(responseCode = "200", description = "Suggestions returned successfully",
+			content = @Content(mediaType = "application/json",
+					examples = @ExampleObject(name = "Suggestions", summary = "Example completions of 'da'", value = """
+							["Davis", "Daniels"]
+							"""))) })
+	@GetMapping("/suggest")
+	public ResponseEntity<List<String>> suggestLastNames(
+			@Parameter(description = "Typed beginning of a last name", example = "da") @RequestParam(value = "prefix",
+					defaultValue = "") String prefix,
+
+			@Parameter(description = "Maximum number of suggestions", example = "5") @RequestParam(value = "limit",
+					defaultValue = "5") @Min(1) @Max(50) Integer limit) {
+
+		return ResponseEntity.ok(this.suggestions.suggest(prefix, limit));
+	}
+
+	/**
+	 * Response of the keyset scrolling endpoint.
+	 *
+	 * @param content the owners in the current window
+	 * @param size the number of owners in the current window
+	 * @param hasNext whether more owners follow this window
+	 * @param next the token to pass as <code>after</code> for the next window, or
+	 * <code>null</code> on the last window
+	 */
+	@Schema(description = "Keyset window of owners")
+	public record OwnerScrollResponse(@Schema(description = "List of owners in the current window") List<Owner> content,
+			@Schema(description = "Number of owners in the current window", example = "5") int size,
+			@Schema(description = "Whether more owners follow", example = "true") boolean hasNext,
+			@Schema(description = "Continuation token for the next window", example = "MTpEb2U") String next) {
+
+	}
+
+	/**
+	 * Response of the visit history endpoint.
+	 *
+	 * @param content the visits in the current window, most recent first
+	 * @param size the number of visits in the current window
+	 * @param hasNext whether older visits follow this window
+	 * @param next the token to pass as <code>before</code> for the next window, or
+	 * <code>null</code> on the last window
+	 */
+	@Schema(description = "Window of a pet's visits, most recent first")
+	public record VisitWindowResponse(@Schema(description = "List of visits in the current window") List<Visit> content,
+			@Schema(description = "Number of visits in the current window", example = "5") int size,
+			@Schema(description = "Whether older visits follow", example = "true") boolean hasNext,
+			@Schema(description = "Continuation token for the next window", example = "MToyMDEzLTAxLTAx") String next) {
+
+	}
+
 	/**
 	 * Schema class for OpenAPI documentation of paginated search responses
 	 */
 	@Schema(description = "Paginated response for owner search operations")
 	public static class OwnerSearchResponse {
 
-		@Schema(description = "List of owners in the current page")
-		private List<Owner> content;
+		@Schema(description = "List of owner summaries in the current page")
+		private List<OwnerSummary> content;
 
 		@Schema(description = "Pagination information")
 		private Object pageable;
@@ -366,11 +654,11 @@ public class OwnerRestController {
 		private int numberOfElements;
 
 		// Getters and setters for schema documentation only
-		public List<Owner> getContent() {
+		public List<OwnerSummary> getContent() {
 			return content;
 		}
 
-		public void setContent(List<Owner> content) {
+		public void setContent(List<OwnerSummary> content) {
 			this.content = content;
 		}
 
@@ -424,4 +712,33 @@ public class OwnerRestController {
 
 	}
 
+	/**
+	 * Write an NDJSON response on the MVC async executor. Streamed responses may take
+	 * much longer than other requests, so they are allowed {@link OwnerExporter#TIMEOUT}
+	 * instead of the default async request timeout.
+	 */
+	private static WebAsyncTask<Void> stream(HttpServletResponse response, StreamingResponseBody body) {
+		response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+		return new WebAsyncTask<>(OwnerExporter.TIMEOUT.toMillis(), () -> {
+			body.writeTo(response.getOutputStream());
+			response.flushBuffer();
+			return null;
+		});
+	}
+
+	/**
+	 * Return the entity tag of a loaded owner, equal to the one computed from its
+	 * versions. The owner's pets and their visits must be initialized.
+	 */
+	private static String eTag(Owner owner) {
+		List<Object> parts = new ArrayList<>();
+		owner.getPets()
+			.stream()
+			.sorted(Comparator.comparing(Pet::getId))
+			.forEach(pet -> Collections.addAll(parts, pet.getId(), pet.getVersion(), pet.getType().getVersion(),
+					pet.getVisits().size(),
+					pet.getVisits().stream().map(Visit::getId).max(Integer::compare).orElse(null)));
+		return ETags.of(owner.getVersion(), parts);
+	}
+
 }
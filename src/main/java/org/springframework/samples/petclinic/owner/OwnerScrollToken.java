@@ -0,0 +1,78 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.samples.petclinic.owner;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+
+/**
+ * Opaque continuation token for scrolling through owners ordered by normalized last name
+ * and id. The token is the URL-safe Base64 encoding of the last seen
+ * <code>id:lastNameNormalized</code> pair, so clients cannot depend on its layout.
+ */
+final class OwnerScrollToken {
+
+	/**
+	 * Unique sort order the keyset position refers to.
+	 */
+	static final Sort SORT = Sort.by("lastNameNormalized", "id");
+
+	private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+
+	private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+	private OwnerScrollToken() {
+	}
+
+	/**
+	 * Encode the position directly after the given owner.
+	 * @param owner the last owner of the current window
+	 * @return the continuation token
+	 */
+	static String encode(Owner owner) {
+		String key = owner.getId() + ":" + owner.getLastNameNormalized();
+		return ENCODER.encodeToString(key.getBytes(StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * Decode a continuation token into a keyset position.
+	 * @param token the token, or <code>null</code> to start at the beginning
+	 * @return the position to scroll forward from
+	 * @throws IllegalArgumentException if the token is malformed
+	 */
+	static KeysetScrollPosition decode(String token) {
+		if (token == null || token.isEmpty()) {
+			return ScrollPosition.keyset();
+		}
+		String key = new String(DECODER.decode(token), StandardCharsets.UTF_8);
+		int separator = key.indexOf(':');
+		if (separator < 1) {
+			throw new IllegalArgumentException("Malformed scroll token: " + token);
+		}
+		Map<String, Object> keys = new LinkedHashMap<>();
+		keys.put("lastNameNormalized", key.substring(separator + 1));
+		keys.put("id", Integer.valueOf(key.substring(0, separator)));
+		return ScrollPosition.forward(keys);
+	}
+
+}
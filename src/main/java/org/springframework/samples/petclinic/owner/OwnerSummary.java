@@ -0,0 +1,38 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.samples.petclinic.owner;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * Read-only projection of an {@link Owner} for list views. Only the listed owner columns
+ * are selected, and the pets are reduced to their count.
+ *
+ * @param id the owner id
+ * @param firstName the first name
+ * @param lastName the last name
+ * @param city the city
+ * @param telephone the telephone number
+ * @param petCount the number of pets the owner has
+ * @see OwnerRepository#findSummariesByLastNameStartingWith
+ */
+@Schema(description = "Summary of an owner in list responses")
+public record OwnerSummary(@Schema(example = "1") Integer id, @Schema(example = "John") String firstName,
+		@Schema(example = "Doe") String lastName, @Schema(example = "Springfield") String city,
+		@Schema(example = "555-123-4567") String telephone, @Schema(example = "2") int petCount) {
+
+}
@@ -23,16 +23,23 @@ import java.util.Set;
 
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.samples.petclinic.model.NamedEntity;
+import org.springframework.samples.petclinic.system.CacheInvalidationEntityListener;
 
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.OrderBy;
+import jakarta.persistence.PrePersist;
 import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 /**
  * Simple business object representing a pet.
@@ -43,7 +50,9 @@ import jakarta.persistence.Table;
  * @author Wick Dynex
  */
 @Entity
+@EntityListeners(CacheInvalidationEntityListener.class)
 @Table(name = "pets")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public class Pet extends NamedEntity {
 
 	@Column(name = "birth_date")
@@ -54,8 +63,25 @@ public class Pet extends NamedEntity {
 	@JoinColumn(name = "type_id")
 	private PetType type;
 
-	@OneToMany(cascade = CascadeType.ALL, fetch = FetchType.EAGER)
-	@JoinColumn(name = "pet_id")
+	/**
+	 * Id of the owner. The pet is the only writer of the foreign key, whether it is saved
+	 * with its owner or added through the {@link PetRepository}; {@link Owner#getPets()}
+	 * only reads it.
+	 */
+	@Column(name = "owner_id")
+	private Integer ownerId;
+
+	/**
+	 * Owner the pet was added to, which may not have had an id yet.
+	 */
+	@Transient
+	private Owner owner;
+
+	// visits of up to 100 pets of the persistence context are loaded together
+	@BatchSize(size = 100)
+	@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+	@OneToMany(cascade = CascadeType.ALL, fetch = FetchType.LAZY)
+	@JoinColumn(name = "pet_id", insertable = false, updatable = false)
 	@OrderBy("date ASC")
 	private final Set<Visit> visits = new LinkedHashSet<>();
 
@@ -75,12 +101,39 @@ public class Pet extends NamedEntity {
 		this.type = type;
 	}
 
+	public Integer getOwnerId() {
+		return this.ownerId;
+	}
+
+	public void setOwnerId(Integer ownerId) {
+		this.ownerId = ownerId;
+	}
+
 	public Collection<Visit> getVisits() {
 		return this.visits;
 	}
 
 	public void addVisit(Visit visit) {
 		getVisits().add(visit);
+		visit.setPet(this);
+	}
+
+	void setOwner(Owner owner) {
+		this.owner = owner;
+		this.ownerId = owner.getId();
+	}
+
+	/**
+	 * Take the id of an owner that was new when this pet was added to it. Its id is
+	 * assigned by now, as pets are persisted after their owner. Visits bound without
+	 * {@link #addVisit(Visit)} are handed this pet in turn.
+	 */
+	@PrePersist
+	void assignOwnerId() {
+		if (this.owner != null) {
+			this.ownerId = this.owner.getId();
+		}
+		this.visits.forEach(visit -> visit.setPet(this));
 	}
 
 	/**
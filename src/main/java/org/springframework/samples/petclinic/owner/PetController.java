@@ -49,21 +49,25 @@ class PetController {
 
 	private final OwnerRepository owners;
 
-	private final PetTypeRepository types;
+	private final PetRepository pets;
 
-	public PetController(OwnerRepository owners, PetTypeRepository types) {
+	private final PetTypeRegistry types;
+
+	public PetController(OwnerRepository owners, PetRepository pets, PetTypeRegistry types) {
 		this.owners = owners;
+		this.pets = pets;
 		this.types = types;
 	}
 
 	@ModelAttribute("types")
 	public Collection<PetType> populatePetTypes() {
-		return this.types.findPetTypes();
+		return this.types.getPetTypes();
 	}
 
 	@ModelAttribute("owner")
 	public Owner findOwner(@PathVariable("ownerId") int ownerId) {
-		return this.owners.findById(ownerId)
+		// the pet forms need the owner's pets, but not their visits
+		return this.owners.findWithPetsById(ownerId)
 			.orElseThrow(() -> new IllegalArgumentException(
 					"Owner not found with id: " + ownerId + ". Please ensure the ID is correct "));
 	}
@@ -102,8 +106,7 @@ class PetController {
 			return VIEWS_PETS_CREATE_OR_UPDATE_FORM;
 		}
 
-		owner.addPet(pet);
-		this.owners.save(owner);
+		this.pets.add(owner.getId(), pet);
 		redirectAttributes.addFlashAttribute("message", "New Pet has been Added");
 		return "redirect:/owners/{ownerId}";
 	}
@@ -156,16 +159,14 @@ class PetController {
 	}
 
 	/**
-	 * Updates the existing pet's details and saves the owner.
+	 * Updates the existing pet's details, writing only the pet.
 	 * @param owner The owner of the pet
 	 * @param pet The pet with updated details
 	 */
 	private void updatePetDetails(Owner owner, Pet pet) {
-		Pet existingPet = owner.getPet(pet.getId());
-		existingPet.setName(pet.getName());
-		existingPet.setBirthDate(pet.getBirthDate());
-		existingPet.setType(pet.getType());
-		this.owners.save(owner);
+		this.pets.updateById(owner.getId(), pet.getId(), pet)
+			.orElseThrow(() -> new IllegalArgumentException(
+					"Pet not found with id: " + pet.getId() + " for owner with id: " + owner.getId()));
 	}
 
 }
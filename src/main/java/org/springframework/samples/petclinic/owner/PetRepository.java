@@ -0,0 +1,98 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.samples.petclinic.owner;
+
+import java.util.Optional;
+
+import org.springframework.data.repository.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import org.hibernate.Hibernate;
+
+/**
+ * Repository class for <code>Pet</code> domain objects. Pets are written on their own
+ * through the <code>owner_id</code> foreign key, so adding or editing a pet writes one
+ * row instead of saving the owner with all its pets and their visits.
+ *
+ * @see ChildRowWrites
+ */
+public interface PetRepository extends Repository<Pet, Integer>, ChildRowWrites {
+
+	/**
+	 * Retrieve a <code>Pet</code> by its id, through the second-level cache.
+	 * @param id the id to search for
+	 * @return the pet, without its visits loaded
+	 */
+	Optional<Pet> findById(Integer id);
+
+	/**
+	 * Retrieve a <code>Pet</code> of the given owner with its visits, through the
+	 * second-level cache. The other pets of the owner and their visits are not loaded.
+	 * @param ownerId the id of the owner the pet must belong to
+	 * @param id the id of the pet
+	 * @return the pet, or an empty {@link Optional} if the owner has no such pet
+	 */
+	@Transactional(readOnly = true)
+	default Optional<Pet> findWithVisitsById(Integer ownerId, Integer id) {
+		Optional<Pet> pet = findById(id).filter(found -> ownerId.equals(found.getOwnerId()));
+		pet.ifPresent(found -> Hibernate.initialize(found.getVisits()));
+		return pet;
+	}
+
+	/**
+	 * Save a <code>Pet</code> without cascading to its owner or visits.
+	 * @param pet the pet to save
+	 * @return the saved pet
+	 */
+	Pet save(Pet pet);
+
+	/**
+	 * Add a new pet to an owner with a single <code>INSERT</code>. The owner's version is
+	 * incremented, as adding the pet through {@link Owner#getPets()} would.
+	 * @param ownerId the id of the owner
+	 * @param pet the new pet
+	 * @return the saved pet, with its id
+	 * @throws org.springframework.orm.ObjectRetrievalFailureException if there is no such
+	 * owner
+	 */
+	@Transactional
+	default Pet add(Integer ownerId, Pet pet) {
+		childAdded(Owner.class, ownerId, "pets");
+		pet.setOwnerId(ownerId);
+		return save(pet);
+	}
+
+	/**
+	 * Update the name, birth date and type of a pet, leaving its visits untouched. The
+	 * pet is resolved through the second-level cache and only its own row is written.
+	 * @param ownerId the id of the owner the pet must belong to
+	 * @param id the id of the pet
+	 * @param details the pet carrying the new name, birth date and type
+	 * @return the updated pet, or an empty {@link Optional} if the owner has no such pet
+	 */
+	@Transactional
+	default Optional<Pet> updateById(Integer ownerId, Integer id, Pet details) {
+		Optional<Pet> pet = findById(id).filter(found -> ownerId.equals(found.getOwnerId()));
+		pet.ifPresent(found -> {
+			found.setName(details.getName());
+			found.setBirthDate(details.getBirthDate());
+			found.setType(details.getType());
+		});
+		return pet;
+	}
+
+}
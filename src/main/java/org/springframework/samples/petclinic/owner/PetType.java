@@ -16,15 +16,21 @@
 package org.springframework.samples.petclinic.owner;
 
 import org.springframework.samples.petclinic.model.NamedEntity;
+import org.springframework.samples.petclinic.system.CacheInvalidationEntityListener;
 
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.Table;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 /**
  * @author Juergen Hoeller Can be Cat, Dog, Hamster...
  */
 @Entity
+@EntityListeners(CacheInvalidationEntityListener.class)
 @Table(name = "types")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public class PetType extends NamedEntity {
 
 }
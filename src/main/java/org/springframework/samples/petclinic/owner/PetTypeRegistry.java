@@ -0,0 +1,137 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.samples.petclinic.owner;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.event.EventListener;
+import org.springframework.samples.petclinic.system.CacheEntryLoader;
+import org.springframework.samples.petclinic.system.CacheInvalidation;
+import org.springframework.samples.petclinic.system.CacheInvalidationBus;
+import org.springframework.samples.petclinic.system.CacheInvalidationListener;
+import org.springframework.samples.petclinic.system.ETags;
+import org.springframework.stereotype.Component;
+
+/**
+ * In-memory registry of the known {@link PetType}s. The types are read once from the
+ * {@link PetTypeRepository} and kept as an immutable, name-indexed snapshot in the
+ * {@value #CACHE_NAME} cache. The snapshot is evicted whenever the
+ * {@link CacheInvalidationBus} reports a committed change to a pet type on this or
+ * another node, and rebuilt on the next lookup.
+ *
+ * @see PetTypeRepository
+ */
+@Component
+public class PetTypeRegistry implements CacheEntryLoader, CacheInvalidationListener {
+
+	/**
+	 * Name of the cache holding the pet type snapshot.
+	 */
+	public static final String CACHE_NAME = "petTypes";
+
+	private static final String SNAPSHOT_KEY = "snapshot";
+
+	private final PetTypeRepository types;
+
+	private final Cache cache;
+
+	public PetTypeRegistry(PetTypeRepository types, CacheManager cacheManager) {
+		this.types = types;
+		this.cache = cacheManager.getCache(CACHE_NAME);
+	}
+
+	/**
+	 * Return all known pet types, ordered by name.
+	 * @return an immutable list of {@link PetType}s
+	 */
+	public List<PetType> getPetTypes() {
+		return snapshot().types();
+	}
+
+	/**
+	 * Return the pet type with the given name.
+	 * @param name the exact name of the pet type
+	 * @return the matching {@link PetType}, or an empty {@link Optional} if none exists
+	 */
+	public Optional<PetType> findByName(String name) {
+		return Optional.ofNullable(snapshot().byName().get(name));
+	}
+
+	/**
+	 * Return the entity tag of the known pet types, derived from their ids and versions
+	 * so that every node holding the same types returns the same tag.
+	 * @return the quoted entity tag
+	 */
+	public String getETag() {
+		return snapshot().eTag();
+	}
+
+	@Override
+	public void invalidate(CacheInvalidation invalidation) {
+		if (invalidation.affects(PetType.class)) {
+			this.cache.evict(SNAPSHOT_KEY);
+		}
+	}
+
+	/**
+	 * Load the snapshot at startup so that the first form submission does not pay for it.
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	public void preload() {
+		snapshot();
+	}
+
+	@Override
+	public String getCacheName() {
+		return CACHE_NAME;
+	}
+
+	/**
+	 * Read the pet types again when the cache refreshes the snapshot.
+	 */
+	@Override
+	public Object load(Object key) {
+		return SNAPSHOT_KEY.equals(key) ? load() : null;
+	}
+
+	private Snapshot snapshot() {
+		return this.cache.get(SNAPSHOT_KEY, this::load);
+	}
+
+	private Snapshot load() {
+		return Snapshot.of(this.types.findPetTypes());
+	}
+
+	private record Snapshot(List<PetType> types, Map<String, PetType> byName, String eTag) {
+
+		static Snapshot of(List<PetType> types) {
+			return new Snapshot(List.copyOf(types),
+					types.stream().collect(Collectors.toUnmodifiableMap(PetType::getName, Function.identity())),
+					ETags.of(types.stream().flatMap(type -> Stream.of(type.getId(), type.getVersion())).toList()));
+		}
+
+	}
+
+}
@@ -17,16 +17,21 @@
 package org.springframework.samples.petclinic.owner;
 
 import java.util.List;
-import java.util.Optional;
 
-import jakarta.annotation.Nonnull;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 
 /**
  * Repository class for <code>PetType</code> domain objects.
+ * <p>
+ * Pet types are looked up through the {@link PetTypeRegistry}, which picks up the changes
+ * written through this repository from the
+ * {@link org.springframework.samples.petclinic.system.CacheInvalidationBus}.
+ * </p>
  *
  * @author Patrick Baumgartner
  */
@@ -34,10 +39,12 @@ import org.springframework.data.jpa.repository.Query;
 public interface PetTypeRepository extends JpaRepository<PetType, Integer> {
 
 	/**
-	 * Retrieve all {@link PetType}s from the data store.
+	 * Retrieve all {@link PetType}s from the data store. The result is kept in the
+	 * Hibernate query cache until pet types are written.
 	 * @return a Collection of {@link PetType}s.
 	 */
 	@Query("SELECT ptype FROM PetType ptype ORDER BY ptype.name")
+	@QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
 	List<PetType> findPetTypes();
 
 }
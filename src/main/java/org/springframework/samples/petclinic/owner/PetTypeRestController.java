@@ -0,0 +1,66 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.samples.petclinic.owner;
+
+import java.util.List;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.samples.petclinic.system.ETags;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+/**
+ * REST controller listing the known pet types, served from the {@link PetTypeRegistry}.
+ */
+@RestController
+@RequestMapping("/api/pettypes")
+@Tag(name = "Pet types", description = "Pet types known to the clinic")
+public class PetTypeRestController {
+
+	private final PetTypeRegistry petTypes;
+
+	public PetTypeRestController(PetTypeRegistry petTypes) {
+		this.petTypes = petTypes;
+	}
+
+	@Operation(summary = "List pet types", description = "Retrieves all known pet types, ordered by name.")
+	@ApiResponses(value = { @ApiResponse(responseCode = "200", description = "Pet types retrieved successfully"),
+			@ApiResponse(responseCode = "304",
+					description = "The representation identified by If-None-Match is still current") })
+	@GetMapping
+	public ResponseEntity<List<PetType>> listPetTypes(
+			@Parameter(description = "Entity tag of a previously returned representation") @RequestHeader(
+					name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+		// the tag is read before the types so that it is never newer than the body
+		String eTag = this.petTypes.getETag();
+		if (ETags.matches(ifNoneMatch, eTag)) {
+			return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+		}
+		return ResponseEntity.ok().eTag(eTag).body(this.petTypes.getPetTypes());
+	}
+
+}
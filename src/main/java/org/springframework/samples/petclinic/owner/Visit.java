@@ -19,11 +19,17 @@ import java.time.LocalDate;
 
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.samples.petclinic.model.BaseEntity;
+import org.springframework.samples.petclinic.system.CacheInvalidationEntityListener;
 
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
+import jakarta.persistence.PrePersist;
 import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
 import jakarta.validation.constraints.NotBlank;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 /**
  * Simple JavaBean domain object representing a visit.
@@ -32,7 +38,9 @@ import jakarta.validation.constraints.NotBlank;
  * @author Dave Syer
  */
 @Entity
+@EntityListeners(CacheInvalidationEntityListener.class)
 @Table(name = "visits")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public class Visit extends BaseEntity {
 
 	@Column(name = "visit_date")
@@ -42,6 +50,20 @@ public class Visit extends BaseEntity {
 	@NotBlank
 	private String description;
 
+	/**
+	 * Id of the pet. The visit is the only writer of the foreign key, whether it is saved
+	 * with its pet or added through the {@link VisitRepository}; {@link Pet#getVisits()}
+	 * only reads it.
+	 */
+	@Column(name = "pet_id")
+	private Integer petId;
+
+	/**
+	 * Pet the visit was added to, which may not have had an id yet.
+	 */
+	@Transient
+	private Pet pet;
+
 	/**
 	 * Creates a new instance of Visit for the current date
 	 */
@@ -65,4 +87,28 @@ public class Visit extends BaseEntity {
 		this.description = description;
 	}
 
+	public Integer getPetId() {
+		return this.petId;
+	}
+
+	public void setPetId(Integer petId) {
+		this.petId = petId;
+	}
+
+	void setPet(Pet pet) {
+		this.pet = pet;
+		this.petId = pet.getId();
+	}
+
+	/**
+	 * Take the id of a pet that was new when this visit was added to it. Its id is
+	 * assigned by now, as visits are persisted after their pet.
+	 */
+	@PrePersist
+	void assignPetId() {
+		if (this.pet != null) {
+			this.petId = this.pet.getId();
+		}
+	}
+
 }
@@ -0,0 +1,38 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.samples.petclinic.owner;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.PlatformTransactionManager;
+
+/**
+ * Creates the {@link VisitBookingQueue} configured by the
+ * <code>petclinic.visit-booking</code> properties.
+ */
+@Configuration(proxyBeanMethods = false)
+@EnableConfigurationProperties(VisitBookingProperties.class)
+class VisitBookingConfiguration {
+
+	@Bean
+	public VisitBookingQueue visitBookingQueue(PetRepository pets, VisitRepository visits,
+			PlatformTransactionManager transactionManager, VisitBookingProperties properties) {
+		return new VisitBookingQueue(pets, visits, transactionManager, properties);
+	}
+
+}
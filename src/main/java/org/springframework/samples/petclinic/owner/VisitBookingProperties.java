@@ -0,0 +1,82 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.samples.petclinic.owner;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuration of the {@link VisitBookingQueue}, bound from
+ * <code>petclinic.visit-booking.*</code> properties.
+ */
+@ConfigurationProperties("petclinic.visit-booking")
+public class VisitBookingProperties {
+
+	/**
+	 * Maximum number of bookings waiting to be written.
+	 */
+	private int capacity = 1000;
+
+	/**
+	 * Maximum number of bookings written together.
+	 */
+	private int batchSize = 100;
+
+	/**
+	 * Maximum time a booking waits for further bookings to be written with.
+	 */
+	private Duration flushInterval = Duration.ofMillis(5);
+
+	/**
+	 * Time a request waits for its booking to be queued, and again for it to be written.
+	 */
+	private Duration timeout = Duration.ofSeconds(5);
+
+	public int getCapacity() {
+		return this.capacity;
+	}
+
+	public void setCapacity(int capacity) {
+		this.capacity = capacity;
+	}
+
+	public int getBatchSize() {
+		return this.batchSize;
+	}
+
+	public void setBatchSize(int batchSize) {
+		this.batchSize = batchSize;
+	}
+
+	public Duration getFlushInterval() {
+		return this.flushInterval;
+	}
+
+	public void setFlushInterval(Duration flushInterval) {
+		this.flushInterval = flushInterval;
+	}
+
+	public Duration getTimeout() {
+		return this.timeout;
+	}
+
+	public void setTimeout(Duration timeout) {
+		this.timeout = timeout;
+	}
+
+}
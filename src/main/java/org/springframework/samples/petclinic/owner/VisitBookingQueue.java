@@ -0,0 +1,250 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.samples.petclinic.owner;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.dao.TransientDataAccessResourceException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Books visits through a bounded queue that a single writer drains in batches, so that
+ * concurrent bookings share one transaction, and their inserts one JDBC batch, instead of
+ * each merging its owner with all pets and visits.
+ * <p>
+ * The writer waits at most the flush interval for further bookings after the first one,
+ * and writes at most the batch size at once. Each visit is added through
+ * {@link VisitRepository#add}, after checking that its pet belongs to the given owner. If
+ * the batch fails, its bookings are written one by one, as new visits again, so that one
+ * bad booking fails alone.
+ * <p>
+ * {@link #book} returns once the visit is committed.
+ */
+public class VisitBookingQueue implements SmartLifecycle {
+
+	private static final Logger logger = LoggerFactory.getLogger(VisitBookingQueue.class);
+
+	private final PetRepository pets;
+
+	private final VisitRepository visits;
+
+	private final TransactionTemplate transactionTemplate;
+
+	private final BlockingQueue<Booking> queue;
+
+	private final int batchSize;
+
+	private final Duration flushInterval;
+
+	private final Duration timeout;
+
+	private volatile boolean running;
+
+	private Thread writer;
+
+	public VisitBookingQueue(PetRepository pets, VisitRepository visits, PlatformTransactionManager transactionManager,
+			VisitBookingProperties properties) {
+		this.pets = pets;
+		this.visits = visits;
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+		this.queue = new ArrayBlockingQueue<>(properties.getCapacity());
+		this.batchSize = properties.getBatchSize();
+		this.flushInterval = properties.getFlushInterval();
+		this.timeout = properties.getTimeout();
+	}
+
+	/**
+	 * Book a visit of a pet and wait until it is written.
+	 * @param ownerId the id of the owner of the pet
+	 * @param petId the id of the pet
+	 * @param visit the validated visit, which receives its id
+	 * @return the written visit
+	 * @throws IllegalArgumentException if the owner has no such pet
+	 * @throws TransientDataAccessResourceException if the queue is full or stopped
+	 * @throws QueryTimeoutException if the visit was not written in time; it may still be
+	 * written later
+	 */
+	public Visit book(int ownerId, int petId, Visit visit) {
+		Booking booking = new Booking(ownerId, petId, visit, new CompletableFuture<>());
+		try {
+			if (!this.running) {
+				throw new TransientDataAccessResourceException("Visit bookings are not accepted while stopped");
+			}
+			if (!this.queue.offer(booking, this.timeout.toNanos(), TimeUnit.NANOSECONDS)) {
+				throw new TransientDataAccessResourceException(
+						"Visit bookings are not written fast enough, " + this.queue.size() + " waiting");
+			}
+			return booking.result().get(this.timeout.toNanos(), TimeUnit.NANOSECONDS);
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new TransientDataAccessResourceException("Interrupted while booking a visit", ex);
+		}
+		catch (TimeoutException ex) {
+			throw new QueryTimeoutException("Visit booking not written within " + this.timeout, ex);
+		}
+		catch (ExecutionException ex) {
+			if (ex.getCause() instanceof RuntimeException cause) {
+				throw cause;
+			}
+			throw new IllegalStateException(ex.getCause());
+		}
+	}
+
+	@Override
+	public void start() {
+		this.running = true;
+		this.writer = new Thread(this::drain, "visit-booking-writer");
+		this.writer.setDaemon(true);
+		this.writer.start();
+	}
+
+	@Override
+	public void stop() {
+		this.running = false;
+		try {
+			// the writer exits once the bookings already queued are written
+			this.writer.join(this.timeout.toMillis());
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	@Override
+	public boolean isRunning() {
+		return this.running;
+	}
+
+	/**
+	 * Stop after the web server, so that the bookings of accepted requests are written.
+	 */
+	@Override
+	public int getPhase() {
+		return SmartLifecycle.DEFAULT_PHASE - 4096;
+	}
+
+	private void drain() {
+		while (this.running || !this.queue.isEmpty()) {
+			try {
+				List<Booking> batch = nextBatch();
+				if (!batch.isEmpty()) {
+					write(batch);
+				}
+			}
+			catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+				return;
+			}
+			catch (RuntimeException ex) {
+				logger.error("Could not write visit bookings", ex);
+			}
+		}
+	}
+
+	/**
+	 * Wait for the next booking and collect those following it within the flush interval,
+	 * up to the batch size.
+	 */
+	private List<Booking> nextBatch() throws InterruptedException {
+		Booking first = this.queue.poll(100, TimeUnit.MILLISECONDS);
+		if (first == null) {
+			return List.of();
+		}
+		List<Booking> batch = new ArrayList<>(this.batchSize);
+		batch.add(first);
+		long deadline = System.nanoTime() + this.flushInterval.toNanos();
+		while (batch.size() < this.batchSize) {
+			this.queue.drainTo(batch, this.batchSize - batch.size());
+			long remaining = deadline - System.nanoTime();
+			if (batch.size() >= this.batchSize || remaining <= 0) {
+				break;
+			}
+			Booking next = this.queue.poll(remaining, TimeUnit.NANOSECONDS);
+			if (next == null) {
+				break;
+			}
+			batch.add(next);
+		}
+		return batch;
+	}
+
+	private void write(List<Booking> batch) {
+		List<Booking> rejected = new ArrayList<>();
+		List<Booking> written;
+		try {
+			written = this.transactionTemplate.execute(status -> insert(batch, rejected));
+		}
+		catch (RuntimeException ex) {
+			if (batch.size() == 1) {
+				batch.get(0).result().completeExceptionally(ex);
+			}
+			else {
+				// the rolled back batch handed out ids and versions that were never
+				// written
+				batch.forEach(booking -> {
+					booking.visit().setId(null);
+					booking.visit().setVersion(null);
+					write(List.of(booking));
+				});
+			}
+			return;
+		}
+		written.forEach(booking -> booking.result().complete(booking.visit()));
+		rejected.forEach(booking -> booking.result()
+			.completeExceptionally(new IllegalArgumentException(
+					"Pet not found with id: " + booking.petId() + " for owner with id: " + booking.ownerId())));
+	}
+
+	/**
+	 * Add the visits of the bookings whose pet belongs to the given owner.
+	 */
+	private List<Booking> insert(List<Booking> batch, List<Booking> rejected) {
+		rejected.clear();
+		List<Booking> written = new ArrayList<>(batch.size());
+		for (Booking booking : batch) {
+			Optional<Pet> pet = this.pets.findById(booking.petId());
+			if (pet.isEmpty() || !Integer.valueOf(booking.ownerId()).equals(pet.get().getOwnerId())) {
+				rejected.add(booking);
+			}
+			else {
+				this.visits.add(booking.petId(), booking.visit());
+				written.add(booking);
+			}
+		}
+		return written;
+	}
+
+	private record Booking(int ownerId, int petId, Visit visit, CompletableFuture<Visit> result) {
+
+	}
+
+}
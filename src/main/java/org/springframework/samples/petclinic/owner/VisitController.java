@@ -43,8 +43,18 @@ class VisitController {
 
 	private final OwnerRepository owners;
 
-	public VisitController(OwnerRepository owners) {
+	private final PetRepository pets;
+
+	private final VisitBookingQueue bookings;
+
+	private final LastNameSuggestions suggestions;
+
+	public VisitController(OwnerRepository owners, PetRepository pets, VisitBookingQueue bookings,
+			LastNameSuggestions suggestions) {
 		this.owners = owners;
+		this.pets = pets;
+		this.bookings = bookings;
+		this.suggestions = suggestions;
 	}
 
 	@InitBinder
@@ -62,11 +72,15 @@ class VisitController {
 	@ModelAttribute("visit")
 	public Visit loadPetWithVisit(@PathVariable("ownerId") int ownerId, @PathVariable("petId") int petId,
 			Map<String, Object> model) {
-		Optional<Owner> optionalOwner = owners.findById(ownerId);
+		// only the owner's name and this pet's visits are shown, the owner's other pets
+		// and their visits are not loaded
+		Optional<Owner> optionalOwner = owners.findWithoutPetsById(ownerId);
 		Owner owner = optionalOwner.orElseThrow(() -> new IllegalArgumentException(
 				"Owner not found with id: " + ownerId + ". Please ensure the ID is correct "));
 
-		Pet pet = owner.getPet(petId);
+		Pet pet = this.pets.findWithVisitsById(ownerId, petId)
+			.orElseThrow(() -> new IllegalArgumentException(
+					"Pet not found with id: " + petId + " for owner with id: " + ownerId));
 		model.put("pet", pet);
 		model.put("owner", owner);
 
@@ -83,7 +97,7 @@ class VisitController {
 	}
 
 	// Spring MVC calls method loadPetWithVisit(...) before processNewVisitForm is
-	// called
+	// called; the visit is written on its own rather than by saving the owner
 	@PostMapping("/owners/{ownerId}/pets/{petId}/visits/new")
 	public String processNewVisitForm(@ModelAttribute Owner owner, @PathVariable int petId, @Valid Visit visit,
 			BindingResult result, RedirectAttributes redirectAttributes) {
@@ -91,8 +105,8 @@ class VisitController {
 			return "pets/createOrUpdateVisitForm";
 		}
 
-		owner.addVisit(petId, visit);
-		this.owners.save(owner);
+		this.bookings.book(owner.getId(), petId, visit);
+		this.suggestions.visitBooked(owner.getId());
 		redirectAttributes.addFlashAttribute("message", "Your visit has been booked");
 		return "redirect:/owners/{ownerId}";
 	}
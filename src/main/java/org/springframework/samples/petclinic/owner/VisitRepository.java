@@ -15,12 +15,17 @@
  */
 package org.springframework.samples.petclinic.owner;
 
+import java.util.Collection;
 import java.util.List;
 
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.Repository;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 /**
  * Repository class for <code>Visit</code> domain objects All method names are compliant
@@ -34,16 +39,83 @@ import org.springframework.data.repository.query.Param;
  * @author Michael Isvy
  * @author Wick Dynex
  */
-public interface VisitRepository extends Repository<Visit, Integer> {
+public interface VisitRepository extends Repository<Visit, Integer>, ChildRowWrites {
 
 	/**
-	 * Retrieve all <code>Visit</code>s for a given <code>Pet</code> with sorting.
+	 * Retrieve all <code>Visit</code>s for a given <code>Pet</code> with sorting. The
+	 * query filters directly on the <code>pet_id</code> column so it can be served by the
+	 * <code>(pet_id, visit_date)</code> index.
 	 * @param petId the ID of the <code>Pet</code>
 	 * @param sort the sorting specification
 	 * @return a <code>List</code> of matching <code>Visit</code>s (or an empty
 	 * <code>List</code> if none found)
 	 */
-	@Query("SELECT v FROM Visit v WHERE v IN (SELECT visit FROM Pet p JOIN p.visits visit WHERE p.id = :petId)")
+	@Query("SELECT v FROM Visit v WHERE v.petId = :petId")
 	List<Visit> findByPetId(@Param("petId") Integer petId, Sort sort);
 
+	/**
+	 * Scroll through the <code>Visit</code>s of a given <code>Pet</code>. Used with a
+	 * keyset {@link ScrollPosition} on visit date and id, every window reads only its own
+	 * rows from the <code>(pet_id, visit_date)</code> index, however long the history.
+	 * @param petId the ID of the <code>Pet</code>
+	 * @param position the position to continue from
+	 * @param limit the maximum number of visits to return
+	 * @param sort the sorting specification, which must be unique
+	 * @return a {@link Window} of matching <code>Visit</code>s
+	 */
+	Window<Visit> findByPetId(Integer petId, ScrollPosition position, Limit limit, Sort sort);
+
+	/**
+	 * Retrieve all <code>Visit</code>s for the given <code>Pet</code>s in a single query.
+	 * @param petIds the IDs of the <code>Pet</code>s
+	 * @param sort the sorting specification
+	 * @return a <code>List</code> of matching <code>Visit</code>s (or an empty
+	 * <code>List</code> if none found)
+	 */
+	@Query("SELECT v FROM Visit v WHERE v.petId IN :petIds")
+	List<Visit> findByPetIdIn(@Param("petIds") Collection<Integer> petIds, Sort sort);
+
+	/**
+	 * Retrieve the most recent <code>Visit</code>s of each of the given <code>Pet</code>s
+	 * in a single query, however many pets there are. The visits of each pet are numbered
+	 * most recent first, in the order of {@link VisitWindowToken#SORT}, and only the
+	 * first <code>limit</code> of them are returned.
+	 * @param petIds the IDs of the <code>Pet</code>s, which must not be empty
+	 * @param limit the maximum number of visits to return per pet
+	 * @return the matching <code>Visit</code>s, grouped by pet and most recent first
+	 */
+	@Query(nativeQuery = true, value = """
+			SELECT id, version, pet_id, visit_date, description FROM (
+			  SELECT v.id, v.version, v.pet_id, v.visit_date, v.description,
+			    ROW_NUMBER() OVER (PARTITION BY v.pet_id ORDER BY v.visit_date DESC, v.id DESC) AS recency
+			  FROM visits v WHERE v.pet_id IN (:petIds)
+			) recent WHERE recency <= :limit ORDER BY pet_id, visit_date DESC, id DESC""")
+	List<Visit> findRecentByPetIdIn(@Param("petIds") Collection<Integer> petIds, @Param("limit") int limit);
+
+	/**
+	 * Save a <code>Visit</code> on its own.
+	 * @param visit the visit to save
+	 * @return the saved visit
+	 */
+	Visit save(Visit visit);
+
+	/**
+	 * Add a new visit to a pet with a single <code>INSERT</code>, without loading the
+	 * pet's other visits. Unlike adding the visit through {@link Pet#getVisits()}, the
+	 * pet's version is left alone: entity tags count the visits of each pet instead, so
+	 * booking a visit writes no pet row and concurrent bookings for the same pet do not
+	 * conflict.
+	 * @param petId the id of the pet
+	 * @param visit the new visit
+	 * @return the saved visit, with its id
+	 * @throws org.springframework.orm.ObjectRetrievalFailureException if there is no such
+	 * pet
+	 */
+	@Transactional
+	default Visit add(Integer petId, Visit visit) {
+		childAddedKeepingVersion(Pet.class, petId, "visits");
+		visit.setPetId(petId);
+		return save(visit);
+	}
+
 }
@@ -0,0 +1,435 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.samples.petclinic.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.samples.petclinic.model.BaseEntity;
+import org.springframework.samples.petclinic.owner.Owner;
+import org.springframework.samples.petclinic.owner.OwnerRepository;
+import org.springframework.samples.petclinic.owner.OwnerRepository.OwnerVisitCount;
+import org.springframework.samples.petclinic.owner.Pet;
+import org.springframework.samples.petclinic.owner.Visit;
+import org.springframework.samples.petclinic.system.CacheInvalidation;
+import org.springframework.samples.petclinic.system.CacheInvalidationBus;
+import org.springframework.samples.petclinic.system.CacheInvalidationListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * In-memory inverted index over owners and their pets.
+ * <p>
+ * Every word of an owner's first name, last name, city and pet names is split into
+ * trigrams anchored at the start of the word, and the telephone digits into plain
+ * trigrams. A query is split the same way; an owner matches a query term when it shares
+ * all but about a third of the term's trigrams, which tolerates a typo in longer words.
+ * Owners must match every term and are ranked by the summed share of matched trigrams,
+ * then by the number of visits of their pets.
+ * <p>
+ * The index is built when the application is ready and kept current through the
+ * {@link CacheInvalidationBus}: the owners affected by committed changes to owners, pets
+ * and visits on any node are reindexed. Reindexing reloads the owners, so it runs on a
+ * thread of its own rather than on the committing one, and searches see a change shortly
+ * after it is committed.
+ */
+@Component
+public class OwnerSearchIndex implements CacheInvalidationListener, DisposableBean {
+
+	private static final Logger logger = LoggerFactory.getLogger(OwnerSearchIndex.class);
+
+	private static final int BATCH_SIZE = 1_000;
+
+	private static final char ANCHOR = '^';
+
+	private static final Comparator<Candidate> RANKING = Comparator.comparingDouble(Candidate::score)
+		.reversed()
+		.thenComparing(candidate -> candidate.document().visits(), Comparator.reverseOrder())
+		.thenComparing(candidate -> candidate.document().lastName(), Comparator.nullsLast(Comparator.naturalOrder()))
+		.thenComparing(candidate -> candidate.document().ownerId());
+
+	private final OwnerRepository owners;
+
+	private final TransactionTemplate transactions;
+
+	private final ExecutorService updates = Executors.newSingleThreadExecutor(runnable -> {
+		Thread thread = new Thread(runnable, "owner-search-index");
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+	private final Map<String, Set<Integer>> postings = new HashMap<>();
+
+	private final Map<Integer, Document> documents = new HashMap<>();
+
+	private final Map<Integer, Integer> petOwners = new HashMap<>();
+
+	private final AtomicLong reindexes = new AtomicLong();
+
+	// the reindexes that have not finished yet, guarded by itself
+	private final NavigableSet<Long> running = new TreeSet<>();
+
+	// the reindex that last replaced the entry of each owner, for as long as an older
+	// reindex is still running, guarded by the lock
+	private final Map<Integer, Long> replacedBy = new HashMap<>();
+
+	public OwnerSearchIndex(OwnerRepository owners, PlatformTransactionManager transactionManager) {
+		this.owners = owners;
+		// updates run after the triggering transaction committed, so they need their own
+		this.transactions = new TransactionTemplate(transactionManager);
+		this.transactions.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+		this.transactions.setReadOnly(true);
+	}
+
+	/**
+	 * Index all owners, in batches of {@value #BATCH_SIZE}.
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	public void build() {
+		int afterId = 0;
+		List<Integer> ids = this.owners.findIdsAfter(afterId, Limit.of(BATCH_SIZE));
+		while (!ids.isEmpty()) {
+			reindex(ids, List.of(), List.of());
+			afterId = ids.get(ids.size() - 1);
+			ids = this.owners.findIdsAfter(afterId, Limit.of(BATCH_SIZE));
+		}
+	}
+
+	@Override
+	public void invalidate(CacheInvalidation invalidation) {
+		if (invalidation.affects(Owner.class, Pet.class, Visit.class)) {
+			this.updates.execute(() -> {
+				try {
+					reindex(invalidation.ids(Owner.class), invalidation.ids(Pet.class), invalidation.ids(Visit.class));
+				}
+				catch (RuntimeException ex) {
+					logger.warn("Could not reindex owners for {}", invalidation, ex);
+				}
+			});
+		}
+	}
+
+	@Override
+	public void destroy() {
+		this.updates.shutdownNow();
+	}
+
+	/**
+	 * Reload the owners affected by changes to the given owners, pets and visits from the
+	 * database and replace their index entries. Owners that no longer exist are removed.
+	 * <p>
+	 * Concurrent reindexes may finish in any order. An entry is only replaced by a
+	 * reindex that started after the one that last replaced it, since only then did its
+	 * load read a state at least as new. Which reindex last replaced an entry is only
+	 * remembered until every reindex that started before it has finished.
+	 * @param ownerIds the ids of changed owners
+	 * @param petIds the ids of changed pets
+	 * @param visitIds the ids of changed visits
+	 */
+	public void reindex(Collection<Integer> ownerIds, Collection<Integer> petIds, Collection<Integer> visitIds) {
+		Set<Integer> affected = new HashSet<>(ownerIds);
+		this.lock.readLock().lock();
+		try {
+			// removed pets can only be traced back through the index
+			petIds.stream().map(this.petOwners::get).filter(id -> id != null).forEach(affected::add);
+		}
+		finally {
+			this.lock.readLock().unlock();
+		}
+		long reindex;
+		synchronized (this.running) {
+			reindex = this.reindexes.incrementAndGet();
+			this.running.add(reindex);
+		}
+		try {
+			List<Document> loaded = this.transactions.execute(status -> {
+				if (!petIds.isEmpty()) {
+					affected.addAll(this.owners.findIdsByPetIdIn(petIds));
+				}
+				if (!visitIds.isEmpty()) {
+					affected.addAll(this.owners.findIdsByVisitIdIn(visitIds));
+				}
+				return load(affected);
+			});
+
+			this.lock.writeLock().lock();
+			try {
+				Set<Integer> replaced = new HashSet<>();
+				for (Integer ownerId : affected) {
+					if (this.replacedBy.getOrDefault(ownerId, 0L) < reindex) {
+						this.replacedBy.put(ownerId, reindex);
+						remove(ownerId);
+						replaced.add(ownerId);
+					}
+				}
+				loaded.stream().filter(document -> replaced.contains(document.ownerId())).forEach(this::add);
+			}
+			finally {
+				this.lock.writeLock().unlock();
+			}
+		}
+		finally {
+			finish(reindex);
+		}
+	}
+
+	/**
+	 * Forget the replacements that no running reindex can be older than any more.
+	 */
+	private void finish(long reindex) {
+		this.lock.writeLock().lock();
+		try {
+			long oldest;
+			synchronized (this.running) {
+				this.running.remove(reindex);
+				oldest = this.running.isEmpty() ? Long.MAX_VALUE : this.running.first();
+			}
+			this.replacedBy.values().removeIf(replaced -> replaced < oldest);
+		}
+		finally {
+			this.lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Find the owners best matching the given query.
+	 * @param query free text, e.g. parts of names, a city, a pet name or phone digits
+	 * @param limit the maximum number of hits to return
+	 * @return the matching owners, best match first
+	 */
+	public List<SearchHit> search(String query, int limit) {
+		List<String> terms = words(query).toList();
+		if (terms.isEmpty()) {
+			return List.of();
+		}
+		this.lock.readLock().lock();
+		try {
+			Map<Integer, Double> scores = null;
+			for (String term : terms) {
+				List<String> grams = queryGrams(term);
+				if (grams.isEmpty()) {
+					continue;
+				}
+				scores = match(grams, scores);
+				if (scores.isEmpty()) {
+					return List.of();
+				}
+			}
+			if (scores == null) {
+				return List.of();
+			}
+			return scores.entrySet()
+				.stream()
+				.map(score -> new Candidate(this.documents.get(score.getKey()), score.getValue()))
+				.sorted(RANKING)
+				.limit(limit)
+				.map(Candidate::toHit)
+				.toList();
+		}
+		finally {
+			this.lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Return the number of indexed owners.
+	 * @return the index size
+	 */
+	public int size() {
+		this.lock.readLock().lock();
+		try {
+			return this.documents.size();
+		}
+		finally {
+			this.lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Return the number of owners whose last replacing reindex is remembered.
+	 * @return the number of remembered replacements
+	 */
+	int replacements() {
+		this.lock.readLock().lock();
+		try {
+			return this.replacedBy.size();
+		}
+		finally {
+			this.lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Score the owners sharing enough of the term's grams, restricted to the owners that
+	 * matched the previous terms, if any.
+	 */
+	private Map<Integer, Double> match(List<String> grams, Map<Integer, Double> previous) {
+		Map<Integer, Integer> shared = new HashMap<>();
+		for (String gram : grams) {
+			for (Integer ownerId : this.postings.getOrDefault(gram, Set.of())) {
+				if (previous == null || previous.containsKey(ownerId)) {
+					shared.merge(ownerId, 1, Integer::sum);
+				}
+			}
+		}
+		int required = grams.size() - grams.size() / 3;
+		Map<Integer, Double> scores = new HashMap<>();
+		shared.forEach((ownerId, count) -> {
+			if (count >= required) {
+				double base = previous == null ? 0 : previous.get(ownerId);
+				scores.put(ownerId, base + (double) count / grams.size());
+			}
+		});
+		return scores;
+	}
+
+	private List<Document> load(Collection<Integer> ownerIds) {
+		if (ownerIds.isEmpty()) {
+			return List.of();
+		}
+		Map<Integer, Long> visits = this.owners.countVisitsByIdIn(ownerIds)
+			.stream()
+			.collect(Collectors.toMap(OwnerVisitCount::getOwnerId, OwnerVisitCount::getVisits));
+		return this.owners.findByIdIn(ownerIds)
+			.stream()
+			.map(owner -> Document.of(owner, visits.getOrDefault(owner.getId(), 0L)))
+			.toList();
+	}
+
+	private void add(Document document) {
+		this.documents.put(document.ownerId(), document);
+		document.grams()
+			.forEach(gram -> this.postings.computeIfAbsent(gram, key -> new HashSet<>()).add(document.ownerId()));
+		document.petIds().forEach(petId -> this.petOwners.put(petId, document.ownerId()));
+	}
+
+	private void remove(Integer ownerId) {
+		Document document = this.documents.remove(ownerId);
+		if (document == null) {
+			return;
+		}
+		for (String gram : document.grams()) {
+			Set<Integer> ids = this.postings.get(gram);
+			if (ids != null && ids.remove(ownerId) && ids.isEmpty()) {
+				this.postings.remove(gram);
+			}
+		}
+		document.petIds().forEach(this.petOwners::remove);
+	}
+
+	static Stream<String> words(String text) {
+		if (text == null) {
+			return Stream.empty();
+		}
+		return Arrays.stream(text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")).filter(word -> !word.isEmpty());
+	}
+
+	static List<String> queryGrams(String term) {
+		Set<String> grams = new LinkedHashSet<>();
+		if (term.chars().allMatch(Character::isDigit)) {
+			addTrigrams(term, grams);
+		}
+		else {
+			addWordGrams(term, grams);
+		}
+		return new ArrayList<>(grams);
+	}
+
+	private static void addWordGrams(String word, Set<String> grams) {
+		String anchored = ANCHOR + word;
+		// the anchor and first letter so that single letter prefixes can be found
+		if (word.length() == 1) {
+			grams.add(anchored);
+		}
+		addTrigrams(anchored, grams);
+	}
+
+	private static void addTrigrams(String text, Set<String> grams) {
+		for (int i = 0; i + 3 <= text.length(); i++) {
+			grams.add(text.substring(i, i + 3));
+		}
+	}
+
+	/**
+	 * The indexed state of one owner. Its grams are derived again when needed rather than
+	 * kept, as they would take up most of the memory of the index.
+	 */
+	record Document(Integer ownerId, String firstName, String lastName, String city, String telephone,
+			List<String> pets, List<Integer> petIds, long visits) {
+
+		static Document of(Owner owner, long visits) {
+			return new Document(owner.getId(), owner.getFirstName(), owner.getLastName(), owner.getCity(),
+					owner.getTelephone(), owner.getPets().stream().map(Pet::getName).toList(),
+					owner.getPets().stream().map(BaseEntity::getId).toList(), visits);
+		}
+
+		Set<String> grams() {
+			Set<String> grams = new HashSet<>();
+			Stream.of(Stream.of(this.firstName, this.lastName, this.city), this.pets.stream())
+				.flatMap(Function.identity())
+				.flatMap(OwnerSearchIndex::words)
+				.forEach(word -> {
+					grams.add(ANCHOR + word.substring(0, 1));
+					addWordGrams(word, grams);
+				});
+			if (this.telephone != null) {
+				addTrigrams(this.telephone.replaceAll("\\D", ""), grams);
+			}
+			return grams;
+		}
+
+	}
+
+	private record Candidate(Document document, double score) {
+
+		SearchHit toHit() {
+			return new SearchHit(this.document.ownerId(), this.document.firstName(), this.document.lastName(),
+					this.document.city(), this.document.telephone(), this.document.pets(), this.score);
+		}
+
+	}
+
+}
@@ -0,0 +1,40 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.samples.petclinic.search;
+
+import java.util.List;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * A ranked owner returned by the {@link OwnerSearchIndex}.
+ *
+ * @param ownerId the owner id
+ * @param firstName the owner's first name
+ * @param lastName the owner's last name
+ * @param city the owner's city
+ * @param telephone the owner's telephone number
+ * @param pets the names of the owner's pets
+ * @param score the relevance of the owner for the query; higher is better
+ */
+@Schema(description = "Owner matching a search query")
+public record SearchHit(@Schema(example = "1") Integer ownerId, @Schema(example = "George") String firstName,
+		@Schema(example = "Franklin") String lastName, @Schema(example = "Madison") String city,
+		@Schema(example = "6085551023") String telephone, @Schema(example = "[\"Leo\"]") List<String> pets,
+		@Schema(example = "1.0") double score) {
+
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.samples.petclinic.search;
+
+import java.util.List;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+
+/**
+ * REST controller for free-text search over owners and their pets, served from the
+ * {@link OwnerSearchIndex} without querying the database.
+ */
+@RestController
+@RequestMapping("/api/search")
+@Validated
+@Tag(name = "Search", description = "Free-text owner and pet search")
+public class SearchRestController {
+
+	private final OwnerSearchIndex index;
+
+	public SearchRestController(OwnerSearchIndex index) {
+		this.index = index;
+	}
+
+	@Operation(summary = "Search owners and pets",
+			description = "Finds owners by parts of their first or last name, city, telephone digits or the names of their pets. "
+					+ "Small typos in longer words are tolerated. Results are ranked by relevance, then by the number of visits.")
+	@ApiResponses(value = { @ApiResponse(responseCode = "200", description = "Search completed successfully",
+			content = @Content(mediaType = "application/json",
+					array = @ArraySchema(schema = @Schema(implementation = SearchHit.class)))) })
+	@GetMapping
+	public ResponseEntity<List<SearchHit>> search(
+			@Parameter(description = "Search text", example = "frank madison") @RequestParam("q") String query,
+
+			@Parameter(description = "Maximum number of results", example = "10") @RequestParam(value = "limit",
+					defaultValue = "10") @Min(1) @Max(100) Integer limit) {
+
+		return ResponseEntity.ok(this.index.search(query, limit));
+	}
+
+}
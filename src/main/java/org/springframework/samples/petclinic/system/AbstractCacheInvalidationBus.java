@@ -0,0 +1,54 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.samples.petclinic.system;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+
+/**
+ * Base class for {@link CacheInvalidationBus} implementations that delivers changes to
+ * the {@link CacheInvalidationListener} beans of this node.
+ */
+abstract class AbstractCacheInvalidationBus implements CacheInvalidationBus {
+
+	private static final Logger logger = LoggerFactory.getLogger(AbstractCacheInvalidationBus.class);
+
+	private final ObjectProvider<CacheInvalidationListener> listeners;
+
+	protected AbstractCacheInvalidationBus(ObjectProvider<CacheInvalidationListener> listeners) {
+		this.listeners = listeners;
+	}
+
+	/**
+	 * Deliver the given changes to every listener. A failing listener does not keep the
+	 * others from evicting.
+	 * @param invalidation the changes to deliver
+	 */
+	protected void deliver(CacheInvalidation invalidation) {
+		this.listeners.orderedStream().forEach(listener -> {
+			try {
+				listener.invalidate(invalidation);
+			}
+			catch (RuntimeException ex) {
+				// the data is committed; stale local state must not fail the writer
+				logger.warn("Could not invalidate {} for {}", listener, invalidation, ex);
+			}
+		});
+	}
+
+}
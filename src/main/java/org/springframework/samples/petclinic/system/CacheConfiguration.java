@@ -16,38 +16,58 @@
 
 package org.springframework.samples.petclinic.system;
 
-import org.springframework.boot.autoconfigure.cache.JCacheManagerCustomizer;
+import java.util.List;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
-import javax.cache.configuration.MutableConfiguration;
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.github.benmanes.caffeine.cache.Caffeine;
 
 /**
- * Cache configuration intended for caches providing the JCache API. This configuration
- * creates the used cache for the application and enables statistics that become
- * accessible via JMX.
+ * Cache configuration creating the caches of the application from their
+ * {@link CachePolicyProperties policies}. Each cache is bounded and expires as
+ * configured, refreshes ahead of expiry through its {@link CacheEntryLoader} when
+ * <code>refresh-after-write</code> is set, and records the hit, miss, eviction and load
+ * statistics that are published under <code>/actuator/metrics/cache.*</code>.
  */
 @Configuration(proxyBeanMethods = false)
 @EnableCaching
+@EnableConfigurationProperties(CachePolicyProperties.class)
 class CacheConfiguration {
 
 	@Bean
-	public JCacheManagerCustomizer petclinicCacheConfigurationCustomizer() {
-		return cm -> cm.createCache("vets", cacheConfiguration());
+	public CaffeineCacheManager cacheManager(CachePolicyProperties properties,
+			ObjectProvider<CacheEntryLoader> loaders) {
+		CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+		// only caches with a policy exist, so that no cache grows unbounded by accident
+		cacheManager.setCacheNames(List.of());
+		properties.getCache().forEach((name, policy) -> {
+			Caffeine<Object, Object> builder = policy.toBuilder();
+			if (policy.getRefreshAfterWrite() != null) {
+				cacheManager.registerCustomCache(name, builder.build(loader(name, loaders)));
+			}
+			else {
+				cacheManager.registerCustomCache(name, builder.build());
+			}
+		});
+		return cacheManager;
 	}
 
 	/**
-	 * Create a simple configuration that enable statistics via the JCache programmatic
-	 * configuration API.
-	 * <p>
-	 * Within the configuration object that is provided by the JCache API standard, there
-	 * is only a very limited set of configuration options. The really relevant
-	 * configuration options (like the size limit) must be set via a configuration
-	 * mechanism that is provided by the selected JCache implementation.
+	 * Return a loader delegating to the {@link CacheEntryLoader} of the given cache. The
+	 * loaders are looked up on first use as they depend on the cache manager themselves.
 	 */
-	private javax.cache.configuration.Configuration<Object, Object> cacheConfiguration() {
-		return new MutableConfiguration<>().setStatisticsEnabled(true);
+	private CacheLoader<Object, Object> loader(String name, ObjectProvider<CacheEntryLoader> loaders) {
+		return key -> loaders.stream()
+			.filter(loader -> loader.getCacheName().equals(name))
+			.findFirst()
+			.orElseThrow(() -> new IllegalStateException("No CacheEntryLoader for cache '" + name + "'"))
+			.load(key);
 	}
 
 }
@@ -0,0 +1,40 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.samples.petclinic.system;
+
+/**
+ * Computes the entries of one application cache by key, so that the cache can refresh
+ * them ahead of expiry when a <code>refresh-after-write</code> policy is configured.
+ *
+ * @see CachePolicyProperties
+ */
+public interface CacheEntryLoader {
+
+	/**
+	 * Return the name of the cache whose entries this loader computes.
+	 * @return the cache name
+	 */
+	String getCacheName();
+
+	/**
+	 * Compute the current value for the given key.
+	 * @param key the cache key
+	 * @return the value, or <code>null</code> if the key is unknown
+	 */
+	Object load(Object key);
+
+}
@@ -0,0 +1,53 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.samples.petclinic.system;
+
+import java.util.Arrays;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Entity changes delivered by the {@link CacheInvalidationBus}, either published by this
+ * node or received from a peer.
+ *
+ * @param changes the changed entities
+ * @param remote whether the changes were made on another node
+ */
+public record CacheInvalidation(Set<EntityChange> changes, boolean remote) {
+
+	/**
+	 * Return the ids of the changed entities of the given type.
+	 * @param type the entity class
+	 * @return the ids, possibly empty
+	 */
+	public Set<Integer> ids(Class<?> type) {
+		return this.changes.stream()
+			.filter(change -> change.isOf(type))
+			.map(EntityChange::id)
+			.collect(Collectors.toSet());
+	}
+
+	/**
+	 * Return whether any entity of the given types changed.
+	 * @param types the entity classes
+	 * @return <code>true</code> if at least one change concerns one of the types
+	 */
+	public boolean affects(Class<?>... types) {
+		return this.changes.stream().anyMatch(change -> Arrays.stream(types).anyMatch(change::isOf));
+	}
+
+}
@@ -0,0 +1,37 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.samples.petclinic.system;
+
+import java.util.Collection;
+
+/**
+ * Broadcasts committed entity changes to every node of the application, including this
+ * one, where they are delivered to the {@link CacheInvalidationListener}s. This keeps the
+ * per-JVM caches of several replicas coherent.
+ *
+ * @see LoopbackCacheInvalidationBus
+ * @see JdbcCacheInvalidationBus
+ */
+public interface CacheInvalidationBus {
+
+	/**
+	 * Broadcast the given committed changes.
+	 * @param changes the changed entities
+	 */
+	void publish(Collection<EntityChange> changes);
+
+}
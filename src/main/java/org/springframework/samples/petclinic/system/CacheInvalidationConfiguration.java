@@ -0,0 +1,57 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.samples.petclinic.system;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.transaction.PlatformTransactionManager;
+
+/**
+ * Creates the {@link CacheInvalidationBus} selected by the
+ * <code>petclinic.cache-invalidation.bus</code> property.
+ */
+@Configuration(proxyBeanMethods = false)
+@EnableConfigurationProperties(CacheInvalidationProperties.class)
+class CacheInvalidationConfiguration {
+
+	@Bean
+	@ConditionalOnProperty(name = "petclinic.cache-invalidation.bus", havingValue = "loopback", matchIfMissing = true)
+	public LoopbackCacheInvalidationBus loopbackCacheInvalidationBus(
+			ObjectProvider<CacheInvalidationListener> listeners) {
+		return new LoopbackCacheInvalidationBus(listeners);
+	}
+
+	@Configuration(proxyBeanMethods = false)
+	@ConditionalOnProperty(name = "petclinic.cache-invalidation.bus", havingValue = "jdbc")
+	@EnableScheduling
+	static class JdbcBusConfiguration {
+
+		@Bean
+		public JdbcCacheInvalidationBus jdbcCacheInvalidationBus(ObjectProvider<CacheInvalidationListener> listeners,
+				JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+				CacheInvalidationProperties properties) {
+			return new JdbcCacheInvalidationBus(listeners, jdbcTemplate, transactionManager, properties);
+		}
+
+	}
+
+}
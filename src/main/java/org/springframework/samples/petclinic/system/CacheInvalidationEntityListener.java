@@ -0,0 +1,103 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.samples.petclinic.system;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import org.hibernate.Hibernate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.samples.petclinic.model.BaseEntity;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+
+/**
+ * JPA entity listener that publishes written entities to the
+ * {@link CacheInvalidationBus}. Changes are collected per transaction and published once
+ * it has committed, so that rolled back changes never evict anything and no cache is
+ * rebuilt from data that is not visible yet. Writes outside a transaction are published
+ * right away.
+ * <p>
+ * Hibernate obtains the listener from the Spring container. The bus is looked up lazily
+ * because the listener is created together with the entity manager factory that the bus
+ * listeners depend on.
+ */
+public class CacheInvalidationEntityListener {
+
+	private final ObjectProvider<CacheInvalidationBus> bus;
+
+	public CacheInvalidationEntityListener(ObjectProvider<CacheInvalidationBus> bus) {
+		this.bus = bus;
+	}
+
+	@PostPersist
+	@PostUpdate
+	@PostRemove
+	public void changed(BaseEntity entity) {
+		CacheInvalidationBus invalidationBus = this.bus.getIfAvailable();
+		if (invalidationBus == null) {
+			return;
+		}
+		EntityChange change = new EntityChange(Hibernate.getClass(entity).getName(), entity.getId());
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			pendingChanges(invalidationBus).changes.add(change);
+		}
+		else {
+			invalidationBus.publish(Set.of(change));
+		}
+	}
+
+	private static PendingChanges pendingChanges(CacheInvalidationBus bus) {
+		PendingChanges changes = (PendingChanges) TransactionSynchronizationManager.getResource(PendingChanges.class);
+		if (changes == null) {
+			changes = new PendingChanges(bus);
+			TransactionSynchronizationManager.bindResource(PendingChanges.class, changes);
+			TransactionSynchronizationManager.registerSynchronization(changes);
+		}
+		return changes;
+	}
+
+	/**
+	 * The entities changed within one transaction.
+	 */
+	private static final class PendingChanges implements TransactionSynchronization {
+
+		private final CacheInvalidationBus bus;
+
+		private final Set<EntityChange> changes = new LinkedHashSet<>();
+
+		private PendingChanges(CacheInvalidationBus bus) {
+			this.bus = bus;
+		}
+
+		@Override
+		public void afterCommit() {
+			this.bus.publish(this.changes);
+		}
+
+		@Override
+		public void afterCompletion(int status) {
+			TransactionSynchronizationManager.unbindResourceIfPossible(PendingChanges.class);
+		}
+
+	}
+
+}
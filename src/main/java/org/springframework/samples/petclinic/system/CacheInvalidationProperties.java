@@ -0,0 +1,101 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.samples.petclinic.system;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuration of the {@link CacheInvalidationBus}, bound from
+ * <code>petclinic.cache-invalidation.*</code> properties.
+ */
+@ConfigurationProperties("petclinic.cache-invalidation")
+public class CacheInvalidationProperties {
+
+	/**
+	 * Bus broadcasting entity changes to the replicas of the application.
+	 */
+	private Bus bus = Bus.LOOPBACK;
+
+	/**
+	 * Time between two polls of the changes made by peers.
+	 */
+	private Duration pollInterval = Duration.ofSeconds(1);
+
+	/**
+	 * Time for which every poll looks back for changes of peers that were committed after
+	 * younger ones had already been polled.
+	 */
+	private Duration lookback = Duration.ofSeconds(30);
+
+	/**
+	 * Time after which broadcast changes are deleted.
+	 */
+	private Duration retention = Duration.ofHours(1);
+
+	public Bus getBus() {
+		return this.bus;
+	}
+
+	public void setBus(Bus bus) {
+		this.bus = bus;
+	}
+
+	public Duration getPollInterval() {
+		return this.pollInterval;
+	}
+
+	public void setPollInterval(Duration pollInterval) {
+		this.pollInterval = pollInterval;
+	}
+
+	public Duration getLookback() {
+		return this.lookback;
+	}
+
+	public void setLookback(Duration lookback) {
+		this.lookback = lookback;
+	}
+
+	public Duration getRetention() {
+		return this.retention;
+	}
+
+	public void setRetention(Duration retention) {
+		this.retention = retention;
+	}
+
+	/**
+	 * The available bus implementations.
+	 */
+	public enum Bus {
+
+		/**
+		 * Deliver changes to this node only, see {@link LoopbackCacheInvalidationBus}.
+		 */
+		LOOPBACK,
+
+		/**
+		 * Broadcast changes through a database table, see
+		 * {@link JdbcCacheInvalidationBus}.
+		 */
+		JDBC
+
+	}
+
+}
@@ -0,0 +1,129 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.samples.petclinic.system;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * Policies of the application caches, bound from
+ * <code>petclinic.cache.&lt;name&gt;.*</code> properties, for example:
+ *
+ * <pre class="code">
+ * petclinic.cache.vets.maximum-size=1
+ * petclinic.cache.vets.expire-after-write=1h
+ * petclinic.cache.vets.refresh-after-write=10m
+ * </pre>
+ *
+ * Only caches with a policy exist; every cache records the statistics that are published
+ * as metrics.
+ */
+@ConfigurationProperties("petclinic")
+public class CachePolicyProperties {
+
+	/**
+	 * Cache policies by cache name.
+	 */
+	private final Map<String, Policy> cache = new LinkedHashMap<>();
+
+	public Map<String, Policy> getCache() {
+		return this.cache;
+	}
+
+	/**
+	 * Size bound, expiry and refresh of one cache. Unset values are not applied.
+	 */
+	public static class Policy {
+
+		/**
+		 * Maximum number of entries.
+		 */
+		private Long maximumSize;
+
+		/**
+		 * Time after which an entry expires once written.
+		 */
+		private Duration expireAfterWrite;
+
+		/**
+		 * Time after which an entry expires once last read or written.
+		 */
+		private Duration expireAfterAccess;
+
+		/**
+		 * Time after which an entry is reloaded in the background on its next read. Needs
+		 * a {@link CacheEntryLoader} for the cache.
+		 */
+		private Duration refreshAfterWrite;
+
+		public Long getMaximumSize() {
+			return this.maximumSize;
+		}
+
+		public void setMaximumSize(Long maximumSize) {
+			this.maximumSize = maximumSize;
+		}
+
+		public Duration getExpireAfterWrite() {
+			return this.expireAfterWrite;
+		}
+
+		public void setExpireAfterWrite(Duration expireAfterWrite) {
+			this.expireAfterWrite = expireAfterWrite;
+		}
+
+		public Duration getExpireAfterAccess() {
+			return this.expireAfterAccess;
+		}
+
+		public void setExpireAfterAccess(Duration expireAfterAccess) {
+			this.expireAfterAccess = expireAfterAccess;
+		}
+
+		public Duration getRefreshAfterWrite() {
+			return this.refreshAfterWrite;
+		}
+
+		public void setRefreshAfterWrite(Duration refreshAfterWrite) {
+			this.refreshAfterWrite = refreshAfterWrite;
+		}
+
+		Caffeine<Object, Object> toBuilder() {
+			Caffeine<Object, Object> builder = Caffeine.newBuilder().recordStats();
+			if (this.maximumSize != null) {
+				builder.maximumSize(this.maximumSize);
+			}
+			if (this.expireAfterWrite != null) {
+				builder.expireAfterWrite(this.expireAfterWrite);
+			}
+			if (this.expireAfterAccess != null) {
+				builder.expireAfterAccess(this.expireAfterAccess);
+			}
+			if (this.refreshAfterWrite != null) {
+				builder.refreshAfterWrite(this.refreshAfterWrite);
+			}
+			return builder;
+		}
+
+	}
+
+}
@@ -0,0 +1,161 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.samples.petclinic.system;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.ConnectionProxy;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+/**
+ * {@link DataSource} that hands out at most a fixed number of connections at the same
+ * time. Callers beyond the limit queue on a fair {@link Semaphore} until a connection is
+ * closed, and fail with a {@link SQLTransientConnectionException} once the acquire
+ * timeout has passed.
+ * <p>
+ * Meant to sit in front of the connection pool when requests run on virtual threads:
+ * there may be far more of them than connections, and parking on the semaphore is cheap
+ * for a virtual thread, whereas waiting inside the pool is not ordered and competes with
+ * the pool's own housekeeping.
+ */
+public class ConnectionLimitingDataSource extends DelegatingDataSource {
+
+	private final Semaphore permits;
+
+	private final Duration acquireTimeout;
+
+	public ConnectionLimitingDataSource(DataSource targetDataSource, int maxConcurrent, Duration acquireTimeout) {
+		super(targetDataSource);
+		this.permits = new Semaphore(maxConcurrent, true);
+		this.acquireTimeout = acquireTimeout;
+	}
+
+	@Override
+	public Connection getConnection() throws SQLException {
+		acquire();
+		try {
+			return limited(super.getConnection());
+		}
+		catch (SQLException | RuntimeException ex) {
+			this.permits.release();
+			throw ex;
+		}
+	}
+
+	@Override
+	public Connection getConnection(String username, String password) throws SQLException {
+		acquire();
+		try {
+			return limited(super.getConnection(username, password));
+		}
+		catch (SQLException | RuntimeException ex) {
+			this.permits.release();
+			throw ex;
+		}
+	}
+
+	/**
+	 * Return the number of connections that can be handed out right away.
+	 */
+	public int getAvailableConnections() {
+		return this.permits.availablePermits();
+	}
+
+	/**
+	 * Return an estimate of the number of callers waiting for a connection.
+	 */
+	public int getWaitingCallers() {
+		return this.permits.getQueueLength();
+	}
+
+	private void acquire() throws SQLException {
+		try {
+			if (!this.permits.tryAcquire(this.acquireTimeout.toNanos(), TimeUnit.NANOSECONDS)) {
+				throw new SQLTransientConnectionException("No connection available within " + this.acquireTimeout
+						+ ", about " + getWaitingCallers() + " callers waiting");
+			}
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new SQLTransientConnectionException("Interrupted while waiting for a connection", ex);
+		}
+	}
+
+	private Connection limited(Connection target) {
+		return (Connection) Proxy.newProxyInstance(ConnectionProxy.class.getClassLoader(),
+				new Class<?>[] { ConnectionProxy.class }, new PermitReleasingInvocationHandler(target));
+	}
+
+	/**
+	 * Returns the permit of a connection when the connection is closed, once.
+	 */
+	private final class PermitReleasingInvocationHandler implements InvocationHandler {
+
+		private final Connection target;
+
+		private final AtomicBoolean released = new AtomicBoolean();
+
+		private PermitReleasingInvocationHandler(Connection target) {
+			this.target = target;
+		}
+
+		@Override
+		public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+			switch (method.getName()) {
+				case "getTargetConnection":
+					return this.target;
+				case "equals":
+					return proxy == args[0];
+				case "hashCode":
+					return System.identityHashCode(proxy);
+				case "toString":
+					return "Limited connection [" + this.target + "]";
+				case "close":
+					try {
+						this.target.close();
+					}
+					finally {
+						if (this.released.compareAndSet(false, true)) {
+							ConnectionLimitingDataSource.this.permits.release();
+						}
+					}
+					return null;
+				default:
+					try {
+						return method.invoke(this.target, args);
+					}
+					catch (InvocationTargetException ex) {
+						throw ex.getTargetException();
+					}
+			}
+		}
+
+	}
+
+}
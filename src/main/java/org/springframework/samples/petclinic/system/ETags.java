@@ -0,0 +1,104 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.samples.petclinic.system;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.springframework.http.ETag;
+import org.springframework.util.DigestUtils;
+import org.springframework.util.StringUtils;
+
+/**
+ * Strong entity tags for representations built from versioned entities. A tag is derived
+ * from the ids and versions a representation depends on rather than from its bytes, so a
+ * conditional request can be answered with <code>304 Not Modified</code> before anything
+ * is loaded or serialized.
+ */
+public final class ETags {
+
+	private ETags() {
+	}
+
+	/**
+	 * Return a strong entity tag for the given parts, e.g. the ids and versions of the
+	 * entities a representation is built from. Equal parts always give equal tags, on any
+	 * node.
+	 * @param parts the values the representation depends on, in a stable order
+	 * @return the quoted entity tag
+	 */
+	public static String of(List<?> parts) {
+		String key = parts.stream().map(String::valueOf).collect(Collectors.joining(","));
+		return "\"" + DigestUtils.md5DigestAsHex(key.getBytes(StandardCharsets.UTF_8)) + "\"";
+	}
+
+	/**
+	 * Return a strong entity tag that also carries the version of the entity a
+	 * representation is primarily about, so that the version can be read back from an
+	 * <code>If-Match</code> header with {@link #version(String)}.
+	 * @param version the version of the entity
+	 * @param parts the further values the representation depends on, in a stable order
+	 * @return the quoted entity tag
+	 */
+	public static String of(Integer version, List<?> parts) {
+		return "\"" + version + "-" + of(parts).replace("\"", "") + "\"";
+	}
+
+	/**
+	 * Return the entity version an <code>If-Match</code> header requires. Only strong
+	 * tags created by {@link #of(Integer, List)} carry a version.
+	 * @param ifMatch the header value, may be {@code null}
+	 * @return {@code null} if any version will do because the header is absent or
+	 * <code>*</code>, otherwise the required version, or {@code -1} if the header names
+	 * no version and therefore cannot match
+	 */
+	public static Integer version(String ifMatch) {
+		if (!StringUtils.hasText(ifMatch)) {
+			return null;
+		}
+		List<ETag> tags = ETag.parse(ifMatch);
+		if (tags.stream().anyMatch(ETag::isWildcard)) {
+			return null;
+		}
+		return tags.stream()
+			.filter(tag -> !tag.weak() && tag.tag().indexOf('-') > 0)
+			.map(tag -> tag.tag().substring(0, tag.tag().indexOf('-')))
+			.filter(version -> version.length() < 10 && version.chars().allMatch(Character::isDigit))
+			.map(Integer::valueOf)
+			.findFirst()
+			.orElse(-1);
+	}
+
+	/**
+	 * Whether an <code>If-None-Match</code> header matches the given entity tag, using
+	 * the weak comparison that RFC 9110 prescribes for this header.
+	 * @param ifNoneMatch the header value, may be {@code null}
+	 * @param eTag the current entity tag
+	 * @return {@code true} if the client's copy is current
+	 */
+	public static boolean matches(String ifNoneMatch, String eTag) {
+		if (!StringUtils.hasText(ifNoneMatch)) {
+			return false;
+		}
+		ETag current = ETag.create(eTag);
+		return ETag.parse(ifNoneMatch)
+			.stream()
+			.anyMatch(candidate -> candidate.isWildcard() || candidate.compare(current, false));
+	}
+
+}
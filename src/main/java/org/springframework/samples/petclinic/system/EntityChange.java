@@ -0,0 +1,36 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.samples.petclinic.system;
+
+/**
+ * A committed write of one entity, identified by its class name and id.
+ *
+ * @param entity the fully qualified name of the entity class
+ * @param id the id of the entity
+ */
+public record EntityChange(String entity, Integer id) {
+
+	/**
+	 * Return whether this change concerns an entity of the given type.
+	 * @param type the entity class
+	 * @return <code>true</code> if the changed entity is of the given type
+	 */
+	public boolean isOf(Class<?> type) {
+		return type.getName().equals(this.entity);
+	}
+
+}
@@ -0,0 +1,144 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.samples.petclinic.system;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.hibernate.Cache;
+import org.hibernate.StatelessSession;
+import org.hibernate.cache.spi.CacheImplementor;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.metamodel.MappingMetamodel;
+import org.hibernate.persister.collection.AbstractCollectionPersister;
+import org.hibernate.persister.collection.CollectionPersister;
+import org.hibernate.persister.entity.AbstractEntityPersister;
+import org.hibernate.persister.entity.EntityPersister;
+import org.hibernate.type.EntityType;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Evicts the Hibernate second-level cache entries made stale by the changes of peers: the
+ * changed entities, the collections they own or belong to, and the cached query results
+ * over their tables. Local changes are kept current by Hibernate itself.
+ * <p>
+ * A collection an element belongs to is found through the element's foreign key, read
+ * from the database, so only the collections of the elements' current parents are
+ * evicted. Elements are not moved between parents here. If the key is not a property of
+ * the element, as for many-to-many collections, or an element was deleted, the whole
+ * collection region is evicted.
+ * <p>
+ * Runs before the other listeners, so that they do not reload stale cached entities.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+class HibernateCacheInvalidationListener implements CacheInvalidationListener {
+
+	private final ObjectProvider<EntityManagerFactory> entityManagerFactory;
+
+	HibernateCacheInvalidationListener(ObjectProvider<EntityManagerFactory> entityManagerFactory) {
+		this.entityManagerFactory = entityManagerFactory;
+	}
+
+	@Override
+	public void invalidate(CacheInvalidation invalidation) {
+		EntityManagerFactory factory = this.entityManagerFactory.getIfAvailable();
+		if (!invalidation.remote() || factory == null) {
+			return;
+		}
+		SessionFactoryImplementor sessionFactory = factory.unwrap(SessionFactoryImplementor.class);
+		CacheImplementor cache = sessionFactory.getCache();
+		MappingMetamodel metamodel = sessionFactory.getMappingMetamodel();
+		Map<String, Set<Integer>> changes = invalidation.changes()
+			.stream()
+			.collect(Collectors.groupingBy(EntityChange::entity,
+					Collectors.mapping(EntityChange::id, Collectors.toSet())));
+		try (StatelessSession session = sessionFactory.openStatelessSession()) {
+			changes.forEach((entity, ids) -> {
+				EntityPersister persister = metamodel.findEntityDescriptor(entity);
+				if (persister == null) {
+					return;
+				}
+				ids.forEach(id -> cache.evictEntityData(entity, id));
+				metamodel.forEachCollectionDescriptor(collection -> {
+					if (collection.getOwnerEntityPersister().getEntityName().equals(entity)) {
+						ids.forEach(id -> cache.evictCollectionData(collection.getRole(), id));
+					}
+					else if (collection.getElementType() instanceof EntityType element
+							&& element.getAssociatedEntityName().equals(entity)) {
+						evictCollectionsOf(session, collection, persister, ids);
+					}
+				});
+				cache.getTimestampsCache()
+					.invalidate(persister.getSynchronizedQuerySpaces(), (SharedSessionContractImplementor) session);
+			});
+		}
+	}
+
+	/**
+	 * Evict the collections of the given role that the given elements belong to.
+	 */
+	private static void evictCollectionsOf(StatelessSession session, CollectionPersister collection,
+			EntityPersister element, Set<Integer> ids) {
+		Cache cache = session.getFactory().getCache();
+		String key = keyProperty(collection, element);
+		if (key == null) {
+			cache.evictCollectionData(collection.getRole());
+			return;
+		}
+		List<Object[]> rows = session
+			.createSelectionQuery(
+					"SELECT e.id, e." + key + " FROM " + element.getEntityName() + " e WHERE e.id IN :ids",
+					Object[].class)
+			.setParameter("ids", ids)
+			.getResultList();
+		if (rows.size() < ids.size()) {
+			// the parents of deleted elements are unknown here
+			cache.evictCollectionData(collection.getRole());
+			return;
+		}
+		rows.stream()
+			.map(row -> row[1])
+			.filter(parentId -> parentId != null)
+			.forEach(parentId -> cache.evictCollectionData(collection.getRole(), parentId));
+	}
+
+	/**
+	 * Return the property of the element holding the collection's key, or {@code null} if
+	 * the element has none.
+	 */
+	private static String keyProperty(CollectionPersister collection, EntityPersister element) {
+		if (!collection.isOneToMany() || !(collection instanceof AbstractCollectionPersister keyed)
+				|| !(element instanceof AbstractEntityPersister columns)) {
+			return null;
+		}
+		return Arrays.stream(columns.getPropertyNames())
+			.filter(property -> Arrays.equals(columns.getPropertyColumnNames(property), keyed.getKeyColumnNames()))
+			.findFirst()
+			.orElse(null);
+	}
+
+}
@@ -0,0 +1,37 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.samples.petclinic.system;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.fasterxml.jackson.datatype.hibernate6.Hibernate6Module;
+
+/**
+ * Jackson configuration for serializing JPA entities. Associations that were not part of
+ * the entity graph used to load an entity are written as {@code null} instead of
+ * triggering lazy loading outside of a transaction.
+ */
+@Configuration(proxyBeanMethods = false)
+class JacksonConfiguration {
+
+	@Bean
+	public Hibernate6Module hibernateModule() {
+		return new Hibernate6Module();
+	}
+
+}
@@ -0,0 +1,200 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.samples.petclinic.system;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.SchedulingConfigurer;
+import org.springframework.scheduling.config.ScheduledTaskRegistrar;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * {@link CacheInvalidationBus} that broadcasts changes through the
+ * <code>cache_invalidations</code> table. Published changes are delivered locally right
+ * away and appended to the table by a thread of its own, so that the committing thread
+ * does not wait for the insert; every node polls the table for the changes of its peers.
+ * Rows older than the configured retention are deleted.
+ * <p>
+ * Rows are not necessarily committed in id order, so besides the rows following the last
+ * one polled, every poll reads the rows created within the configured lookback again and
+ * delivers those it has not delivered before. Delivery to peers is still best effort: a
+ * row committed later than the lookback after it was created is not seen.
+ *
+ * @see CacheInvalidationProperties
+ */
+public class JdbcCacheInvalidationBus extends AbstractCacheInvalidationBus
+		implements SchedulingConfigurer, DisposableBean {
+
+	private static final Logger logger = LoggerFactory.getLogger(JdbcCacheInvalidationBus.class);
+
+	private static final String INSERT = "INSERT INTO cache_invalidations (node, entity_name, entity_id, created_at) "
+			+ "VALUES (?, ?, ?, ?)";
+
+	private static final String SELECT = "SELECT id, entity_name, entity_id, created_at FROM cache_invalidations "
+			+ "WHERE id > ? AND node <> ? ORDER BY id LIMIT ?";
+
+	private static final String SELECT_RECENT = "SELECT id, entity_name, entity_id, created_at "
+			+ "FROM cache_invalidations WHERE id <= ? AND created_at >= ? AND node <> ?";
+
+	private static final int BATCH_SIZE = 1000;
+
+	private final String node = UUID.randomUUID().toString();
+
+	private final JdbcTemplate jdbcTemplate;
+
+	private final TransactionTemplate transactions;
+
+	private final CacheInvalidationProperties properties;
+
+	private final ExecutorService broadcasts = Executors.newSingleThreadExecutor(runnable -> {
+		Thread thread = new Thread(runnable, "cache-invalidation-broadcast");
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	// not synchronized: a virtual thread blocking on JDBC in a monitor pins its carrier
+	private final Lock pollLock = new ReentrantLock();
+
+	private long lastId = -1;
+
+	// ids of the rows created within the lookback that were already delivered
+	private final Map<Long, Instant> delivered = new HashMap<>();
+
+	public JdbcCacheInvalidationBus(ObjectProvider<CacheInvalidationListener> listeners, JdbcTemplate jdbcTemplate,
+			PlatformTransactionManager transactionManager, CacheInvalidationProperties properties) {
+		super(listeners);
+		this.jdbcTemplate = jdbcTemplate;
+		// changes are usually published after commit, while the old transaction is bound
+		this.transactions = new TransactionTemplate(transactionManager);
+		this.transactions.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+		this.properties = properties;
+	}
+
+	@Override
+	public void configureTasks(ScheduledTaskRegistrar registrar) {
+		registrar.addFixedDelayTask(this::poll, this.properties.getPollInterval());
+		registrar.addFixedDelayTask(this::purge, this.properties.getRetention());
+	}
+
+	@Override
+	public void publish(Collection<EntityChange> changes) {
+		deliver(new CacheInvalidation(Set.copyOf(changes), false));
+		Timestamp now = Timestamp.from(Instant.now());
+		List<Object[]> rows = changes.stream()
+			.map(change -> new Object[] { this.node, change.entity(), change.id(), now })
+			.toList();
+		this.broadcasts.execute(() -> {
+			try {
+				this.transactions.executeWithoutResult(status -> this.jdbcTemplate.batchUpdate(INSERT, rows));
+			}
+			catch (RuntimeException ex) {
+				logger.warn("Could not broadcast {} to peers", changes, ex);
+			}
+		});
+	}
+
+	/**
+	 * Finish broadcasting the changes already published.
+	 */
+	@Override
+	public void destroy() throws InterruptedException {
+		this.broadcasts.shutdown();
+		this.broadcasts.awaitTermination(10, TimeUnit.SECONDS);
+	}
+
+	/**
+	 * Deliver the changes that peers appended since the last poll.
+	 */
+	public void poll() {
+		this.pollLock.lock();
+		try {
+			Timestamp since = Timestamp.from(Instant.now().minus(this.properties.getLookback()));
+			if (this.lastId < 0) {
+				// changes made before this node started are already reflected in its
+				// caches
+				this.lastId = this.jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM cache_invalidations",
+						Long.class);
+				this.jdbcTemplate.query(SELECT_RECENT, this::rowOf, this.lastId, since, this.node)
+					.forEach(row -> this.delivered.put(row.id(), row.createdAt()));
+			}
+			this.delivered.values().removeIf(createdAt -> createdAt.isBefore(since.toInstant()));
+			deliverOnce(this.jdbcTemplate.query(SELECT_RECENT, this::rowOf, this.lastId, since, this.node));
+			List<Row> rows;
+			do {
+				rows = this.jdbcTemplate.query(SELECT, this::rowOf, this.lastId, this.node, BATCH_SIZE);
+				if (!rows.isEmpty()) {
+					this.lastId = rows.get(rows.size() - 1).id();
+					deliverOnce(rows);
+				}
+			}
+			while (rows.size() == BATCH_SIZE);
+		}
+		finally {
+			this.pollLock.unlock();
+		}
+	}
+
+	private void deliverOnce(List<Row> rows) {
+		Set<EntityChange> changes = rows.stream()
+			.filter(row -> this.delivered.putIfAbsent(row.id(), row.createdAt()) == null)
+			.map(Row::change)
+			.collect(Collectors.toSet());
+		if (!changes.isEmpty()) {
+			deliver(new CacheInvalidation(changes, true));
+		}
+	}
+
+	private Row rowOf(ResultSet rs, int rowNum) throws SQLException {
+		return new Row(rs.getLong("id"), new EntityChange(rs.getString("entity_name"), rs.getInt("entity_id")),
+				rs.getTimestamp("created_at").toInstant());
+	}
+
+	/**
+	 * Delete the changes older than the retention.
+	 */
+	public void purge() {
+		Timestamp cutoff = Timestamp.from(Instant.now().minus(this.properties.getRetention()));
+		this.jdbcTemplate.update("DELETE FROM cache_invalidations WHERE created_at < ?", cutoff);
+	}
+
+	private record Row(long id, EntityChange change, Instant createdAt) {
+
+	}
+
+}
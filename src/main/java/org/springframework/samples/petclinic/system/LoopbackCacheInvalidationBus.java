@@ -0,0 +1,39 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.samples.petclinic.system;
+
+import java.util.Collection;
+import java.util.Set;
+
+import org.springframework.beans.factory.ObjectProvider;
+
+/**
+ * In-process {@link CacheInvalidationBus} that delivers changes to this node only. Used
+ * when the application runs as a single replica.
+ */
+public class LoopbackCacheInvalidationBus extends AbstractCacheInvalidationBus {
+
+	public LoopbackCacheInvalidationBus(ObjectProvider<CacheInvalidationListener> listeners) {
+		super(listeners);
+	}
+
+	@Override
+	public void publish(Collection<EntityChange> changes) {
+		deliver(new CacheInvalidation(Set.copyOf(changes), false));
+	}
+
+}
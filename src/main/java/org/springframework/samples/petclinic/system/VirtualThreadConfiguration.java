@@ -0,0 +1,77 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.samples.petclinic.system;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * Support for serving requests on virtual threads, enabled through the
+ * <code>virtual-threads</code> profile: limits the connections handed out at the same
+ * time and reports virtual threads pinned to their carrier.
+ *
+ * @see VirtualThreadProperties
+ */
+@Configuration(proxyBeanMethods = false)
+@EnableConfigurationProperties(VirtualThreadProperties.class)
+class VirtualThreadConfiguration {
+
+	private static final int DEFAULT_MAX_CONCURRENT = 10;
+
+	@Bean
+	@ConditionalOnProperty(name = "petclinic.virtual-threads.connection-limiter.enabled", havingValue = "true")
+	static BeanPostProcessor connectionLimitingDataSourcePostProcessor(
+			ObjectProvider<VirtualThreadProperties> properties) {
+		return new BeanPostProcessor() {
+
+			@Override
+			public Object postProcessAfterInitialization(Object bean, String beanName) {
+				if (bean instanceof DataSource dataSource && !(bean instanceof ConnectionLimitingDataSource)) {
+					VirtualThreadProperties.ConnectionLimiter limiter = properties.getObject().getConnectionLimiter();
+					return new ConnectionLimitingDataSource(dataSource, maxConcurrent(dataSource, limiter),
+							limiter.getAcquireTimeout());
+				}
+				return bean;
+			}
+
+		};
+	}
+
+	@Bean
+	@ConditionalOnThreading(Threading.VIRTUAL)
+	VirtualThreadPinningMonitor virtualThreadPinningMonitor(VirtualThreadProperties properties) {
+		return new VirtualThreadPinningMonitor(properties.getPinningThreshold());
+	}
+
+	private static int maxConcurrent(DataSource dataSource, VirtualThreadProperties.ConnectionLimiter limiter) {
+		if (limiter.getMaxConcurrent() != null) {
+			return limiter.getMaxConcurrent();
+		}
+		return (dataSource instanceof HikariDataSource hikari) ? hikari.getMaximumPoolSize() : DEFAULT_MAX_CONCURRENT;
+	}
+
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.samples.petclinic.system;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+
+/**
+ * Logs virtual threads that stay pinned to their carrier thread, e.g. while blocking on
+ * JDBC inside a <code>synchronized</code> block, for longer than the configured
+ * threshold. A pinned virtual thread occupies one of the few carrier threads, so such
+ * sections in the data path limit throughput like a small platform thread pool would.
+ * <p>
+ * The pinning events are read from an in-process Flight Recorder stream; the stack trace
+ * of each event shows where the thread was pinned.
+ */
+public class VirtualThreadPinningMonitor implements SmartLifecycle {
+
+	private static final Logger logger = LoggerFactory.getLogger(VirtualThreadPinningMonitor.class);
+
+	private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+
+	private static final int MAX_FRAMES = 20;
+
+	private final Duration threshold;
+
+	private volatile RecordingStream stream;
+
+	public VirtualThreadPinningMonitor(Duration threshold) {
+		this.threshold = threshold;
+	}
+
+	@Override
+	public void start() {
+		RecordingStream stream = new RecordingStream();
+		stream.enable(PINNED_EVENT).withThreshold(this.threshold).withStackTrace();
+		stream.onEvent(PINNED_EVENT, this::report);
+		stream.startAsync();
+		this.stream = stream;
+	}
+
+	@Override
+	public void stop() {
+		RecordingStream stream = this.stream;
+		if (stream != null) {
+			stream.close();
+			this.stream = null;
+		}
+	}
+
+	@Override
+	public boolean isRunning() {
+		return this.stream != null;
+	}
+
+	private void report(RecordedEvent event) {
+		StringBuilder frames = new StringBuilder();
+		List<RecordedFrame> stackTrace = (event.getStackTrace() != null) ? event.getStackTrace().getFrames()
+				: List.of();
+		stackTrace.stream()
+			.limit(MAX_FRAMES)
+			.forEach(frame -> frames.append(System.lineSeparator())
+				.append("\tat ")
+				.append(frame.getMethod().getType().getName())
+				.append('.')
+				.append(frame.getMethod().getName())
+				.append(':')
+				.append(frame.getLineNumber()));
+		logger.warn("Virtual thread {} was pinned to its carrier for {} ms{}",
+				(event.getThread() != null) ? event.getThread().getJavaName() : "?", event.getDuration().toMillis(),
+				frames);
+	}
+
+}
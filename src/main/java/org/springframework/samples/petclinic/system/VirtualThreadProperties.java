@@ -0,0 +1,98 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.samples.petclinic.system;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuration of request execution on virtual threads, bound from
+ * <code>petclinic.virtual-threads.*</code> properties. Virtual threads themselves are
+ * switched on with <code>spring.threads.virtual.enabled</code>, see the
+ * <code>virtual-threads</code> profile.
+ */
+@ConfigurationProperties("petclinic.virtual-threads")
+public class VirtualThreadProperties {
+
+	/**
+	 * Time a virtual thread may stay pinned to its carrier thread before it is logged.
+	 */
+	private Duration pinningThreshold = Duration.ofMillis(20);
+
+	private final ConnectionLimiter connectionLimiter = new ConnectionLimiter();
+
+	public Duration getPinningThreshold() {
+		return this.pinningThreshold;
+	}
+
+	public void setPinningThreshold(Duration pinningThreshold) {
+		this.pinningThreshold = pinningThreshold;
+	}
+
+	public ConnectionLimiter getConnectionLimiter() {
+		return this.connectionLimiter;
+	}
+
+	/**
+	 * Configuration of the {@link ConnectionLimitingDataSource}.
+	 */
+	public static class ConnectionLimiter {
+
+		/**
+		 * Whether to limit the number of connections handed out at the same time.
+		 */
+		private boolean enabled;
+
+		/**
+		 * Number of connections handed out at the same time. Defaults to the maximum size
+		 * of the connection pool.
+		 */
+		private Integer maxConcurrent;
+
+		/**
+		 * Time to wait for a connection before giving up.
+		 */
+		private Duration acquireTimeout = Duration.ofSeconds(5);
+
+		public boolean isEnabled() {
+			return this.enabled;
+		}
+
+		public void setEnabled(boolean enabled) {
+			this.enabled = enabled;
+		}
+
+		public Integer getMaxConcurrent() {
+			return this.maxConcurrent;
+		}
+
+		public void setMaxConcurrent(Integer maxConcurrent) {
+			this.maxConcurrent = maxConcurrent;
+		}
+
+		public Duration getAcquireTimeout() {
+			return this.acquireTimeout;
+		}
+
+		public void setAcquireTimeout(Duration acquireTimeout) {
+			this.acquireTimeout = acquireTimeout;
+		}
+
+	}
+
+}
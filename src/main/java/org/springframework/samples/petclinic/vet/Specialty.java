@@ -16,9 +16,13 @@
 package org.springframework.samples.petclinic.vet;
 
 import org.springframework.samples.petclinic.model.NamedEntity;
+import org.springframework.samples.petclinic.system.CacheInvalidationEntityListener;
 
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.Table;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 /**
  * Models a {@link Vet Vet's} specialty (for example, dentistry).
@@ -26,7 +30,9 @@ import jakarta.persistence.Table;
  * @author Juergen Hoeller
  */
 @Entity
+@EntityListeners(CacheInvalidationEntityListener.class)
 @Table(name = "specialties")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public class Specialty extends NamedEntity {
 
 }
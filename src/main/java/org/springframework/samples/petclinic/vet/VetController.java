@@ -15,16 +15,25 @@
  */
 package org.springframework.samples.petclinic.vet;
 
+import java.util.Comparator;
 import java.util.List;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.samples.petclinic.system.ETags;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
+import org.springframework.web.HttpMediaTypeNotAcceptableException;
+import org.springframework.web.accept.ContentNegotiationManager;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestParam;
-import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.context.request.NativeWebRequest;
 
 /**
  * @author Juergen Hoeller
@@ -35,10 +44,16 @@ import org.springframework.web.bind.annotation.ResponseBody;
 @Controller
 class VetController {
 
-	private final VetRepository vetRepository;
+	private static final List<MediaType> REPRESENTATIONS = List.of(MediaType.APPLICATION_JSON,
+			MediaType.APPLICATION_XML);
 
-	public VetController(VetRepository vetRepository) {
-		this.vetRepository = vetRepository;
+	private final VetDirectory vetDirectory;
+
+	private final ContentNegotiationManager contentNegotiationManager;
+
+	public VetController(VetDirectory vetDirectory, ContentNegotiationManager contentNegotiationManager) {
+		this.vetDirectory = vetDirectory;
+		this.contentNegotiationManager = contentNegotiationManager;
 	}
 
 	@GetMapping("/vets.html")
@@ -63,16 +78,45 @@ class VetController {
 	private Page<Vet> findPaginated(int page) {
 		int pageSize = 5;
 		Pageable pageable = PageRequest.of(page - 1, pageSize);
-		return vetRepository.findAll(pageable);
+		return vetDirectory.getPage(pageable);
 	}
 
-	@GetMapping({ "/vets" })
-	public @ResponseBody Vets showResourcesVetList() {
+	@GetMapping(value = "/vets", produces = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_XML_VALUE })
+	public ResponseEntity<Vets> showResourcesVetList(NativeWebRequest request,
+			@RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch)
+			throws HttpMediaTypeNotAcceptableException {
+		// JSON and XML representations of the same vets are tagged apart by the media
+		// type they are served as, however the Accept header asked for it. The tag is
+		// read before the vets so that it is never newer than the body it is sent with.
+		MediaType mediaType = negotiate(request);
+		String eTag = ETags.of(List.of(this.vetDirectory.getETag(), mediaType));
+		if (ETags.matches(ifNoneMatch, eTag)) {
+			return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).varyBy(HttpHeaders.ACCEPT).build();
+		}
 		// Here we are returning an object of type 'Vets' rather than a collection of Vet
 		// objects so it is simpler for JSon/Object mapping
 		Vets vets = new Vets();
-		vets.getVetList().addAll(this.vetRepository.findAll());
-		return vets;
+		vets.getVetList().addAll(this.vetDirectory.getVets());
+		return ResponseEntity.ok().eTag(eTag).varyBy(HttpHeaders.ACCEPT).contentType(mediaType).body(vets);
+	}
+
+	/**
+	 * Return the representation of the vets to serve, the first one the request accepts
+	 * in order of preference.
+	 */
+	private MediaType negotiate(NativeWebRequest request) throws HttpMediaTypeNotAcceptableException {
+		List<MediaType> acceptable = this.contentNegotiationManager.resolveMediaTypes(request)
+			.stream()
+			.sorted(Comparator.comparingDouble(MediaType::getQualityValue).reversed())
+			.toList();
+		for (MediaType accepted : acceptable) {
+			for (MediaType representation : REPRESENTATIONS) {
+				if (accepted.isCompatibleWith(representation)) {
+					return representation;
+				}
+			}
+		}
+		throw new HttpMediaTypeNotAcceptableException(REPRESENTATIONS);
 	}
 
 }
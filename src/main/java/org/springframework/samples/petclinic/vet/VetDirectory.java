@@ -0,0 +1,180 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.samples.petclinic.vet;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.samples.petclinic.system.CacheEntryLoader;
+import org.springframework.samples.petclinic.system.CacheInvalidation;
+import org.springframework.samples.petclinic.system.CacheInvalidationBus;
+import org.springframework.samples.petclinic.system.CacheInvalidationListener;
+import org.springframework.samples.petclinic.system.ETags;
+import org.springframework.stereotype.Component;
+
+/**
+ * In-memory directory of all {@link Vet}s with their specialties. The vets are read once
+ * from the {@link VetRepository}, sorted by name and kept as one immutable, versioned
+ * snapshot in the {@value #CACHE_NAME} cache. Pages are sliced from the snapshot, so
+ * listing vets does not query the database once the snapshot is loaded.
+ * <p>
+ * The snapshot is invalidated through the {@link CacheInvalidationBus} whenever a vet or
+ * specialty is written on any node, and rebuilt on the next lookup.
+ */
+@Component
+public class VetDirectory implements CacheEntryLoader, CacheInvalidationListener {
+
+	/**
+	 * Name of the cache holding the vet snapshot.
+	 */
+	public static final String CACHE_NAME = "vets";
+
+	private static final String SNAPSHOT_KEY = "snapshot";
+
+	private static final Comparator<Vet> ORDER = Comparator
+		.comparing(Vet::getLastName, Comparator.nullsLast(Comparator.<String>naturalOrder()))
+		.thenComparing(Vet::getFirstName, Comparator.nullsLast(Comparator.<String>naturalOrder()))
+		.thenComparing(Vet::getId);
+
+	private final VetRepository vets;
+
+	private final Cache cache;
+
+	private final AtomicLong version = new AtomicLong();
+
+	public VetDirectory(VetRepository vets, CacheManager cacheManager) {
+		this.vets = vets;
+		this.cache = cacheManager.getCache(CACHE_NAME);
+	}
+
+	/**
+	 * Return all vets, ordered by last and first name.
+	 * @return an immutable list of {@link Vet}s
+	 */
+	public List<Vet> getVets() {
+		return snapshot().vets();
+	}
+
+	/**
+	 * Return one page of the vets, ordered by last and first name.
+	 * @param pageable the page to return
+	 * @return the requested page
+	 */
+	public Page<Vet> getPage(Pageable pageable) {
+		List<Vet> all = snapshot().vets();
+		int from = (int) Math.min(pageable.getOffset(), all.size());
+		int to = Math.min(from + pageable.getPageSize(), all.size());
+		return new PageImpl<>(all.subList(from, to), pageable, all.size());
+	}
+
+	/**
+	 * Return the version of the current snapshot. The version changes whenever vets or
+	 * specialties are written.
+	 * @return the snapshot version
+	 */
+	public long getVersion() {
+		return snapshot().version();
+	}
+
+	/**
+	 * Return the entity tag of the current snapshot. Unlike the {@link #getVersion()
+	 * version}, the tag is derived from the ids and versions of the vets and their
+	 * specialties, so every node holding the same vets returns the same tag.
+	 * @return the quoted entity tag
+	 */
+	public String getETag() {
+		return snapshot().eTag();
+	}
+
+	/**
+	 * Discard the current snapshot so that the next lookup reads the vets again.
+	 */
+	public void invalidate() {
+		this.version.incrementAndGet();
+		this.cache.evict(SNAPSHOT_KEY);
+	}
+
+	@Override
+	public void invalidate(CacheInvalidation invalidation) {
+		if (invalidation.affects(Vet.class, Specialty.class)) {
+			invalidate();
+		}
+	}
+
+	/**
+	 * Load the snapshot at startup so that the first request does not pay for it.
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	public void preload() {
+		snapshot();
+	}
+
+	@Override
+	public String getCacheName() {
+		return CACHE_NAME;
+	}
+
+	/**
+	 * Read the vets again when the cache refreshes the snapshot.
+	 */
+	@Override
+	public Object load(Object key) {
+		return SNAPSHOT_KEY.equals(key) ? load() : null;
+	}
+
+	private Snapshot snapshot() {
+		Snapshot snapshot = this.cache.get(SNAPSHOT_KEY, this::load);
+		if (snapshot.version() != this.version.get()) {
+			// loaded while vets were being written; read them again
+			this.cache.evict(SNAPSHOT_KEY);
+			snapshot = this.cache.get(SNAPSHOT_KEY, this::load);
+		}
+		return snapshot;
+	}
+
+	private Snapshot load() {
+		long current = this.version.get();
+		List<Vet> vets = List.of(this.vets.findAll().stream().sorted(ORDER).toArray(Vet[]::new));
+		return new Snapshot(vets, current, eTag(vets));
+	}
+
+	private static String eTag(List<Vet> vets) {
+		List<Object> parts = new ArrayList<>();
+		for (Vet vet : vets) {
+			Collections.addAll(parts, vet.getId(), vet.getVersion());
+			for (Specialty specialty : vet.getSpecialties()) {
+				Collections.addAll(parts, specialty.getId(), specialty.getVersion());
+			}
+		}
+		return ETags.of(parts);
+	}
+
+	private record Snapshot(List<Vet> vets, long version, String eTag) {
+
+	}
+
+}
@@ -1,3 +1,4 @@
+DROP TABLE cache_invalidations IF EXISTS;
 DROP TABLE vet_specialties IF EXISTS;
 DROP TABLE vets IF EXISTS;
 DROP TABLE specialties IF EXISTS;
@@ -5,19 +6,29 @@ DROP TABLE visits IF EXISTS;
 DROP TABLE pets IF EXISTS;
 DROP TABLE types IF EXISTS;
 DROP TABLE owners IF EXISTS;
+DROP SEQUENCE vets_seq IF EXISTS;
+DROP SEQUENCE specialties_seq IF EXISTS;
+DROP SEQUENCE types_seq IF EXISTS;
+DROP SEQUENCE owners_seq IF EXISTS;
+DROP SEQUENCE pets_seq IF EXISTS;
+DROP SEQUENCE visits_seq IF EXISTS;
 
 
 CREATE TABLE vets (
   id         INTEGER GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+  version    INTEGER DEFAULT 0 NOT NULL,
   first_name VARCHAR(30),
   last_name  VARCHAR(30)
 );
+CREATE SEQUENCE vets_seq START WITH 100 INCREMENT BY 50;
 CREATE INDEX vets_last_name ON vets (last_name);
 
 CREATE TABLE specialties (
   id   INTEGER GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+  version    INTEGER DEFAULT 0 NOT NULL,
   name VARCHAR(80)
 );
+CREATE SEQUENCE specialties_seq START WITH 100 INCREMENT BY 50;
 CREATE INDEX specialties_name ON specialties (name);
 
 CREATE TABLE vet_specialties (
@@ -29,36 +40,54 @@ ALTER TABLE vet_specialties ADD CONSTRAINT fk_vet_specialties_specialties FOREIG
 
 CREATE TABLE types (
   id   INTEGER GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+  version    INTEGER DEFAULT 0 NOT NULL,
   name VARCHAR(80)
 );
+CREATE SEQUENCE types_seq START WITH 100 INCREMENT BY 50;
 CREATE INDEX types_name ON types (name);
 
 CREATE TABLE owners (
   id         INTEGER GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+  version    INTEGER DEFAULT 0 NOT NULL,
   first_name VARCHAR(30),
   last_name  VARCHAR_IGNORECASE(30),
   address    VARCHAR(255),
   city       VARCHAR(80),
-  telephone  VARCHAR(20)
+  telephone  VARCHAR(20),
+  last_name_normalized VARCHAR(30) GENERATED ALWAYS AS (LOWER(last_name))
 );
-CREATE INDEX owners_last_name ON owners (last_name);
+CREATE SEQUENCE owners_seq START WITH 100 INCREMENT BY 50;
+CREATE INDEX owners_last_name_normalized ON owners (last_name_normalized, id);
 
 CREATE TABLE pets (
   id         INTEGER GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+  version    INTEGER DEFAULT 0 NOT NULL,
   name       VARCHAR(30),
   birth_date DATE,
   type_id    INTEGER NOT NULL,
   owner_id   INTEGER
 );
+CREATE SEQUENCE pets_seq START WITH 100 INCREMENT BY 50;
 ALTER TABLE pets ADD CONSTRAINT fk_pets_owners FOREIGN KEY (owner_id) REFERENCES owners (id);
 ALTER TABLE pets ADD CONSTRAINT fk_pets_types FOREIGN KEY (type_id) REFERENCES types (id);
 CREATE INDEX pets_name ON pets (name);
 
 CREATE TABLE visits (
   id          INTEGER GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+  version    INTEGER DEFAULT 0 NOT NULL,
   pet_id      INTEGER,
   visit_date  DATE,
   description VARCHAR(255)
 );
+CREATE SEQUENCE visits_seq START WITH 100 INCREMENT BY 50;
 ALTER TABLE visits ADD CONSTRAINT fk_visits_pets FOREIGN KEY (pet_id) REFERENCES pets (id);
-CREATE INDEX visits_pet_id ON visits (pet_id);
+CREATE INDEX visits_pet_id_visit_date ON visits (pet_id, visit_date);
+
+CREATE TABLE cache_invalidations (
+  id          BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+  node        VARCHAR(36) NOT NULL,
+  entity_name VARCHAR(255) NOT NULL,
+  entity_id   INTEGER NOT NULL,
+  created_at  TIMESTAMP NOT NULL
+);
+CREATE INDEX cache_invalidations_created_at ON cache_invalidations (created_at);
@@ -1,15 +1,24 @@
+-- MySQL has no sequences: the next id of each table is kept in a one-row *_seq table
 CREATE TABLE IF NOT EXISTS vets (
   id INT(4) UNSIGNED NOT NULL AUTO_INCREMENT PRIMARY KEY,
+  version INT(4) UNSIGNED NOT NULL DEFAULT 0,
   first_name VARCHAR(30),
   last_name VARCHAR(30),
   INDEX(last_name)
 ) engine=InnoDB;
+CREATE TABLE IF NOT EXISTS vets_seq (next_val BIGINT NOT NULL) engine=InnoDB;
+INSERT INTO vets_seq (next_val) SELECT next_val FROM (SELECT GREATEST(COALESCE(MAX(id), 0) + 50, 100) AS next_val FROM vets) seed
+  WHERE NOT EXISTS (SELECT * FROM vets_seq);
 
 CREATE TABLE IF NOT EXISTS specialties (
   id INT(4) UNSIGNED NOT NULL AUTO_INCREMENT PRIMARY KEY,
+  version INT(4) UNSIGNED NOT NULL DEFAULT 0,
   name VARCHAR(80),
   INDEX(name)
 ) engine=InnoDB;
+CREATE TABLE IF NOT EXISTS specialties_seq (next_val BIGINT NOT NULL) engine=InnoDB;
+INSERT INTO specialties_seq (next_val) SELECT next_val FROM (SELECT GREATEST(COALESCE(MAX(id), 0) + 50, 100) AS next_val FROM specialties) seed
+  WHERE NOT EXISTS (SELECT * FROM specialties_seq);
 
 CREATE TABLE IF NOT EXISTS vet_specialties (
   vet_id INT(4) UNSIGNED NOT NULL,
@@ -21,22 +30,32 @@ CREATE TABLE IF NOT EXISTS vet_specialties (
 
 CREATE TABLE IF NOT EXISTS types (
   id INT(4) UNSIGNED NOT NULL AUTO_INCREMENT PRIMARY KEY,
+  version INT(4) UNSIGNED NOT NULL DEFAULT 0,
   name VARCHAR(80),
   INDEX(name)
 ) engine=InnoDB;
+CREATE TABLE IF NOT EXISTS types_seq (next_val BIGINT NOT NULL) engine=InnoDB;
+INSERT INTO types_seq (next_val) SELECT next_val FROM (SELECT GREATEST(COALESCE(MAX(id), 0) + 50, 100) AS next_val FROM types) seed
+  WHERE NOT EXISTS (SELECT * FROM types_seq);
 
 CREATE TABLE IF NOT EXISTS owners (
   id INT(4) UNSIGNED NOT NULL AUTO_INCREMENT PRIMARY KEY,
+  version INT(4) UNSIGNED NOT NULL DEFAULT 0,
   first_name VARCHAR(30),
   last_name VARCHAR(30),
   address VARCHAR(255),
   city VARCHAR(80),
   telephone VARCHAR(20),
-  INDEX(last_name)
+  last_name_normalized VARCHAR(30) AS (LOWER(last_name)) STORED,
+  INDEX(last_name_normalized)
 ) engine=InnoDB;
+CREATE TABLE IF NOT EXISTS owners_seq (next_val BIGINT NOT NULL) engine=InnoDB;
+INSERT INTO owners_seq (next_val) SELECT next_val FROM (SELECT GREATEST(COALESCE(MAX(id), 0) + 50, 100) AS next_val FROM owners) seed
+  WHERE NOT EXISTS (SELECT * FROM owners_seq);
 
 CREATE TABLE IF NOT EXISTS pets (
   id INT(4) UNSIGNED NOT NULL AUTO_INCREMENT PRIMARY KEY,
+  version INT(4) UNSIGNED NOT NULL DEFAULT 0,
   name VARCHAR(30),
   birth_date DATE,
   type_id INT(4) UNSIGNED NOT NULL,
@@ -45,11 +64,28 @@ CREATE TABLE IF NOT EXISTS pets (
   FOREIGN KEY (owner_id) REFERENCES owners(id),
   FOREIGN KEY (type_id) REFERENCES types(id)
 ) engine=InnoDB;
+CREATE TABLE IF NOT EXISTS pets_seq (next_val BIGINT NOT NULL) engine=InnoDB;
+INSERT INTO pets_seq (next_val) SELECT next_val FROM (SELECT GREATEST(COALESCE(MAX(id), 0) + 50, 100) AS next_val FROM pets) seed
+  WHERE NOT EXISTS (SELECT * FROM pets_seq);
 
 CREATE TABLE IF NOT EXISTS visits (
   id INT(4) UNSIGNED NOT NULL AUTO_INCREMENT PRIMARY KEY,
+  version INT(4) UNSIGNED NOT NULL DEFAULT 0,
   pet_id INT(4) UNSIGNED,
   visit_date DATE,
   description VARCHAR(255),
+  INDEX(pet_id, visit_date),
   FOREIGN KEY (pet_id) REFERENCES pets(id)
 ) engine=InnoDB;
+CREATE TABLE IF NOT EXISTS visits_seq (next_val BIGINT NOT NULL) engine=InnoDB;
+INSERT INTO visits_seq (next_val) SELECT next_val FROM (SELECT GREATEST(COALESCE(MAX(id), 0) + 50, 100) AS next_val FROM visits) seed
+  WHERE NOT EXISTS (SELECT * FROM visits_seq);
+
+CREATE TABLE IF NOT EXISTS cache_invalidations (
+  id BIGINT UNSIGNED NOT NULL AUTO_INCREMENT PRIMARY KEY,
+  node VARCHAR(36) NOT NULL,
+  entity_name VARCHAR(255) NOT NULL,
+  entity_id INT(4) UNSIGNED NOT NULL,
+  created_at TIMESTAMP NOT NULL,
+  INDEX(created_at)
+) engine=InnoDB;
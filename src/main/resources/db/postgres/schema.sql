@@ -1,14 +1,22 @@
+-- Sequences only ever move forward, past ids numbered by identity before they existed.
+-- Hibernate may hand out the 50 ids up to a sequence value, so none may exceed last_value - 50.
 CREATE TABLE IF NOT EXISTS vets (
   id         INT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+  version    INT NOT NULL DEFAULT 0,
   first_name TEXT,
   last_name  TEXT
 );
+CREATE SEQUENCE IF NOT EXISTS vets_seq START WITH 100 INCREMENT BY 50;
+SELECT setval('vets_seq', MAX(id) + 50) FROM vets HAVING MAX(id) > (SELECT last_value - 50 FROM vets_seq);
 CREATE INDEX ON vets (last_name);
 
 CREATE TABLE IF NOT EXISTS specialties (
   id   INT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+  version    INT NOT NULL DEFAULT 0,
   name TEXT
 );
+CREATE SEQUENCE IF NOT EXISTS specialties_seq START WITH 100 INCREMENT BY 50;
+SELECT setval('specialties_seq', MAX(id) + 50) FROM specialties HAVING MAX(id) > (SELECT last_value - 50 FROM specialties_seq);
 CREATE INDEX ON specialties (name);
 
 CREATE TABLE IF NOT EXISTS vet_specialties (
@@ -19,34 +27,56 @@ CREATE TABLE IF NOT EXISTS vet_specialties (
 
 CREATE TABLE IF NOT EXISTS types (
   id   INT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+  version    INT NOT NULL DEFAULT 0,
   name TEXT
 );
+CREATE SEQUENCE IF NOT EXISTS types_seq START WITH 100 INCREMENT BY 50;
+SELECT setval('types_seq', MAX(id) + 50) FROM types HAVING MAX(id) > (SELECT last_value - 50 FROM types_seq);
 CREATE INDEX ON types (name);
 
 CREATE TABLE IF NOT EXISTS owners (
   id         INT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+  version    INT NOT NULL DEFAULT 0,
   first_name TEXT,
   last_name  TEXT,
   address    TEXT,
   city       TEXT,
-  telephone  TEXT
+  telephone  TEXT,
+  last_name_normalized TEXT COLLATE "C" GENERATED ALWAYS AS (lower(last_name)) STORED
 );
-CREATE INDEX ON owners (last_name);
+CREATE SEQUENCE IF NOT EXISTS owners_seq START WITH 100 INCREMENT BY 50;
+SELECT setval('owners_seq', MAX(id) + 50) FROM owners HAVING MAX(id) > (SELECT last_value - 50 FROM owners_seq);
+CREATE INDEX ON owners (last_name_normalized, id);
 
 CREATE TABLE IF NOT EXISTS pets (
   id         INT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+  version    INT NOT NULL DEFAULT 0,
   name       TEXT,
   birth_date DATE,
   type_id    INT NOT NULL REFERENCES types (id),
   owner_id   INT REFERENCES owners (id)
 );
+CREATE SEQUENCE IF NOT EXISTS pets_seq START WITH 100 INCREMENT BY 50;
+SELECT setval('pets_seq', MAX(id) + 50) FROM pets HAVING MAX(id) > (SELECT last_value - 50 FROM pets_seq);
 CREATE INDEX ON pets (name);
 CREATE INDEX ON pets (owner_id);
 
 CREATE TABLE IF NOT EXISTS visits (
   id          INT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+  version    INT NOT NULL DEFAULT 0,
   pet_id      INT REFERENCES pets (id),
   visit_date  DATE,
   description TEXT
 );
-CREATE INDEX ON visits (pet_id);
+CREATE SEQUENCE IF NOT EXISTS visits_seq START WITH 100 INCREMENT BY 50;
+SELECT setval('visits_seq', MAX(id) + 50) FROM visits HAVING MAX(id) > (SELECT last_value - 50 FROM visits_seq);
+CREATE INDEX ON visits (pet_id, visit_date);
+
+CREATE TABLE IF NOT EXISTS cache_invalidations (
+  id          BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+  node        TEXT NOT NULL,
+  entity_name TEXT NOT NULL,
+  entity_id   INT NOT NULL,
+  created_at  TIMESTAMP NOT NULL
+);
+CREATE INDEX ON cache_invalidations (created_at);
@@ -29,7 +29,7 @@ import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.RequestEntity;
 import org.springframework.http.ResponseEntity;
-import org.springframework.samples.petclinic.vet.VetRepository;
+import org.springframework.samples.petclinic.vet.VetDirectory;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.aot.DisabledInAotMode;
 import org.springframework.web.client.RestTemplate;
@@ -53,15 +53,15 @@ class MySqlIntegrationTests {
 	int port;
 
 	@Autowired
-	private VetRepository vets;
+	private VetDirectory vets;
 
 	@Autowired
 	private RestTemplateBuilder builder;
 
 	@Test
 	void testFindAll() {
-		vets.findAll();
-		vets.findAll(); // served from cache
+		vets.getVets();
+		vets.getVets(); // served from cache
 	}
 
 	@Test
@@ -0,0 +1,96 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.samples.petclinic.owner;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDate;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Integration tests for JDBC batching of inserts, which relies on ids being taken from
+ * pooled sequences rather than identity columns.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class JdbcBatchingTests {
+
+	@Autowired
+	private OwnerRepository owners;
+
+	@Autowired
+	private PetTypeRepository types;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Test
+	void shouldBatchCascadedInserts() {
+		// Given
+		PetType cat = this.types.findPetTypes().get(0);
+		Owner owner = new Owner();
+		owner.setFirstName("Ada");
+		owner.setLastName("Batchelor");
+		owner.setAddress("1 Main St");
+		owner.setCity("Madison");
+		owner.setTelephone("6085550001");
+		for (int i = 0; i < 3; i++) {
+			Pet pet = new Pet();
+			pet.setName("pet" + i);
+			pet.setBirthDate(LocalDate.of(2020, 1, 1));
+			pet.setType(cat);
+			for (int j = 0; j < 3; j++) {
+				Visit visit = new Visit();
+				visit.setDescription("visit" + j);
+				pet.addVisit(visit);
+			}
+			owner.addPet(pet);
+		}
+		Statistics statistics = this.entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+
+		// When
+		Integer ownerId = new TransactionTemplate(this.transactionManager)
+			.execute(status -> this.owners.save(owner).getId());
+
+		try {
+			// Then
+			assertThat(statistics.getEntityInsertCount()).isEqualTo(13);
+			// one batch per table and foreign key update, plus a few sequence calls
+			assertThat(statistics.getPrepareStatementCount()).isLessThan(10);
+			assertThat(owner.getPets()).allSatisfy(pet -> assertThat(pet.getId()).isNotNull());
+		}
+		finally {
+			this.owners.deleteById(ownerId);
+		}
+	}
+
+}
@@ -0,0 +1,125 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.samples.petclinic.owner;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.samples.petclinic.owner.OwnerRepository.OwnerLastName;
+import org.springframework.samples.petclinic.owner.OwnerRepository.OwnerVisitCount;
+
+/**
+ * Tests for {@link LastNameSuggestions}.
+ */
+@ExtendWith(MockitoExtension.class)
+class LastNameSuggestionsTests {
+
+	@Mock
+	private OwnerRepository owners;
+
+	private LastNameSuggestions suggestions;
+
+	private static OwnerLastName lastName(int id, String lastName) {
+		return new OwnerLastName() {
+
+			@Override
+			public Integer getId() {
+				return id;
+			}
+
+			@Override
+			public String getLastName() {
+				return lastName;
+			}
+
+		};
+	}
+
+	private static OwnerVisitCount visits(int ownerId, long visits) {
+		return new OwnerVisitCount() {
+
+			@Override
+			public Integer getOwnerId() {
+				return ownerId;
+			}
+
+			@Override
+			public long getVisits() {
+				return visits;
+			}
+
+		};
+	}
+
+	private static Owner owner(int id, String lastName) {
+		Owner owner = new Owner();
+		owner.setId(id);
+		owner.setLastName(lastName);
+		return owner;
+	}
+
+	@BeforeEach
+	void setup() {
+		given(this.owners.findLastNamesAfter(eq(0), any(Limit.class))).willReturn(List.of(lastName(1, "Davis"),
+				lastName(2, "Davis"), lastName(3, "Daniels"), lastName(4, "Dawson"), lastName(5, "Franklin")));
+		given(this.owners.findLastNamesAfter(eq(5), any(Limit.class))).willReturn(List.of());
+		given(this.owners.countVisitsByIdIn(anyCollection())).willReturn(List.of(visits(4, 5)));
+		this.suggestions = new LastNameSuggestions(this.owners);
+		this.suggestions.load();
+	}
+
+	@Test
+	void shouldSuggestMostWeightedNamesFirst() {
+		// Dawson: 1 owner + 5 visits, Davis: 2 owners, Daniels: 1 owner
+		assertThat(this.suggestions.suggest("da", 10)).containsExactly("Dawson", "Davis", "Daniels");
+		assertThat(this.suggestions.suggest("DA", 2)).containsExactly("Dawson", "Davis");
+		assertThat(this.suggestions.suggest("", 10)).hasSize(4);
+		assertThat(this.suggestions.suggest("x", 10)).isEmpty();
+	}
+
+	@Test
+	void shouldFollowRenamedAndDeletedOwners() {
+		// When
+		this.suggestions.ownerSaved(owner(4, "Franklin"));
+
+		// Then
+		assertThat(this.suggestions.suggest("daw", 10)).isEmpty();
+		assertThat(this.suggestions.suggest("fr", 10)).containsExactly("Franklin");
+		assertThat(this.suggestions.suggest("da", 10)).containsExactly("Davis", "Daniels");
+
+		// When
+		this.suggestions.ownerDeleted(1);
+		this.suggestions.ownerDeleted(2);
+		this.suggestions.ownerSaved(owner(6, "Dalton"));
+		this.suggestions.visitBooked(6);
+
+		// Then
+		assertThat(this.suggestions.suggest("da", 10)).containsExactly("Dalton", "Daniels");
+	}
+
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.samples.petclinic.owner;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.samples.petclinic.owner.OwnerBatchController.OwnerBatchGetResponse;
+import org.springframework.samples.petclinic.owner.OwnerBatchController.OwnerBatchGetResult;
+
+/**
+ * Integration tests for {@link OwnerBatchController}.
+ */
+@SpringBootTest(webEnvironment = WebEnvironment.RANDOM_PORT)
+class OwnerBatchControllerIntegrationTests {
+
+	@Autowired
+	private TestRestTemplate restTemplate;
+
+	@Test
+	void shouldReturnOwnersInRequestOrder() {
+		// When
+		ResponseEntity<OwnerBatchGetResponse> response = restTemplate.postForEntity("/api/owners:batchGet",
+				Map.of("ids", List.of(6, 99999, 1, 6)), OwnerBatchGetResponse.class);
+
+		// Then
+		assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+		List<OwnerBatchGetResult> results = response.getBody().results();
+		assertThat(results).extracting(OwnerBatchGetResult::id).containsExactly(6, 99999, 1, 6);
+		assertThat(results).extracting(OwnerBatchGetResult::found).containsExactly(true, false, true, true);
+		assertThat(results.get(1).owner()).isNull();
+		assertThat(results.get(2).owner().getLastName()).isEqualTo("Franklin");
+		Owner coleman = results.get(0).owner();
+		assertThat(coleman.getPets()).extracting(Pet::getName).containsExactly("Max", "Samantha");
+		assertThat(coleman.getPet("Samantha").getVisits()).hasSize(2);
+	}
+
+	@Test
+	void shouldRejectTooManyIds() {
+		// Given
+		List<Integer> ids = IntStream.rangeClosed(1, OwnerBatchController.MAX_BATCH_SIZE + 1).boxed().toList();
+
+		// When
+		ResponseEntity<String> response = restTemplate.postForEntity("/api/owners:batchGet", Map.of("ids", ids),
+				String.class);
+
+		// Then
+		assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+	}
+
+	@Test
+	void shouldRejectEmptyBatch() {
+		// When
+		ResponseEntity<String> response = restTemplate.postForEntity("/api/owners:batchGet", Map.of("ids", List.of()),
+				String.class);
+
+		// Then
+		assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+	}
+
+}
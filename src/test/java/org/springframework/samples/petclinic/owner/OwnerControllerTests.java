@@ -24,9 +24,9 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
 import org.springframework.test.context.aot.DisabledInAotMode;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 
@@ -34,18 +34,26 @@ import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
+import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.empty;
 import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.hasEntry;
 import static org.hamcrest.Matchers.hasItem;
 import static org.hamcrest.Matchers.hasProperty;
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.not;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.then;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
@@ -73,6 +81,9 @@ class OwnerControllerTests {
 	@MockitoBean
 	private VisitRepository visits;
 
+	@MockitoBean
+	private LastNameSuggestions suggestions;
+
 	private Owner george() {
 		Owner george = new Owner();
 		george.setId(TEST_OWNER_ID);
@@ -96,22 +107,17 @@ class OwnerControllerTests {
 	void setup() {
 
 		Owner george = george();
-		given(this.owners.findByLastNameStartingWith(eq("Franklin"), any(Pageable.class)))
-			.willReturn(new PageImpl<>(List.of(george)));
+		given(this.owners.findTop2ByLastNameStartingWith("Franklin")).willReturn(List.of(george));
 
-		given(this.owners.findById(TEST_OWNER_ID)).willReturn(Optional.of(george));
+		given(this.owners.findWithPetsById(TEST_OWNER_ID)).willReturn(Optional.of(george));
 		Visit visit = new Visit();
 		visit.setDate(LocalDate.now());
+		ReflectionTestUtils.setField(visit, "petId", 1);
 		george.getPet("Max").getVisits().add(visit);
 
-		// Mock VisitRepository to return visits with appropriate sorting
-		given(this.visits.findByPetId(eq(1), any(Sort.class))).willAnswer(invocation -> {
-			Sort sort = invocation.getArgument(1);
-			List<Visit> visitList = new ArrayList<>(george.getPet("Max").getVisits());
-			// Return the visits (sorting is handled by the actual repository in real
-			// scenario)
-			return visitList;
-		});
+		// Mock VisitRepository to return the most recent visits of all pets
+		given(this.visits.findRecentByPetIdIn(anyCollection(), anyInt()))
+			.willAnswer(invocation -> new ArrayList<>(george.getPet("Max").getVisits()));
 
 	}
 
@@ -132,6 +138,7 @@ class OwnerControllerTests {
 				.param("city", "London")
 				.param("telephone", "1316761638"))
 			.andExpect(status().is3xxRedirection());
+		then(this.suggestions).should().ownerSaved(any(Owner.class));
 	}
 
 	@Test
@@ -156,23 +163,43 @@ class OwnerControllerTests {
 	@Test
 	void testProcessFindFormSuccess() throws Exception {
 		Page<Owner> tasks = new PageImpl<>(List.of(george(), new Owner()));
+		when(this.owners.findTop2ByLastNameStartingWith(anyString())).thenReturn(tasks.getContent());
 		when(this.owners.findByLastNameStartingWith(anyString(), any(Pageable.class))).thenReturn(tasks);
 		mockMvc.perform(get("/owners?page=1")).andExpect(status().isOk()).andExpect(view().name("owners/ownersList"));
 	}
 
+	@Test
+	void testProcessFindFormLoadsPetsForCurrentPage() throws Exception {
+		Owner summary = new Owner();
+		summary.setId(TEST_OWNER_ID);
+		summary.setLastName("Franklin");
+		Owner other = new Owner();
+		other.setId(TEST_OWNER_ID + 1);
+		other.setLastName("Franklinson");
+		when(this.owners.findTop2ByLastNameStartingWith("Frank")).thenReturn(List.of(summary, other));
+		when(this.owners.findByLastNameStartingWith(eq("Frank"), any(Pageable.class)))
+			.thenReturn(new PageImpl<>(List.of(summary, other)));
+		given(this.owners.findByIdIn(List.of(TEST_OWNER_ID, TEST_OWNER_ID + 1))).willReturn(List.of(george()));
+
+		mockMvc.perform(get("/owners?page=1").param("lastName", "Frank"))
+			.andExpect(status().isOk())
+			.andExpect(model().attribute("listOwners", hasSize(2)))
+			.andExpect(model().attribute("listOwners", hasItem(hasProperty("pets", hasSize(1)))))
+			.andExpect(view().name("owners/ownersList"));
+	}
+
 	@Test
 	void testProcessFindFormByLastName() throws Exception {
-		Page<Owner> tasks = new PageImpl<>(List.of(george()));
-		when(this.owners.findByLastNameStartingWith(eq("Franklin"), any(Pageable.class))).thenReturn(tasks);
 		mockMvc.perform(get("/owners?page=1").param("lastName", "Franklin"))
 			.andExpect(status().is3xxRedirection())
 			.andExpect(view().name("redirect:/owners/" + TEST_OWNER_ID));
+		// the single match is detected by the probe without counting
+		then(this.owners).should(never()).findByLastNameStartingWith(anyString(), any(Pageable.class));
 	}
 
 	@Test
 	void testProcessFindFormNoOwnersFound() throws Exception {
-		Page<Owner> tasks = new PageImpl<>(List.of());
-		when(this.owners.findByLastNameStartingWith(eq("Unknown Surname"), any(Pageable.class))).thenReturn(tasks);
+		when(this.owners.findTop2ByLastNameStartingWith("Unknown Surname")).thenReturn(List.of());
 		mockMvc.perform(get("/owners?page=1").param("lastName", "Unknown Surname"))
 			.andExpect(status().isOk())
 			.andExpect(model().attributeHasFieldErrors("owner", "lastName"))
@@ -254,7 +281,7 @@ class OwnerControllerTests {
 		owner.setCity("New York");
 		owner.setTelephone("0123456789");
 
-		when(owners.findById(pathOwnerId)).thenReturn(Optional.of(owner));
+		when(owners.findWithPetsById(pathOwnerId)).thenReturn(Optional.of(owner));
 
 		mockMvc.perform(MockMvcRequestBuilders.post("/owners/{ownerId}/edit", pathOwnerId).flashAttr("owner", owner))
 			.andExpect(status().is3xxRedirection())
@@ -280,6 +307,29 @@ class OwnerControllerTests {
 			.andExpect(model().attribute("owner", hasProperty("firstName", is("George"))))
 			.andExpect(model().attribute("sortOrder", is("desc")))
 			.andExpect(view().name("owners/ownerDetails"));
+		then(this.visits).should(times(1)).findRecentByPetIdIn(Set.of(1), 6);
+	}
+
+	@Test
+	void testShowOwnerLoadsOneWindowOfVisitsPerPet() throws Exception {
+		List<Visit> recent = new ArrayList<>();
+		for (int i = 0; i < 6; i++) {
+			Visit visit = new Visit();
+			visit.setId(10 - i);
+			visit.setDate(LocalDate.of(2020, 1, 10 - i));
+			ReflectionTestUtils.setField(visit, "petId", 1);
+			recent.add(visit);
+		}
+		Visit oldestShown = recent.get(4);
+		given(this.visits.findRecentByPetIdIn(anyCollection(), anyInt())).willReturn(recent);
+
+		mockMvc.perform(get("/owners/{ownerId}", TEST_OWNER_ID))
+			.andExpect(status().isOk())
+			.andExpect(model().attribute("visitsByPet", hasEntry(is(1), hasSize(5))))
+			.andExpect(model().attribute("nextVisits", hasEntry(1, VisitWindowToken.encode(oldestShown))))
+			.andExpect(content().string(containsString("data-next=\"" + VisitWindowToken.encode(oldestShown) + "\"")));
+		then(this.visits).should(never()).findByPetIdIn(any(), any());
+		then(this.visits).should(never()).findByPetId(any(), any(), any(), any());
 	}
 
 	@Test
@@ -0,0 +1,187 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.samples.petclinic.owner;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Counts the statements behind the owner details page, which must read one window of
+ * visits per pet, for all pets at once, and never a pet's whole visit history.
+ */
+@SpringBootTest(webEnvironment = WebEnvironment.RANDOM_PORT,
+		properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class OwnerDetailsStatementCountTests {
+
+	private static final int OWNER_ID = 6;
+
+	private static final int PET_ID = 7;
+
+	private static final int HISTORY = 40;
+
+	private static final int FIRST_ADDED_PET_ID = 100_000;
+
+	@Autowired
+	private TestRestTemplate restTemplate;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private VisitRepository visits;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	private Statistics statistics;
+
+	@BeforeEach
+	void seedHistory() {
+		// ids far above those handed out by the visit sequence
+		for (int i = 0; i < HISTORY; i++) {
+			this.jdbcTemplate.update(
+					"INSERT INTO visits (id, pet_id, visit_date, description) VALUES (?, ?, DATEADD('DAY', ?, DATE '2000-01-01'), ?)",
+					100_000 + i, PET_ID, i, "history " + i);
+		}
+		this.statistics = this.entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+	}
+
+	@AfterEach
+	void deleteHistory() {
+		this.jdbcTemplate.update("DELETE FROM visits WHERE description LIKE 'history %'");
+		this.jdbcTemplate.update("DELETE FROM pets WHERE id >= ?", FIRST_ADDED_PET_ID);
+		this.entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions();
+	}
+
+	@Test
+	void shouldReadOnlyOneWindowOfVisitsPerPet() {
+		// When
+		ResponseEntity<String> page = renderWithColdCache();
+
+		// Then
+		assertThat(page.getBody()).contains("history 39").doesNotContain("history 0<");
+		// the versions, the owner with its pets, then the windows of all its pets
+		assertThat(this.statistics.getPrepareStatementCount()).isEqualTo(3);
+		assertThat(this.statistics.getCollectionStatistics(Pet.class.getName() + ".visits").getFetchCount()).isZero();
+		assertThat(this.statistics.getEntityStatistics(Visit.class.getName()).getLoadCount())
+			.isLessThanOrEqualTo(2 * 6);
+	}
+
+	@Test
+	void shouldReadSameNumberOfStatementsHoweverManyPets() {
+		// Given
+		renderWithColdCache();
+		long statements = this.statistics.getPrepareStatementCount();
+		for (int i = 0; i < 3; i++) {
+			int petId = FIRST_ADDED_PET_ID + i;
+			this.jdbcTemplate.update(
+					"INSERT INTO pets (id, name, birth_date, type_id, owner_id) VALUES (?, ?, ?, 1, ?)", petId,
+					"added " + i, "2010-01-01", OWNER_ID);
+			this.jdbcTemplate.update(
+					"INSERT INTO visits (id, pet_id, visit_date, description) VALUES (?, ?, DATE '2010-01-01', ?)",
+					FIRST_ADDED_PET_ID + HISTORY + i, petId, "history of added " + i);
+		}
+
+		// When
+		ResponseEntity<String> page = renderWithColdCache();
+
+		// Then
+		assertThat(page.getBody()).contains("added 2").contains("history of added 2");
+		assertThat(this.statistics.getPrepareStatementCount()).isEqualTo(statements);
+	}
+
+	@Test
+	void shouldConfirmCurrentPageFromVersionsAlone() {
+		// Given
+		String eTag = this.restTemplate.getForEntity("/owners/{ownerId}", String.class, OWNER_ID)
+			.getHeaders()
+			.getETag();
+		assertThat(eTag).isNotNull();
+		HttpHeaders headers = new HttpHeaders();
+		headers.setIfNoneMatch(eTag);
+		this.statistics.clear();
+
+		// When
+		ResponseEntity<String> page = this.restTemplate.exchange("/owners/{ownerId}", HttpMethod.GET,
+				new HttpEntity<>(headers), String.class, OWNER_ID);
+
+		// Then - the owner and its pets come from the second-level cache
+		assertThat(page.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+		assertThat(this.statistics.getPrepareStatementCount()).isEqualTo(1);
+		assertThat(this.statistics.getEntityStatistics(Visit.class.getName()).getLoadCount()).isZero();
+	}
+
+	@Test
+	void shouldRenderPageAgainAfterVisitIsAdded() {
+		// Given
+		String eTag = this.restTemplate.getForEntity("/owners/{ownerId}", String.class, OWNER_ID)
+			.getHeaders()
+			.getETag();
+		HttpHeaders headers = new HttpHeaders();
+		headers.setIfNoneMatch(eTag);
+
+		// When
+		Visit visit = new Visit();
+		visit.setDescription("history 40");
+		this.visits.add(PET_ID, visit);
+		ResponseEntity<String> page = this.restTemplate.exchange("/owners/{ownerId}", HttpMethod.GET,
+				new HttpEntity<>(headers), String.class, OWNER_ID);
+
+		// Then
+		assertThat(page.getStatusCode()).isEqualTo(HttpStatus.OK);
+		assertThat(page.getHeaders().getETag()).isNotEqualTo(eTag);
+		assertThat(page.getBody()).contains("history 40");
+	}
+
+	/**
+	 * Render the page once to cache the pet types, then again with owners, pets and
+	 * visits evicted, counting the statements of the second rendering only.
+	 */
+	private ResponseEntity<String> renderWithColdCache() {
+		assertThat(this.restTemplate.getForEntity("/owners/{ownerId}", String.class, OWNER_ID).getStatusCode())
+			.isEqualTo(HttpStatus.OK);
+		Cache cache = this.entityManagerFactory.unwrap(SessionFactory.class).getCache();
+		cache.evictEntityData(Owner.class);
+		cache.evictEntityData(Pet.class);
+		cache.evictEntityData(Visit.class);
+		cache.evictCollectionData();
+		this.statistics.clear();
+
+		ResponseEntity<String> page = this.restTemplate.getForEntity("/owners/{ownerId}", String.class, OWNER_ID);
+		assertThat(page.getStatusCode()).isEqualTo(HttpStatus.OK);
+		return page;
+	}
+
+}
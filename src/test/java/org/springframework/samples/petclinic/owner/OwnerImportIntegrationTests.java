@@ -0,0 +1,162 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.samples.petclinic.owner;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.RequestEntity;
+import org.springframework.http.ResponseEntity;
+import org.springframework.samples.petclinic.search.OwnerSearchIndex;
+import org.springframework.test.annotation.DirtiesContext;
+
+/**
+ * Integration tests for {@link OwnerImportController} and {@link OwnerImporter}.
+ */
+@SpringBootTest(webEnvironment = WebEnvironment.RANDOM_PORT)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class OwnerImportIntegrationTests {
+
+	@Autowired
+	private TestRestTemplate restTemplate;
+
+	@Autowired
+	private OwnerRepository owners;
+
+	@Autowired
+	private LastNameSuggestions suggestions;
+
+	@Autowired
+	private OwnerSearchIndex searchIndex;
+
+	@Test
+	void shouldImportNdjsonAndReportRejectedLines() {
+		// Given
+		String body = """
+				{"firstName":"Ada","lastName":"Quillfeather","address":"1 Main St","city":"Madison","telephone":"6085550001","pets":[{"name":"Pip","birthDate":"2020-01-01","type":{"name":"dog"},"visits":[{"date":"2021-02-03","description":"checkup"}]}]}
+				{"firstName":"Bob","lastName":"Quillfeather","address":"2 Main St","city":"Madison","telephone":"123"}
+				not json
+
+				{"firstName":"Cy","lastName":"Quillfeather","address":"3 Main St","city":"Madison","telephone":"6085550003","pets":[{"name":"Rex","birthDate":"2020-01-01","type":{"name":"dragon"}}]}
+				{"firstName":"Di","lastName":"Quillfeather","address":"4 Main St","city":"Madison","telephone":"6085550004"}
+				""";
+
+		// When
+		ResponseEntity<OwnerImportResult> response = post(body, MediaType.APPLICATION_NDJSON, 1);
+
+		// Then
+		assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+		OwnerImportResult result = response.getBody();
+		assertThat(result.owners()).isEqualTo(2);
+		assertThat(result.pets()).isEqualTo(1);
+		assertThat(result.visits()).isEqualTo(1);
+		assertThat(result.rejected()).isEqualTo(3);
+		assertThat(result.errors()).extracting(OwnerImportResult.Error::line).containsExactly(2L, 3L, 5L);
+		assertThat(result.errors().get(0).message()).contains("telephone");
+		assertThat(result.errors().get(2).message()).contains("unknown type 'dragon'");
+
+		List<Owner> imported = this.owners.findByLastNameStartingWith("Quillfeather", Pageable.unpaged()).getContent();
+		assertThat(imported).extracting(Owner::getFirstName).containsExactlyInAnyOrder("Ada", "Di");
+		Owner ada = this.owners
+			.findById(imported.stream().filter(o -> o.getFirstName().equals("Ada")).findFirst().orElseThrow().getId())
+			.orElseThrow();
+		assertThat(ada.getPets()).singleElement().satisfies(pet -> {
+			assertThat(pet.getType().getName()).isEqualTo("dog");
+			assertThat(pet.getVisits()).extracting(Visit::getDescription).containsExactly("checkup");
+		});
+		assertThat(this.suggestions.suggest("quill", 5)).containsExactly("Quillfeather");
+		await().atMost(Duration.ofSeconds(5))
+			.untilAsserted(() -> assertThat(this.searchIndex.search("Quillfeather", 5)).hasSize(2));
+	}
+
+	@Test
+	void shouldImportCsvWithHeaderAndQuotedFields() {
+		// Given
+		String body = """
+				record,a,b,c,d,e
+				owner,Eve,Marchbanks,"10 Elm St, Apt ""B\""",Madison,6085550005
+				pet,Tom,2019-05-06,cat
+				visit,2020-01-02,vaccination
+				visit,not-a-date,broken
+				pet,Ghost,2019-05-06,unicorn
+				owner,Fay,Marchbanks,11 Elm St,Madison
+				pet,Orphan,2019-05-06,cat
+				""";
+
+		// When
+		ResponseEntity<OwnerImportResult> response = post(body, MediaType.parseMediaType("text/csv"), 1000);
+
+		// Then
+		OwnerImportResult result = response.getBody();
+		assertThat(result.errors()).extracting(OwnerImportResult.Error::line).containsExactly(5L, 6L, 7L, 8L);
+		assertThat(result.errors().get(1).message()).contains("unknown type 'unicorn'");
+		assertThat(result.errors().get(2).message()).contains("expected 6 fields");
+		assertThat(result.errors().get(3).message()).contains("without a valid owner");
+		assertThat(result.owners()).isEqualTo(1);
+		assertThat(result.pets()).isEqualTo(1);
+		assertThat(result.visits()).isEqualTo(1);
+	}
+
+	@Test
+	void shouldImportCsvOwnersWithPetsAndVisits() {
+		// Given
+		String body = """
+				owner,Eve,Marchbanks,"10 Elm St, Apt ""B\""",Madison,6085550005
+				pet,Tom,2019-05-06,cat
+				visit,2020-01-02,vaccination
+				visit,2020-03-04,checkup
+				pet,Jerry,2019-05-06,hamster
+				owner,Fay,Marchbanks,11 Elm St,Madison,6085550006
+				""";
+
+		// When
+		OwnerImportResult result = post(body, MediaType.parseMediaType("text/csv"), 1).getBody();
+
+		// Then
+		assertThat(result).isEqualTo(new OwnerImportResult(2, 2, 2, 0, List.of()));
+		Owner eve = this.owners.findByLastNameStartingWith("Marchbanks", Pageable.unpaged())
+			.stream()
+			.filter(owner -> owner.getFirstName().equals("Eve"))
+			.findFirst()
+			.orElseThrow();
+		assertThat(eve.getAddress()).isEqualTo("10 Elm St, Apt \"B\"");
+		assertThat(this.owners.findById(eve.getId()).orElseThrow().getPet("Tom").getVisits()).hasSize(2);
+	}
+
+	@Test
+	void shouldRejectOutOfRangeChunkSize() {
+		assertThat(post("", MediaType.APPLICATION_NDJSON, 0).getStatusCode().is2xxSuccessful()).isFalse();
+	}
+
+	private ResponseEntity<OwnerImportResult> post(String body, MediaType type, int chunkSize) {
+		return this.restTemplate.exchange(
+				RequestEntity.post("/api/owners:bulk?chunkSize={chunkSize}", chunkSize).contentType(type).body(body),
+				OwnerImportResult.class);
+	}
+
+}
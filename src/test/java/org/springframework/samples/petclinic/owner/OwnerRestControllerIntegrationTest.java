@@ -18,6 +18,9 @@ package org.springframework.samples.petclinic.owner;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 
 import org.junit.jupiter.api.Test;
@@ -36,6 +39,8 @@ import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.test.annotation.DirtiesContext;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+
 /**
  * Integration tests for {@link OwnerRestController}. Tests all REST endpoints with actual
  * HTTP requests and database operations.
@@ -55,6 +60,12 @@ class OwnerRestControllerIntegrationTest {
 	@Autowired
 	private OwnerRepository ownerRepository;
 
+	@Autowired
+	private VisitRepository visitRepository;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
 	private String getBaseUrl() {
 		return "http://localhost:" + port + "/api/owners";
 	}
@@ -92,6 +103,56 @@ class OwnerRestControllerIntegrationTest {
 		assertThat(persistedOwner.getFirstName()).isEqualTo("John");
 	}
 
+	@Test
+	void shouldCreateOwnerWithPets() {
+		// Given - A pet whose type is given by name only
+		HttpHeaders headers = new HttpHeaders();
+		headers.setContentType(MediaType.APPLICATION_JSON);
+		String json = """
+				{
+				  "firstName": "John",
+				  "lastName": "Doe",
+				  "address": "123 Main Street",
+				  "city": "Springfield",
+				  "telephone": "5551234567",
+				  "pets": [ { "name": "Whiskers", "birthDate": "2020-01-01", "type": { "name": "cat" } } ]
+				}
+				""";
+
+		// When
+		ResponseEntity<Owner> response = restTemplate.postForEntity(getBaseUrl(), new HttpEntity<>(json, headers),
+				Owner.class);
+
+		// Then
+		assertThat(response.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+		Owner persistedOwner = ownerRepository.findById(response.getBody().getId()).orElseThrow();
+		assertThat(persistedOwner.getPet("Whiskers").getType().getName()).isEqualTo("cat");
+	}
+
+	@Test
+	void shouldRejectOwnerWithUnknownPetType() {
+		// Given
+		HttpHeaders headers = new HttpHeaders();
+		headers.setContentType(MediaType.APPLICATION_JSON);
+		String json = """
+				{
+				  "firstName": "John",
+				  "lastName": "Doe",
+				  "address": "123 Main Street",
+				  "city": "Springfield",
+				  "telephone": "5551234567",
+				  "pets": [ { "name": "Nessie", "birthDate": "2020-01-01", "type": { "name": "plesiosaur" } } ]
+				}
+				""";
+
+		// When
+		ResponseEntity<String> response = restTemplate.postForEntity(getBaseUrl(), new HttpEntity<>(json, headers),
+				String.class);
+
+		// Then
+		assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+	}
+
 	@Test
 	void shouldReturnValidationErrorsForInvalidOwner() {
 		// Given - Owner with invalid data (empty required fields)
@@ -146,6 +207,74 @@ class OwnerRestControllerIntegrationTest {
 		assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
 	}
 
+	@Test
+	void shouldReturnNotModifiedForCurrentETag() {
+		// Given
+		ResponseEntity<Owner> first = restTemplate.getForEntity(getBaseUrl() + "/1", Owner.class);
+		String eTag = first.getHeaders().getETag();
+		assertThat(eTag).isNotNull();
+
+		HttpHeaders headers = new HttpHeaders();
+		headers.setIfNoneMatch(eTag);
+
+		// When
+		ResponseEntity<Owner> response = restTemplate.exchange(getBaseUrl() + "/1", HttpMethod.GET,
+				new HttpEntity<>(headers), Owner.class);
+
+		// Then
+		assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+		assertThat(response.getHeaders().getETag()).isEqualTo(eTag);
+		assertThat(response.getBody()).isNull();
+	}
+
+	@Test
+	void shouldChangeETagWhenPetIsUpdated() {
+		// Given
+		String eTag = restTemplate.getForEntity(getBaseUrl() + "/1", Owner.class).getHeaders().getETag();
+		Owner owner = ownerRepository.findById(1).orElseThrow();
+		owner.getPets().get(0).setName("Leonard");
+		ownerRepository.save(owner);
+
+		HttpHeaders headers = new HttpHeaders();
+		headers.setIfNoneMatch(eTag);
+
+		// When
+		ResponseEntity<Owner> response = restTemplate.exchange(getBaseUrl() + "/1", HttpMethod.GET,
+				new HttpEntity<>(headers), Owner.class);
+
+		// Then
+		assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+		assertThat(response.getHeaders().getETag()).isNotEqualTo(eTag);
+		assertThat(response.getBody().getPets().get(0).getName()).isEqualTo("Leonard");
+	}
+
+	@Test
+	void shouldChangeETagWhenVisitIsAdded() {
+		// Given
+		String eTag = restTemplate.getForEntity(getBaseUrl() + "/6", Owner.class).getHeaders().getETag();
+		Visit visit = new Visit();
+		visit.setDate(LocalDate.of(2024, 5, 1));
+		visit.setDescription("checkup");
+		visitRepository.add(7, visit);
+
+		HttpHeaders headers = new HttpHeaders();
+		headers.setIfNoneMatch(eTag);
+
+		// When
+		ResponseEntity<Owner> response = restTemplate.exchange(getBaseUrl() + "/6", HttpMethod.GET,
+				new HttpEntity<>(headers), Owner.class);
+
+		// Then
+		assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+		assertThat(response.getHeaders().getETag()).isNotEqualTo(eTag);
+		assertThat(response.getBody().getPet(7).getVisits()).extracting(Visit::getDescription).contains("checkup");
+
+		// the tag of the loaded owner is the one computed from its versions
+		headers.setIfNoneMatch(response.getHeaders().getETag());
+		assertThat(restTemplate.exchange(getBaseUrl() + "/6", HttpMethod.GET, new HttpEntity<>(headers), Owner.class)
+			.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+	}
+
 	@Test
 	void shouldUpdateOwnerSuccessfully() {
 		// Given - Create an owner first
@@ -243,6 +372,140 @@ class OwnerRestControllerIntegrationTest {
 		assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
 	}
 
+	@Test
+	void shouldUpdateOwnerWithCurrentIfMatch() {
+		// Given
+		ResponseEntity<Owner> current = restTemplate.getForEntity(getBaseUrl() + "/1", Owner.class);
+		Owner owner = current.getBody();
+		owner.setFirstName("Georgina");
+
+		HttpHeaders headers = new HttpHeaders();
+		headers.setContentType(MediaType.APPLICATION_JSON);
+		headers.setIfMatch(current.getHeaders().getETag());
+
+		// When
+		ResponseEntity<Owner> response = restTemplate.exchange(getBaseUrl() + "/1", HttpMethod.PUT,
+				new HttpEntity<>(owner, headers), Owner.class);
+
+		// Then
+		assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+		assertThat(response.getBody().getFirstName()).isEqualTo("Georgina");
+		assertThat(response.getHeaders().getETag()).isNotNull().isNotEqualTo(current.getHeaders().getETag());
+	}
+
+	@Test
+	void shouldTagUpdatedOwnerLikeGet() {
+		// Given
+		ResponseEntity<Owner> current = restTemplate.getForEntity(getBaseUrl() + "/6", Owner.class);
+		Owner owner = current.getBody();
+		owner.setCity("Monona");
+		HttpHeaders headers = new HttpHeaders();
+		headers.setContentType(MediaType.APPLICATION_JSON);
+
+		// When
+		ResponseEntity<Owner> response = restTemplate.exchange(getBaseUrl() + "/6", HttpMethod.PUT,
+				new HttpEntity<>(owner, headers), Owner.class);
+
+		// Then
+		assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+		assertThat(response.getBody().getPets()).allSatisfy(pet -> assertThat(pet.getVisits()).isNotEmpty());
+		assertThat(response.getHeaders().getETag())
+			.isEqualTo(restTemplate.getForEntity(getBaseUrl() + "/6", Owner.class).getHeaders().getETag());
+	}
+
+	@Test
+	void shouldUpdateOwnerWithIfMatchFromBeforeVisitWasAdded() {
+		// Given
+		ResponseEntity<Owner> current = restTemplate.getForEntity(getBaseUrl() + "/6", Owner.class);
+		Visit visit = new Visit();
+		visit.setDescription("checkup");
+		visitRepository.add(7, visit);
+		Owner owner = current.getBody();
+		owner.setCity("Monona");
+		HttpHeaders headers = new HttpHeaders();
+		headers.setContentType(MediaType.APPLICATION_JSON);
+		headers.setIfMatch(current.getHeaders().getETag());
+
+		// When
+		ResponseEntity<Owner> response = restTemplate.exchange(getBaseUrl() + "/6", HttpMethod.PUT,
+				new HttpEntity<>(owner, headers), Owner.class);
+
+		// Then - If-Match only protects the owner's own details and the set of its pets
+		assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+		assertThat(response.getBody().getCity()).isEqualTo("Monona");
+	}
+
+	@Test
+	void shouldRejectUpdateWithStaleIfMatch() {
+		// Given
+		ResponseEntity<Owner> current = restTemplate.getForEntity(getBaseUrl() + "/1", Owner.class);
+		Owner owner = current.getBody();
+		owner.setFirstName("Georgina");
+		HttpHeaders headers = new HttpHeaders();
+		headers.setContentType(MediaType.APPLICATION_JSON);
+		headers.setIfMatch(current.getHeaders().getETag());
+		restTemplate.exchange(getBaseUrl() + "/1", HttpMethod.PUT, new HttpEntity<>(owner, headers), Owner.class);
+
+		// When
+		owner.setFirstName("Gina");
+		ResponseEntity<Owner> response = restTemplate.exchange(getBaseUrl() + "/1", HttpMethod.PUT,
+				new HttpEntity<>(owner, headers), Owner.class);
+
+		// Then
+		assertThat(response.getStatusCode()).isEqualTo(HttpStatus.PRECONDITION_FAILED);
+		assertThat(ownerRepository.findById(1).orElseThrow().getFirstName()).isEqualTo("Georgina");
+	}
+
+	@Test
+	void shouldKeepPetsWhenUpdatingOwner() {
+		// Given - a body without pets
+		Owner owner = new Owner();
+		owner.setFirstName("George");
+		owner.setLastName("Franklin");
+		owner.setAddress("110 W. Liberty St.");
+		owner.setCity("Madison");
+		owner.setTelephone("6085551023");
+
+		HttpHeaders headers = new HttpHeaders();
+		headers.setContentType(MediaType.APPLICATION_JSON);
+
+		// When
+		ResponseEntity<Owner> response = restTemplate.exchange(getBaseUrl() + "/1", HttpMethod.PUT,
+				new HttpEntity<>(owner, headers), Owner.class);
+
+		// Then
+		assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+		assertThat(response.getBody().getPets()).hasSize(1);
+		assertThat(ownerRepository.findById(1).orElseThrow().getPets()).hasSize(1);
+	}
+
+	@Test
+	void shouldRejectDeleteWithStaleIfMatch() {
+		// Given
+		Owner owner = new Owner();
+		owner.setFirstName("Charlie");
+		owner.setLastName("Wilson");
+		owner.setAddress("654 Cedar Lane");
+		owner.setCity("Springfield");
+		owner.setTelephone("5556543210");
+		Owner savedOwner = ownerRepository.save(owner);
+		String url = getBaseUrl() + "/" + savedOwner.getId();
+		String eTag = restTemplate.getForEntity(url, Owner.class).getHeaders().getETag();
+		savedOwner.setCity("Shelbyville");
+		ownerRepository.save(savedOwner);
+
+		HttpHeaders headers = new HttpHeaders();
+		headers.setIfMatch(eTag);
+
+		// When
+		ResponseEntity<Void> response = restTemplate.exchange(url, HttpMethod.DELETE, new HttpEntity<>(headers),
+				Void.class);
+
+		// Then
+		assertThat(response.getStatusCode()).isEqualTo(HttpStatus.PRECONDITION_FAILED);
+		assertThat(ownerRepository.findById(savedOwner.getId())).isPresent();
+	}
+
 	@Test
 	void shouldSearchOwnersByLastName() {
 		// Given - Create multiple owners
@@ -281,6 +544,8 @@ class OwnerRestControllerIntegrationTest {
 		assertThat(response.getBody()).contains("\"lastName\":\"Smith\"");
 		assertThat(response.getBody()).contains("John");
 		assertThat(response.getBody()).contains("Jane");
+		assertThat(response.getBody()).contains("\"petCount\":0");
+		assertThat(response.getBody()).doesNotContain("\"pets\"").doesNotContain("\"address\"");
 	}
 
 	@Test
@@ -341,6 +606,42 @@ class OwnerRestControllerIntegrationTest {
 		assertThat(response.getBody()).contains("\"firstName\":");
 	}
 
+	@Test
+	void shouldExportAllOwnersAsNdjson() throws Exception {
+		// When
+		ResponseEntity<String> response = restTemplate.getForEntity(getBaseUrl() + "/export", String.class);
+
+		// Then
+		assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+		assertThat(response.getHeaders().getContentType()).isEqualTo(MediaType.APPLICATION_NDJSON);
+		List<Owner> exported = new ArrayList<>();
+		for (String line : response.getBody().split("\n")) {
+			exported.add(objectMapper.readValue(line, Owner.class));
+		}
+		assertThat(exported).extracting(Owner::getId).containsExactly(1, 2, 3, 4, 5, 6, 7, 8, 9, 10);
+		Owner franklin = exported.get(0);
+		assertThat(franklin.getLastName()).isEqualTo("Franklin");
+		assertThat(franklin.getPets()).singleElement().satisfies(pet -> {
+			assertThat(pet.getName()).isEqualTo("Leo");
+			assertThat(pet.getType().getName()).isEqualTo("cat");
+		});
+		Owner coleman = exported.get(5);
+		assertThat(coleman.getPets()).extracting(Pet::getName).containsExactly("Samantha", "Max");
+		assertThat(coleman.getPet("Max").getVisits()).extracting(Visit::getDescription)
+			.containsExactlyInAnyOrder("rabies shot", "neutered");
+	}
+
+	@Test
+	void shouldResumeExportAfterWatermark() {
+		// When
+		ResponseEntity<String> response = restTemplate.getForEntity(getBaseUrl() + "/export?after=8", String.class);
+
+		// Then
+		assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+		assertThat(response.getBody().lines()).hasSize(2)
+			.allSatisfy(line -> assertThat(line).containsAnyOf("\"id\":9,", "\"id\":10,"));
+	}
+
 	@Test
 	void shouldHandlePaginationParametersCorrectly() {
 		// Given - Create a few owners
@@ -366,4 +667,165 @@ class OwnerRestControllerIntegrationTest {
 		assertThat(response.getBody()).contains("\"number\":0");
 	}
 
+	@Test
+	void shouldScrollOwnersWithContinuationToken() {
+		// Given - Owners sharing a last name so the id breaks ties
+		for (int i = 1; i <= 5; i++) {
+			Owner owner = new Owner();
+			owner.setFirstName("Scroll" + i);
+			owner.setLastName(i <= 3 ? "Keyset" : "Keysetter");
+			owner.setAddress("Address " + i);
+			owner.setCity("City " + i);
+			owner.setTelephone("555830" + String.format("%04d", i));
+			ownerRepository.save(owner);
+		}
+
+		// When - Follow the continuation tokens until the last window
+		List<String> firstNames = new ArrayList<>();
+		String after = null;
+		int windows = 0;
+		do {
+			String url = getBaseUrl() + "/scroll?lastName=Keyset&size=2" + (after != null ? "&after=" + after : "");
+			ResponseEntity<Map<String, Object>> response = restTemplate.exchange(url, HttpMethod.GET, null,
+					new ParameterizedTypeReference<>() {
+					});
+			assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+			Map<String, Object> body = response.getBody();
+			assertThat(body).isNotNull().doesNotContainKey("totalElements");
+			@SuppressWarnings("unchecked")
+			List<Map<String, Object>> content = (List<Map<String, Object>>) body.get("content");
+			content.forEach(owner -> firstNames.add((String) owner.get("firstName")));
+			after = (String) body.get("next");
+			assertThat(body.get("hasNext")).isEqualTo(after != null);
+			windows++;
+		}
+		while (after != null);
+
+		// Then
+		assertThat(windows).isEqualTo(3);
+		assertThat(firstNames).containsExactly("Scroll1", "Scroll2", "Scroll3", "Scroll4", "Scroll5");
+	}
+
+	@Test
+	void shouldRejectMalformedScrollToken() {
+		// When
+		ResponseEntity<String> response = restTemplate.exchange(getBaseUrl() + "/scroll?after=not-a-token!",
+				HttpMethod.GET, null, String.class);
+
+		// Then
+		assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+	}
+
+	@Test
+	void shouldRejectOversizedScrollWindow() {
+		// When
+		ResponseEntity<String> response = restTemplate.exchange(getBaseUrl() + "/scroll?size=101", HttpMethod.GET, null,
+				String.class);
+
+		// Then
+		assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+	}
+
+	@Test
+	void shouldLoadVisitsInWindowsMostRecentFirst() {
+		// When - Follow the continuation tokens of pet 7 until the last window
+		List<String> descriptions = new ArrayList<>();
+		String before = null;
+		int windows = 0;
+		do {
+			String url = getBaseUrl() + "/6/pets/7/visits?limit=1" + (before != null ? "&before=" + before : "");
+			ResponseEntity<Map<String, Object>> response = restTemplate.exchange(url, HttpMethod.GET, null,
+					new ParameterizedTypeReference<>() {
+					});
+			assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+			Map<String, Object> body = response.getBody();
+			assertThat(body).isNotNull();
+			@SuppressWarnings("unchecked")
+			List<Map<String, Object>> content = (List<Map<String, Object>>) body.get("content");
+			content.forEach(visit -> descriptions.add((String) visit.get("description")));
+			before = (String) body.get("next");
+			assertThat(body.get("hasNext")).isEqualTo(before != null);
+			windows++;
+		}
+		while (before != null);
+
+		// Then
+		assertThat(windows).isEqualTo(2);
+		assertThat(descriptions).containsExactly("spayed", "rabies shot");
+	}
+
+	@Test
+	void shouldNotLoadVisitsOfAnotherOwnersPet() {
+		// When
+		ResponseEntity<String> response = restTemplate.exchange(getBaseUrl() + "/1/pets/7/visits", HttpMethod.GET, null,
+				String.class);
+
+		// Then
+		assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+	}
+
+	@Test
+	void shouldRejectMalformedVisitToken() {
+		// When
+		ResponseEntity<String> response = restTemplate.exchange(getBaseUrl() + "/6/pets/7/visits?before=not-a-token!",
+				HttpMethod.GET, null, String.class);
+
+		// Then
+		assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+	}
+
+	@Test
+	void shouldSearchOwnersWithoutTotalWhenRequested() {
+		// Given
+		for (int i = 1; i <= 3; i++) {
+			Owner owner = new Owner();
+			owner.setFirstName("Slice" + i);
+			owner.setLastName("Slicer");
+			owner.setAddress("Address " + i);
+			owner.setCity("City " + i);
+			owner.setTelephone("555840" + String.format("%04d", i));
+			ownerRepository.save(owner);
+		}
+
+		// When
+		ResponseEntity<String> response = restTemplate.exchange(
+				getBaseUrl() + "?lastName=Slicer&page=0&size=2&includeTotal=false", HttpMethod.GET, null, String.class);
+
+		// Then
+		assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+		assertThat(response.getBody()).contains("\"content\"")
+			.contains("\"numberOfElements\":2")
+			.contains("\"last\":false")
+			.doesNotContain("\"totalElements\"")
+			.doesNotContain("\"totalPages\"");
+	}
+
+	@Test
+	void shouldSuggestLastNamesOfCreatedAndDeletedOwners() {
+		// Given
+		Owner owner = new Owner();
+		owner.setFirstName("Sue");
+		owner.setLastName("Suggestly");
+		owner.setAddress("1 Prefix Road");
+		owner.setCity("Springfield");
+		owner.setTelephone("5558500001");
+		ResponseEntity<Owner> created = restTemplate.postForEntity(getBaseUrl(), owner, Owner.class);
+		assertThat(created.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+
+		// When
+		ResponseEntity<String> response = restTemplate.getForEntity(getBaseUrl() + "/suggest?prefix=sug", String.class);
+
+		// Then
+		assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+		assertThat(response.getBody()).isEqualTo("[\"Suggestly\"]");
+
+		// When
+		restTemplate.delete(getBaseUrl() + "/" + created.getBody().getId());
+
+		// Then
+		assertThat(restTemplate.getForObject(getBaseUrl() + "/suggest?prefix=sug", String.class)).isEqualTo("[]");
+		assertThat(restTemplate.getForObject(getBaseUrl() + "/suggest?prefix=dav", String.class))
+			.isEqualTo("[\"Davis\"]");
+	}
+
 }
@@ -0,0 +1,237 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.samples.petclinic.owner;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+import java.time.LocalDate;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.ObjectRetrievalFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+
+/**
+ * Integration tests for the single-row writes of {@link PetRepository} and
+ * {@link VisitRepository}.
+ */
+@SpringBootTest(webEnvironment = WebEnvironment.RANDOM_PORT)
+class PetRepositoryIntegrationTests {
+
+	private static final int OWNER_ID = 6;
+
+	private static final int PET_ID = 7;
+
+	@Autowired
+	private PetRepository pets;
+
+	@Autowired
+	private VisitRepository visits;
+
+	@Autowired
+	private OwnerRepository owners;
+
+	@Autowired
+	private PetTypeRegistry types;
+
+	@Autowired
+	private VisitBookingQueue bookings;
+
+	@Autowired
+	private TestRestTemplate restTemplate;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@AfterEach
+	void deleteAddedRows() {
+		this.jdbcTemplate.update("DELETE FROM visits WHERE pet_id IN "
+				+ "(SELECT p.id FROM pets p JOIN owners o ON o.id = p.owner_id WHERE o.last_name = 'Aggregate')");
+		this.jdbcTemplate
+			.update("DELETE FROM pets WHERE owner_id IN (SELECT id FROM owners WHERE last_name = 'Aggregate')");
+		this.jdbcTemplate.update("DELETE FROM owners WHERE last_name = 'Aggregate'");
+		this.jdbcTemplate.update("DELETE FROM visits WHERE description = 'added checkup'");
+		this.jdbcTemplate.update("DELETE FROM pets WHERE name = 'Added'");
+		this.jdbcTemplate.update("UPDATE pets SET name = 'Samantha' WHERE id = ?", PET_ID);
+		this.entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions();
+	}
+
+	@Test
+	void shouldAddPetAndIncrementOwnerVersion() {
+		// Given
+		Owner before = this.owners.findById(OWNER_ID).orElseThrow();
+		Integer ownerVersion = before.getVersion();
+		Pet pet = new Pet();
+		pet.setName("Added");
+		pet.setBirthDate(LocalDate.of(2020, 1, 1));
+		pet.setType(this.types.getPetTypes().get(0));
+
+		// When
+		Pet added = this.pets.add(OWNER_ID, pet);
+
+		// Then
+		assertThat(added.getId()).isNotNull();
+		// the owner loaded before is cached, the new pet must not be hidden by it
+		Owner after = this.owners.findById(OWNER_ID).orElseThrow();
+		assertThat(after.getVersion()).isEqualTo(ownerVersion + 1);
+		assertThat(after.getPet("Added")).isNotNull();
+	}
+
+	@Test
+	void shouldNotAddPetToUnknownOwner() {
+		Pet pet = new Pet();
+		pet.setName("Added");
+
+		assertThatExceptionOfType(ObjectRetrievalFailureException.class).isThrownBy(() -> this.pets.add(999, pet));
+		assertThat(this.jdbcTemplate.queryForObject("SELECT COUNT(*) FROM pets WHERE name = 'Added'", Integer.class))
+			.isZero();
+	}
+
+	@Test
+	void shouldAddVisitWithoutIncrementingPetVersion() {
+		// Given
+		Integer petVersion = this.owners.findById(OWNER_ID).orElseThrow().getPet(PET_ID).getVersion();
+		Visit visit = new Visit();
+		visit.setDate(LocalDate.of(2024, 5, 1));
+		visit.setDescription("added checkup");
+
+		// When
+		this.visits.add(PET_ID, visit);
+
+		// Then
+		// the owner loaded before is cached, the new visit must not be hidden by it
+		Pet after = this.owners.findById(OWNER_ID).orElseThrow().getPet(PET_ID);
+		assertThat(after.getVersion()).isEqualTo(petVersion);
+		assertThat(after.getVisits()).extracting(Visit::getDescription).contains("added checkup");
+	}
+
+	@Test
+	void shouldAddVisitsToTheSamePetConcurrently() throws Exception {
+		// Given
+		TransactionTemplate transaction = new TransactionTemplate(this.transactionManager);
+		ExecutorService other = Executors.newSingleThreadExecutor();
+
+		// When - a second visit is added and committed while the first is not yet
+		try {
+			transaction.executeWithoutResult(status -> {
+				this.visits.add(PET_ID, visit("added checkup"));
+				CompletableFuture.runAsync(() -> this.visits.add(PET_ID, visit("added checkup")), other).join();
+			});
+		}
+		finally {
+			other.shutdown();
+		}
+
+		// Then
+		assertThat(this.jdbcTemplate.queryForObject(
+				"SELECT COUNT(*) FROM visits WHERE description = 'added checkup' AND pet_id = ?", Integer.class,
+				PET_ID))
+			.isEqualTo(2);
+	}
+
+	@Test
+	void shouldWriteToPetsCreatedWithTheirOwner() {
+		// Given - An owner posted together with a pet, which is saved through the owner
+		HttpHeaders headers = new HttpHeaders();
+		headers.setContentType(MediaType.APPLICATION_JSON);
+		String json = """
+				{
+				  "firstName": "Ada",
+				  "lastName": "Aggregate",
+				  "address": "1 Cascade Road",
+				  "city": "Madison",
+				  "telephone": "6085550100",
+				  "pets": [ { "name": "Cascaded", "birthDate": "2020-01-01", "type": { "name": "cat" } } ]
+				}
+				""";
+		ResponseEntity<Owner> created = this.restTemplate.postForEntity("/api/owners", new HttpEntity<>(json, headers),
+				Owner.class);
+		assertThat(created.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+		int ownerId = created.getBody().getId();
+		Pet pet = this.owners.findById(ownerId).orElseThrow().getPet("Cascaded");
+		assertThat(pet.getOwnerId()).isEqualTo(ownerId);
+
+		// When - The pet is edited through the form and booked for a visit
+		MultiValueMap<String, String> form = new LinkedMultiValueMap<>();
+		form.add("name", "Renamed");
+		form.add("birthDate", "2020-01-01");
+		form.add("type", "cat");
+		ResponseEntity<String> edited = this.restTemplate.postForEntity("/owners/{ownerId}/pets/{petId}/edit",
+				new HttpEntity<>(form, formHeaders()), String.class, ownerId, pet.getId());
+		Visit booked = this.bookings.book(ownerId, pet.getId(), visit("added checkup"));
+
+		// Then
+		assertThat(edited.getStatusCode()).isEqualTo(HttpStatus.OK);
+		assertThat(edited.getBody()).contains("Renamed");
+		assertThat(booked.getPetId()).isEqualTo(pet.getId());
+		ResponseEntity<String> history = this.restTemplate.getForEntity("/api/owners/{ownerId}/pets/{petId}/visits",
+				String.class, ownerId, pet.getId());
+		assertThat(history.getStatusCode()).isEqualTo(HttpStatus.OK);
+		assertThat(history.getBody()).contains("added checkup");
+	}
+
+	private static HttpHeaders formHeaders() {
+		HttpHeaders headers = new HttpHeaders();
+		headers.setContentType(MediaType.APPLICATION_FORM_URLENCODED);
+		return headers;
+	}
+
+	private static Visit visit(String description) {
+		Visit visit = new Visit();
+		visit.setDate(LocalDate.of(2024, 5, 1));
+		visit.setDescription(description);
+		return visit;
+	}
+
+	@Test
+	void shouldUpdateOnlyPetsOfTheOwner() {
+		Pet details = new Pet();
+		details.setName("Renamed");
+		details.setType(this.types.getPetTypes().get(0));
+
+		assertThat(this.pets.updateById(OWNER_ID + 1, PET_ID, details)).isEmpty();
+		assertThat(this.pets.updateById(OWNER_ID, PET_ID, details)).isPresent();
+		assertThat(this.owners.findById(OWNER_ID).orElseThrow().getPet(PET_ID).getName()).isEqualTo("Renamed");
+	}
+
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.samples.petclinic.owner;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.samples.petclinic.system.CacheInvalidation;
+import org.springframework.samples.petclinic.system.EntityChange;
+import org.springframework.samples.petclinic.vet.Vet;
+
+/**
+ * Test class for {@link PetTypeRegistry}
+ */
+@ExtendWith(MockitoExtension.class)
+class PetTypeRegistryTests {
+
+	@Mock
+	private PetTypeRepository types;
+
+	private CacheManager cacheManager;
+
+	private PetTypeRegistry registry;
+
+	@BeforeEach
+	void setup() {
+		this.cacheManager = new ConcurrentMapCacheManager();
+		this.registry = new PetTypeRegistry(this.types, this.cacheManager);
+		given(this.types.findPetTypes()).willReturn(List.of(petType(1, "cat"), petType(2, "dog")));
+	}
+
+	@Test
+	void shouldLoadPetTypesOnce() {
+		this.registry.preload();
+
+		assertThat(this.registry.getPetTypes()).extracting(PetType::getName).containsExactly("cat", "dog");
+		assertThat(this.registry.findByName("dog")).get().extracting(PetType::getId).isEqualTo(2);
+		assertThat(this.registry.findByName("fish")).isEmpty();
+		verify(this.types, times(1)).findPetTypes();
+	}
+
+	@Test
+	void shouldReloadPetTypesAfterEviction() {
+		assertThat(this.registry.findByName("hamster")).isEmpty();
+
+		given(this.types.findPetTypes()).willReturn(List.of(petType(1, "cat"), petType(3, "hamster")));
+		this.cacheManager.getCache(PetTypeRegistry.CACHE_NAME).clear();
+
+		assertThat(this.registry.findByName("hamster")).isPresent();
+		verify(this.types, times(2)).findPetTypes();
+	}
+
+	@Test
+	void shouldReloadPetTypesAfterLocalChange() {
+		assertThat(this.registry.findByName("hamster")).isEmpty();
+
+		given(this.types.findPetTypes()).willReturn(List.of(petType(1, "cat"), petType(3, "hamster")));
+		this.registry.invalidate(invalidation(Vet.class, 1));
+		assertThat(this.registry.findByName("hamster")).isEmpty();
+
+		this.registry.invalidate(invalidation(PetType.class, 3));
+		assertThat(this.registry.findByName("hamster")).isPresent();
+		verify(this.types, times(2)).findPetTypes();
+	}
+
+	private CacheInvalidation invalidation(Class<?> type, int id) {
+		return new CacheInvalidation(Set.of(new EntityChange(type.getName(), id)), false);
+	}
+
+	private PetType petType(int id, String name) {
+		PetType type = new PetType();
+		type.setId(id);
+		type.setName(name);
+		return type;
+	}
+
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.samples.petclinic.owner;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+/**
+ * Integration tests for the {@link PetTypeRestController}.
+ */
+@SpringBootTest(webEnvironment = WebEnvironment.RANDOM_PORT)
+class PetTypeRestControllerIntegrationTests {
+
+	@Autowired
+	private TestRestTemplate restTemplate;
+
+	@Autowired
+	private PetTypeRepository types;
+
+	@AfterEach
+	void deleteAddedTypes() {
+		this.types.findPetTypes()
+			.stream()
+			.filter(type -> type.getName().equals("parrot"))
+			.forEach(type -> this.types.deleteById(type.getId()));
+	}
+
+	@Test
+	void shouldListPetTypesByName() {
+		// When
+		ResponseEntity<PetType[]> response = this.restTemplate.getForEntity("/api/pettypes", PetType[].class);
+
+		// Then
+		assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+		assertThat(response.getHeaders().getETag()).isNotNull();
+		assertThat(response.getBody()).extracting(PetType::getName)
+			.containsExactly("bird", "cat", "dog", "hamster", "lizard", "snake");
+	}
+
+	@Test
+	void shouldReturnNotModifiedUntilPetTypesChange() {
+		// Given
+		String eTag = this.restTemplate.getForEntity("/api/pettypes", PetType[].class).getHeaders().getETag();
+		HttpHeaders headers = new HttpHeaders();
+		headers.setIfNoneMatch(eTag);
+
+		// When
+		ResponseEntity<PetType[]> unchanged = this.restTemplate.exchange("/api/pettypes", HttpMethod.GET,
+				new HttpEntity<>(headers), PetType[].class);
+		PetType parrot = new PetType();
+		parrot.setName("parrot");
+		this.types.save(parrot);
+		ResponseEntity<PetType[]> changed = this.restTemplate.exchange("/api/pettypes", HttpMethod.GET,
+				new HttpEntity<>(headers), PetType[].class);
+
+		// Then
+		assertThat(unchanged.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+		assertThat(unchanged.getHeaders().getETag()).isEqualTo(eTag);
+		assertThat(changed.getStatusCode()).isEqualTo(HttpStatus.OK);
+		assertThat(changed.getHeaders().getETag()).isNotEqualTo(eTag);
+		assertThat(changed.getBody()).extracting(PetType::getName).contains("parrot");
+	}
+
+}
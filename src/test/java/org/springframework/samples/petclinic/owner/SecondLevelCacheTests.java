@@ -0,0 +1,228 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.samples.petclinic.owner;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Integration tests for the Hibernate second-level and query cache. Each load runs in its
+ * own transaction, so repeated loads can only be served by the shared cache.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class SecondLevelCacheTests {
+
+	@Autowired
+	private OwnerRepository owners;
+
+	@Autowired
+	private PetTypeRepository types;
+
+	@Autowired
+	private VisitRepository visits;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	private Statistics statistics;
+
+	private TransactionTemplate transaction;
+
+	@BeforeEach
+	void setUp() {
+		this.statistics = this.entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		this.transaction = new TransactionTemplate(this.transactionManager);
+	}
+
+	@Test
+	void shouldServeRepeatedOwnerLoadsFromMemory() {
+		// Given
+		loadOwnerWithVisits(6);
+		this.statistics.clear();
+
+		// When
+		Owner owner = loadOwnerWithVisits(6);
+
+		// Then
+		assertThat(owner.getPets()).isNotEmpty();
+		assertThat(this.statistics.getPrepareStatementCount()).isZero();
+		assertThat(this.statistics.getSecondLevelCacheHitCount()).isPositive();
+	}
+
+	@Test
+	void shouldServeRepeatedPetTypeQueriesFromQueryCache() {
+		// Given
+		this.transaction.execute(status -> this.types.findPetTypes());
+		this.statistics.clear();
+
+		// When
+		List<PetType> types = this.transaction.execute(status -> this.types.findPetTypes());
+
+		// Then
+		assertThat(types).isNotEmpty();
+		assertThat(this.statistics.getQueryCacheHitCount()).isEqualTo(1);
+		assertThat(this.statistics.getPrepareStatementCount()).isZero();
+	}
+
+	@Test
+	void shouldLoadOwnerOnColdCacheInTwoQueries() {
+		// Given
+		this.entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions();
+		this.statistics.clear();
+
+		// When
+		Owner owner = this.owners.findById(6).orElseThrow();
+
+		// Then
+		assertThat(owner.getPets()).hasSize(2);
+		assertThat(owner.getPets()).allSatisfy(pet -> assertThat(pet.getType().getName()).isNotNull());
+		assertThat(owner.getPets()).flatExtracting(Pet::getVisits).isNotEmpty();
+		// the owner with its pets and their types, then the visits of all pets
+		assertThat(this.statistics.getPrepareStatementCount()).isEqualTo(2);
+	}
+
+	@Test
+	void shouldLoadOwnerWithPetsOnColdCacheInOneQuery() {
+		// Given
+		this.entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions();
+		this.statistics.clear();
+
+		// When
+		Owner owner = this.owners.findWithPetsById(10).orElseThrow();
+
+		// Then
+		assertThat(owner.getPets()).hasSize(2);
+		assertThat(owner.getPets()).allSatisfy(pet -> assertThat(pet.getType().getName()).isNotNull());
+		assertThat(this.statistics.getPrepareStatementCount()).isEqualTo(1);
+	}
+
+	@Test
+	void shouldServeOwnerLoadedOnColdCacheFromMemory() {
+		// Given
+		this.entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions();
+		this.owners.findById(6);
+		this.statistics.clear();
+
+		// When
+		Owner owner = this.owners.findById(6).orElseThrow();
+
+		// Then
+		assertThat(owner.getPets()).flatExtracting(Pet::getVisits).isNotEmpty();
+		assertThat(this.statistics.getPrepareStatementCount()).isZero();
+	}
+
+	@Test
+	void shouldLoadPetsOfOwnerPageInBatches() {
+		// Given
+		this.entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions();
+		this.statistics.clear();
+
+		// When
+		int pets = this.transaction.execute(status -> this.owners.findAll(PageRequest.of(0, 10))
+			.stream()
+			.mapToInt(owner -> owner.getPets().size())
+			.sum());
+
+		// Then
+		assertThat(pets).isEqualTo(13);
+		// the page, its count, then the pets of all owners on it
+		assertThat(this.statistics.getPrepareStatementCount()).isEqualTo(3);
+	}
+
+	@Test
+	void shouldLoadVisitsOfManyOwnersInBatches() {
+		// Given
+		this.entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions();
+		this.statistics.clear();
+
+		// When
+		List<Owner> owners = this.owners.findWithVisitsByIdIn(List.of(1, 2, 3, 4, 5, 6, 7, 8, 9, 10));
+
+		// Then
+		assertThat(owners).hasSize(10);
+		assertThat(owners.get(0).getPets().get(0).getVisits()).isNotNull();
+		// owners with pets and types, then the visits of all pets
+		assertThat(this.statistics.getPrepareStatementCount()).isEqualTo(2);
+	}
+
+	@Test
+	void shouldNotCacheStaleReadOnlyColumns() {
+		// Given
+		Integer ownerId = this.transaction.execute(status -> {
+			Owner owner = new Owner();
+			owner.setFirstName("Sam");
+			owner.setLastName("McSchultz");
+			owner.setAddress("4, Evans Street");
+			owner.setCity("Wollongong");
+			owner.setTelephone("4444444444");
+			Pet pet = new Pet();
+			pet.setName("bowser");
+			pet.setType(this.types.findPetTypes().get(0));
+			owner.addPet(pet);
+			return this.owners.save(owner).getId();
+		});
+		this.transaction.executeWithoutResult(status -> {
+			Owner owner = this.owners.findById(ownerId).orElseThrow();
+			Visit visit = new Visit();
+			visit.setDescription("cached");
+			owner.addVisit(owner.getPets().get(0).getId(), visit);
+		});
+
+		try {
+			// When
+			Owner owner = this.transaction.execute(status -> this.owners.findById(ownerId).orElseThrow());
+			List<Visit> visits = this.transaction
+				.execute(status -> this.visits.findByPetIdIn(List.of(owner.getPets().get(0).getId()), Sort.unsorted()));
+
+			// Then
+			assertThat(owner.getLastNameNormalized()).isEqualTo("mcschultz");
+			assertThat(visits).singleElement().satisfies(visit -> assertThat(visit.getPetId()).isNotNull());
+		}
+		finally {
+			this.owners.deleteById(ownerId);
+		}
+	}
+
+	private Owner loadOwnerWithVisits(int id) {
+		return this.transaction.execute(status -> {
+			Owner owner = this.owners.findById(id).orElseThrow();
+			owner.getPets().forEach(pet -> pet.getVisits().size());
+			return owner;
+		});
+	}
+
+}
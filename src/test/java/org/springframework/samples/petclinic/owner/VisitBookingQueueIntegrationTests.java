@@ -0,0 +1,204 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.samples.petclinic.owner;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+
+/**
+ * Integration tests for {@link VisitBookingQueue}.
+ */
+@SpringBootTest(webEnvironment = WebEnvironment.RANDOM_PORT)
+class VisitBookingQueueIntegrationTests {
+
+	private static final int OWNER_ID = 6;
+
+	private static final int PET_ID = 7;
+
+	@Autowired
+	private VisitBookingQueue bookings;
+
+	@Autowired
+	private OwnerRepository owners;
+
+	@Autowired
+	private PetRepository pets;
+
+	@Autowired
+	private VisitRepository visits;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Autowired
+	private TestRestTemplate restTemplate;
+
+	@AfterEach
+	void deleteBookedVisits() {
+		this.jdbcTemplate.update("DELETE FROM visits WHERE description LIKE 'booked %'");
+		this.entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions();
+	}
+
+	@Test
+	void shouldWriteVisitWithoutIncrementingPetVersion() {
+		// Given
+		Owner before = this.owners.findById(OWNER_ID).orElseThrow();
+		Integer petVersion = before.getPet(PET_ID).getVersion();
+
+		// When
+		Visit booked = this.bookings.book(OWNER_ID, PET_ID, visit("booked checkup"));
+
+		// Then
+		assertThat(booked.getId()).isNotNull();
+		assertThat(this.jdbcTemplate.queryForObject("SELECT pet_id FROM visits WHERE id = ?", Integer.class,
+				booked.getId()))
+			.isEqualTo(PET_ID);
+		// the owner loaded before is cached, the booking must not be hidden by it
+		Pet after = this.owners.findById(OWNER_ID).orElseThrow().getPet(PET_ID);
+		assertThat(after.getVersion()).isEqualTo(petVersion);
+		assertThat(after.getVisits()).extracting(Visit::getDescription).contains("booked checkup");
+	}
+
+	@Test
+	void shouldWriteConcurrentBookings() {
+		// Given
+		ExecutorService clients = Executors.newFixedThreadPool(20);
+
+		// When
+		List<Visit> booked;
+		try {
+			List<CompletableFuture<Visit>> futures = IntStream.range(0, 50)
+				.mapToObj(i -> CompletableFuture
+					.supplyAsync(() -> this.bookings.book(OWNER_ID, PET_ID + i % 2, visit("booked " + i)), clients))
+				.toList();
+			booked = futures.stream().map(CompletableFuture::join).toList();
+		}
+		finally {
+			clients.shutdown();
+		}
+
+		// Then
+		assertThat(booked).extracting(Visit::getId).doesNotHaveDuplicates().doesNotContainNull();
+		assertThat(this.jdbcTemplate.queryForObject("SELECT COUNT(*) FROM visits WHERE description LIKE 'booked %'",
+				Integer.class))
+			.isEqualTo(50);
+	}
+
+	@Test
+	void shouldRejectPetOfAnotherOwner() {
+		assertThatIllegalArgumentException().isThrownBy(() -> this.bookings.book(1, PET_ID, visit("booked wrongly")))
+			.withMessageContaining("Pet not found");
+
+		assertThat(this.jdbcTemplate.queryForObject("SELECT COUNT(*) FROM visits WHERE description LIKE 'booked %'",
+				Integer.class))
+			.isZero();
+	}
+
+	@Test
+	void shouldWriteGoodBookingsOfFailedBatch() {
+		// Given - a queue that waits for a full batch of four
+		VisitBookingProperties properties = new VisitBookingProperties();
+		properties.setBatchSize(4);
+		properties.setFlushInterval(Duration.ofSeconds(10));
+		properties.setTimeout(Duration.ofSeconds(20));
+		VisitBookingQueue queue = new VisitBookingQueue(this.pets, this.visits, this.transactionManager, properties);
+		queue.start();
+		ExecutorService clients = Executors.newFixedThreadPool(4);
+
+		// When - one booking is too long for its column, which fails the whole batch
+		List<CompletableFuture<Visit>> futures;
+		try {
+			futures = IntStream.range(0, 4)
+				.mapToObj(i -> CompletableFuture.supplyAsync(
+						() -> queue.book(OWNER_ID, PET_ID, visit(i == 3 ? "booked " + "x".repeat(300) : "booked " + i)),
+						clients))
+				.toList();
+			CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).exceptionally(ex -> null).join();
+		}
+		finally {
+			clients.shutdown();
+			queue.stop();
+		}
+
+		// Then
+		assertThat(futures.subList(0, 3)).allSatisfy(future -> assertThat(future).isCompleted());
+		assertThat(futures.get(3)).isCompletedExceptionally();
+		assertThat(this.jdbcTemplate.queryForList("SELECT description FROM visits WHERE description LIKE 'booked %'",
+				String.class))
+			.containsExactlyInAnyOrder("booked 0", "booked 1", "booked 2");
+	}
+
+	@Test
+	void shouldBookVisitFromForm() {
+		// Given
+		HttpHeaders headers = new HttpHeaders();
+		headers.setContentType(MediaType.APPLICATION_FORM_URLENCODED);
+		MultiValueMap<String, String> form = new LinkedMultiValueMap<>();
+		form.add("date", "2030-01-02");
+		form.add("description", "booked through the form");
+
+		// When
+		ResponseEntity<String> response = this.restTemplate.postForEntity("/owners/{ownerId}/pets/{petId}/visits/new",
+				new HttpEntity<>(form, headers), String.class, OWNER_ID, PET_ID);
+
+		// Then the redirect to the owner's page is followed, which lists the visit
+		assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+		assertThat(response.getBody()).contains("booked through the form");
+		assertThat(this.owners.findById(OWNER_ID).orElseThrow().getPet(PET_ID).getVisits())
+			.extracting(Visit::getDescription)
+			.contains("booked through the form");
+	}
+
+	private static Visit visit(String description) {
+		Visit visit = new Visit();
+		visit.setDescription(description);
+		return visit;
+	}
+
+}
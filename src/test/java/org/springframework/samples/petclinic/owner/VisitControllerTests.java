@@ -16,7 +16,12 @@
 
 package org.springframework.samples.petclinic.owner;
 
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.model;
@@ -55,13 +60,24 @@ class VisitControllerTests {
 	@MockitoBean
 	private OwnerRepository owners;
 
+	@MockitoBean
+	private PetRepository pets;
+
+	@MockitoBean
+	private VisitBookingQueue bookings;
+
+	@MockitoBean
+	private LastNameSuggestions suggestions;
+
 	@BeforeEach
 	void init() {
 		Owner owner = new Owner();
+		owner.setId(TEST_OWNER_ID);
 		Pet pet = new Pet();
 		owner.addPet(pet);
 		pet.setId(TEST_PET_ID);
-		given(this.owners.findById(TEST_OWNER_ID)).willReturn(Optional.of(owner));
+		given(this.owners.findWithoutPetsById(TEST_OWNER_ID)).willReturn(Optional.of(owner));
+		given(this.pets.findWithVisitsById(TEST_OWNER_ID, TEST_PET_ID)).willReturn(Optional.of(pet));
 	}
 
 	@Test
@@ -69,6 +85,8 @@ class VisitControllerTests {
 		mockMvc.perform(get("/owners/{ownerId}/pets/{petId}/visits/new", TEST_OWNER_ID, TEST_PET_ID))
 			.andExpect(status().isOk())
 			.andExpect(view().name("pets/createOrUpdateVisitForm"));
+
+		verify(this.owners, never()).findById(anyInt());
 	}
 
 	@Test
@@ -79,6 +97,9 @@ class VisitControllerTests {
 				.param("description", "Visit Description"))
 			.andExpect(status().is3xxRedirection())
 			.andExpect(view().name("redirect:/owners/{ownerId}"));
+
+		verify(this.bookings).book(eq(TEST_OWNER_ID), eq(TEST_PET_ID), any(Visit.class));
+		verify(this.owners, never()).save(any());
 	}
 
 	@Test
@@ -89,6 +110,8 @@ class VisitControllerTests {
 			.andExpect(model().attributeHasErrors("visit"))
 			.andExpect(status().isOk())
 			.andExpect(view().name("pets/createOrUpdateVisitForm"));
+
+		verify(this.bookings, never()).book(anyInt(), anyInt(), any());
 	}
 
 }
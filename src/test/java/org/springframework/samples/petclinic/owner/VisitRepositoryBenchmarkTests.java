@@ -0,0 +1,142 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.samples.petclinic.owner;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import jakarta.persistence.EntityManager;
+
+/**
+ * Benchmark comparing the former IN-subquery of {@link VisitRepository#findByPetId} with
+ * the direct <code>pet_id</code> predicate on a seeded dataset of one million visits.
+ * <p>
+ * The dataset is large, so the benchmark only runs when the
+ * <code>petclinic.benchmark</code> system property is set to <code>true</code>, e.g.
+ * <code>./mvnw test -Dtest=VisitRepositoryBenchmarkTests -Dpetclinic.benchmark=true</code>.
+ * </p>
+ */
+@DataJpaTest
+@EnabledIfSystemProperty(named = "petclinic.benchmark", matches = "true")
+class VisitRepositoryBenchmarkTests {
+
+	private static final Logger logger = LoggerFactory.getLogger(VisitRepositoryBenchmarkTests.class);
+
+	private static final int PETS = 10_000;
+
+	private static final int VISITS = 1_000_000;
+
+	private static final int WARMUP_ITERATIONS = 1_000;
+
+	private static final int ITERATIONS = 2_000;
+
+	private static final String LEGACY_JPQL = "SELECT v FROM Visit v WHERE v IN "
+			+ "(SELECT visit FROM Pet p JOIN p.visits visit WHERE p.id = :petId) ORDER BY v.date";
+
+	private static final String DIRECT_JPQL = "SELECT v FROM Visit v WHERE v.petId = :petId ORDER BY v.date";
+
+	private static final String LEGACY_SQL = "SELECT v.* FROM visits v WHERE v.id IN "
+			+ "(SELECT pv.id FROM pets p JOIN visits pv ON pv.pet_id = p.id WHERE p.id = %d) ORDER BY v.visit_date";
+
+	private static final String DIRECT_SQL = "SELECT v.* FROM visits v WHERE v.pet_id = %d ORDER BY v.visit_date";
+
+	@Autowired
+	private VisitRepository visits;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private EntityManager entityManager;
+
+	private int petId;
+
+	@BeforeEach
+	void seed() {
+		this.jdbcTemplate.update("INSERT INTO pets (name, birth_date, type_id) "
+				+ "SELECT 'bench' || X, DATE '2020-01-01', 1 FROM SYSTEM_RANGE(1, ?)", PETS);
+		int firstPetId = this.jdbcTemplate.queryForObject("SELECT MIN(id) FROM pets WHERE name LIKE 'bench%'",
+				Integer.class);
+		this.jdbcTemplate.update("INSERT INTO visits (pet_id, visit_date, description) "
+				+ "SELECT ? + MOD(X, ?), DATEADD('DAY', -MOD(X, 3650), DATE '2025-01-01'), 'checkup' "
+				+ "FROM SYSTEM_RANGE(1, ?)", firstPetId, PETS, VISITS);
+		this.petId = firstPetId + PETS / 2;
+	}
+
+	@Test
+	void directPredicateUsesPetIdIndex() {
+		String legacyPlan = explain(LEGACY_SQL);
+		String directPlan = explain(DIRECT_SQL);
+		logger.info("Legacy plan:\n{}\n\nDirect plan:\n{}", legacyPlan, directPlan);
+		// the subquery resolves the pet's visit ids, which are then looked up one by one
+		assertThat(legacyPlan).containsPattern("PUBLIC\\.PRIMARY_KEY_\\w+: ID IN\\(SELECT");
+		// H2 may pick either visits_pet_id_visit_date or the foreign key index
+		assertThat(directPlan).containsPattern("PUBLIC\\.\\w+: PET_ID = ").doesNotContainIgnoringCase("tableScan");
+
+		Sort sort = Sort.by("date").ascending();
+		List<Visit> legacy = query(LEGACY_JPQL);
+		List<Visit> direct = this.visits.findByPetId(this.petId, sort);
+		assertThat(direct).hasSize(VISITS / PETS)
+			.extracting(Visit::getId)
+			.containsExactlyInAnyOrderElementsOf(legacy.stream().map(Visit::getId).toList());
+
+		// Both variants go through the same EntityManager path so only the SQL differs
+		Supplier<List<Visit>> legacyQuery = () -> query(LEGACY_JPQL);
+		Supplier<List<Visit>> directQuery = () -> query(DIRECT_JPQL);
+		run(legacyQuery, WARMUP_ITERATIONS);
+		run(directQuery, WARMUP_ITERATIONS);
+		double legacyMicros = run(legacyQuery, ITERATIONS);
+		double directMicros = run(directQuery, ITERATIONS);
+		logger.info("findByPetId over {} visits: IN-subquery {} us/op, direct predicate {} us/op", VISITS,
+				String.format("%.1f", legacyMicros), String.format("%.1f", directMicros));
+	}
+
+	private List<Visit> query(String jpql) {
+		return this.entityManager.createQuery(jpql, Visit.class).setParameter("petId", this.petId).getResultList();
+	}
+
+	private String explain(String sql) {
+		return String.join(System.lineSeparator(),
+				this.jdbcTemplate.queryForList("EXPLAIN " + sql.formatted(this.petId), String.class));
+	}
+
+	/**
+	 * Run the query the given number of times and return the average latency in
+	 * microseconds.
+	 */
+	private double run(Supplier<List<Visit>> query, int iterations) {
+		long start = System.nanoTime();
+		for (int i = 0; i < iterations; i++) {
+			query.get();
+			this.entityManager.clear();
+		}
+		return (System.nanoTime() - start) / 1_000.0 / iterations;
+	}
+
+}
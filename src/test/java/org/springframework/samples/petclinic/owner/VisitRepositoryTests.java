@@ -72,6 +72,21 @@ class VisitRepositoryTests {
 		}
 	}
 
+	@Test
+	void shouldFindVisitsForSeveralPetsInOneQuery() {
+		// Given: Pets with id=7 and id=8 have visits in the database
+		Sort sort = Sort.by("date").descending();
+
+		// When: Fetching the visits of both pets at once
+		List<Visit> visitList = this.visits.findByPetIdIn(List.of(7, 8), sort);
+
+		// Then: Visits of both pets are returned, tagged with their pet and sorted
+		assertThat(visitList).extracting(Visit::getPetId).containsOnly(7, 8).contains(7, 8);
+		for (int i = 0; i < visitList.size() - 1; i++) {
+			assertThat(visitList.get(i).getDate()).isAfterOrEqualTo(visitList.get(i + 1).getDate());
+		}
+	}
+
 	@Test
 	void shouldReturnEmptyListForNonExistentPet() {
 		// Given: A pet ID that doesn't exist
@@ -0,0 +1,164 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.samples.petclinic.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.BDDMockito.given;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.samples.petclinic.owner.Owner;
+import org.springframework.samples.petclinic.owner.OwnerRepository;
+import org.springframework.samples.petclinic.owner.Pet;
+import org.springframework.transaction.PlatformTransactionManager;
+
+/**
+ * Benchmark of {@link OwnerSearchIndex#search} over one million generated owners, with
+ * names, cities and pet names drawn from a vocabulary of generated words.
+ * <p>
+ * The dataset is large, so the benchmark only runs when the
+ * <code>petclinic.benchmark</code> system property is set to <code>true</code>, and the
+ * index needs about 2 GB of heap, e.g.
+ * <code>./mvnw test -Dtest=OwnerSearchIndexBenchmarkTests -Dpetclinic.benchmark=true -DargLine=-Xmx4g</code>.
+ */
+@ExtendWith(MockitoExtension.class)
+@EnabledIfSystemProperty(named = "petclinic.benchmark", matches = "true")
+class OwnerSearchIndexBenchmarkTests {
+
+	private static final Logger logger = LoggerFactory.getLogger(OwnerSearchIndexBenchmarkTests.class);
+
+	private static final int OWNERS = 1_000_000;
+
+	private static final int BATCH_SIZE = 10_000;
+
+	private static final int WARMUP_ITERATIONS = 2_000;
+
+	private static final int ITERATIONS = 5_000;
+
+	private static final String[] SYLLABLES = { "ka", "lo", "mi", "ra", "ten", "vo", "sel", "da", "ri", "mon", "be",
+			"tho", "na", "gu", "fer", "li", "stan", "wi", "po", "dre", "han", "zu", "cor", "el", "is", "mar", "to",
+			"qua", "ben", "sha" };
+
+	@Mock
+	private OwnerRepository owners;
+
+	@Mock
+	private PlatformTransactionManager transactionManager;
+
+	private final Random random = new Random(42);
+
+	private final List<String> firstNames = words(2_000, 2);
+
+	private final List<String> lastNames = words(50_000, 3);
+
+	private final List<String> cities = words(1_000, 3);
+
+	private final List<String> petNames = words(5_000, 2);
+
+	@Test
+	void searchOneMillionOwners() {
+		OwnerSearchIndex index = new OwnerSearchIndex(this.owners, this.transactionManager);
+		List<Owner> sample = new ArrayList<>();
+		given(this.owners.findByIdIn(anyCollection())).willAnswer(
+				invocation -> invocation.<Collection<Integer>>getArgument(0).stream().map(this::owner).toList());
+		long start = System.nanoTime();
+		for (int first = 1; first <= OWNERS; first += BATCH_SIZE) {
+			List<Integer> ids = new ArrayList<>();
+			for (int id = first; id < first + BATCH_SIZE; id++) {
+				ids.add(id);
+			}
+			index.reindex(ids, List.of(), List.of());
+		}
+		long indexed = System.nanoTime() - start;
+		assertThat(index.size()).isEqualTo(OWNERS);
+		for (int i = 0; i < 1_000; i++) {
+			sample.add(owner(1 + this.random.nextInt(OWNERS)));
+		}
+
+		List<String> queries = new ArrayList<>();
+		for (Owner owner : sample) {
+			String lastName = owner.getLastName();
+			queries.add(lastName);
+			queries.add(owner.getFirstName() + " " + owner.getCity());
+			queries.add(lastName.substring(0, 3));
+			// two letters swapped
+			queries.add(lastName.substring(0, 2) + lastName.charAt(3) + lastName.charAt(2) + lastName.substring(4));
+			queries.add(owner.getTelephone().substring(3, 8));
+		}
+		for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+			index.search(queries.get(i % queries.size()), 10);
+		}
+		long[] latencies = new long[ITERATIONS];
+		for (int i = 0; i < ITERATIONS; i++) {
+			String query = queries.get(i % queries.size());
+			long queryStart = System.nanoTime();
+			index.search(query, 10);
+			latencies[i] = System.nanoTime() - queryStart;
+		}
+		Arrays.sort(latencies);
+		logger.info("Indexed {} owners in {} s; search median {} us, p90 {} us, p99 {} us, max {} us", OWNERS,
+				indexed / 1_000_000_000, latencies[ITERATIONS / 2] / 1_000, latencies[ITERATIONS * 9 / 10] / 1_000,
+				latencies[ITERATIONS * 99 / 100] / 1_000, latencies[ITERATIONS - 1] / 1_000);
+	}
+
+	/**
+	 * Generate the owner with the given id; the same id always gives the same owner.
+	 */
+	private Owner owner(int id) {
+		Random values = new Random(id);
+		Owner owner = new Owner();
+		owner.setId(id);
+		owner.setFirstName(this.firstNames.get(values.nextInt(this.firstNames.size())));
+		owner.setLastName(this.lastNames.get(values.nextInt(this.lastNames.size())));
+		owner.setCity(this.cities.get(values.nextInt(this.cities.size())));
+		owner.setTelephone(String.format("%010d", values.nextLong(10_000_000_000L)));
+		int pets = values.nextInt(4);
+		for (int i = 0; i < pets; i++) {
+			Pet pet = new Pet();
+			pet.setId(id * 4 + i);
+			pet.setName(this.petNames.get(values.nextInt(this.petNames.size())));
+			owner.getPets().add(pet);
+		}
+		return owner;
+	}
+
+	private List<String> words(int count, int syllables) {
+		List<String> words = new ArrayList<>();
+		for (int i = 0; i < count; i++) {
+			StringBuilder word = new StringBuilder();
+			for (int j = 0; j < syllables + this.random.nextInt(2); j++) {
+				word.append(SYLLABLES[this.random.nextInt(SYLLABLES.length)]);
+			}
+			word.setCharAt(0, Character.toUpperCase(word.charAt(0)));
+			words.add(word.toString());
+		}
+		return words;
+	}
+
+}
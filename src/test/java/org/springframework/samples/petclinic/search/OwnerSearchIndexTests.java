@@ -0,0 +1,191 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.samples.petclinic.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.BDDMockito.given;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.samples.petclinic.owner.Owner;
+import org.springframework.samples.petclinic.owner.OwnerRepository;
+import org.springframework.samples.petclinic.owner.Pet;
+import org.springframework.transaction.PlatformTransactionManager;
+
+/**
+ * Tests for {@link OwnerSearchIndex}.
+ */
+@ExtendWith(MockitoExtension.class)
+class OwnerSearchIndexTests {
+
+	@Mock
+	private OwnerRepository owners;
+
+	@Mock
+	private PlatformTransactionManager transactionManager;
+
+	private OwnerSearchIndex index;
+
+	@BeforeEach
+	void setup() {
+		this.index = new OwnerSearchIndex(this.owners, this.transactionManager);
+	}
+
+	private static Owner owner(int id, String firstName, String lastName, String city, String telephone,
+			String... pets) {
+		Owner owner = new Owner();
+		owner.setId(id);
+		owner.setFirstName(firstName);
+		owner.setLastName(lastName);
+		owner.setCity(city);
+		owner.setTelephone(telephone);
+		for (int i = 0; i < pets.length; i++) {
+			Pet pet = new Pet();
+			pet.setId(id * 10 + i);
+			pet.setName(pets[i]);
+			owner.getPets().add(pet);
+		}
+		return owner;
+	}
+
+	private void index(Owner... indexed) {
+		given(this.owners.findByIdIn(anyCollection())).willReturn(List.of(indexed));
+		this.index.reindex(List.of(indexed).stream().map(Owner::getId).toList(), List.of(), List.of());
+	}
+
+	@Test
+	void shouldFindOwnersByPrefixOfAnyField() {
+		// Given
+		index(owner(1, "George", "Franklin", "Madison", "6085551023", "Leo"),
+				owner(2, "Betty", "Davis", "Sun Prairie", "6085551749", "Basil"));
+
+		// When / Then
+		assertThat(this.index.search("frank", 10)).extracting(SearchHit::ownerId).containsExactly(1);
+		assertThat(this.index.search("sun", 10)).extracting(SearchHit::ownerId).containsExactly(2);
+		assertThat(this.index.search("basil", 10)).extracting(SearchHit::ownerId).containsExactly(2);
+		assertThat(this.index.search("1023", 10)).extracting(SearchHit::ownerId).containsExactly(1);
+		assertThat(this.index.search("608555", 10)).extracting(SearchHit::ownerId).containsExactlyInAnyOrder(1, 2);
+	}
+
+	@Test
+	void shouldTolerateTyposAndRequireAllTerms() {
+		// Given
+		index(owner(1, "George", "Franklin", "Madison", "6085551023", "Leo"),
+				owner(2, "Betty", "Davis", "Sun Prairie", "6085551749", "Basil"));
+
+		// When / Then
+		assertThat(this.index.search("Franklni", 10)).extracting(SearchHit::ownerId).containsExactly(1);
+		assertThat(this.index.search("george madison", 10)).extracting(SearchHit::ownerId).containsExactly(1);
+		assertThat(this.index.search("george prairie", 10)).isEmpty();
+		assertThat(this.index.search("   ", 10)).isEmpty();
+	}
+
+	@Test
+	void shouldRankCloserMatchesFirst() {
+		// Given
+		index(owner(1, "Maria", "Escobito", "Madison", "6085557683"),
+				owner(2, "Mario", "Escobar", "Madison", "6085557684"));
+
+		// When
+		List<SearchHit> hits = this.index.search("escobar", 10);
+
+		// Then
+		assertThat(hits).extracting(SearchHit::ownerId).startsWith(2);
+		assertThat(hits.get(0).score()).isEqualTo(1.0);
+	}
+
+	@Test
+	void shouldReplaceAndRemoveEntriesOnReindex() {
+		// Given
+		Owner owner = owner(1, "George", "Franklin", "Madison", "6085551023");
+		index(owner);
+
+		// When
+		owner.setLastName("Washington");
+		index(owner);
+
+		// Then
+		assertThat(this.index.search("franklin", 10)).isEmpty();
+		assertThat(this.index.search("washington", 10)).extracting(SearchHit::lastName).containsExactly("Washington");
+
+		// When
+		given(this.owners.findByIdIn(anyCollection())).willReturn(List.of());
+		this.index.reindex(List.of(1), List.of(), List.of());
+
+		// Then
+		assertThat(this.index.size()).isZero();
+		assertThat(this.index.search("washington", 10)).isEmpty();
+	}
+
+	@Test
+	void shouldKeepNewerEntryWhenOlderReindexFinishesLast() throws Exception {
+		// Given - a reindex that is still loading the old state of an owner
+		CountDownLatch loading = new CountDownLatch(1);
+		CountDownLatch loaded = new CountDownLatch(1);
+		given(this.owners.findByIdIn(anyCollection())).willAnswer(invocation -> {
+			loading.countDown();
+			loaded.await();
+			return List.of(owner(1, "George", "Franklin", "Madison", "6085551023"));
+		}).willReturn(List.of(owner(1, "George", "Washington", "Madison", "6085551023")));
+		Thread older = new Thread(() -> this.index.reindex(List.of(1), List.of(), List.of()));
+		older.start();
+		loading.await();
+
+		// When - a later reindex of the new state finishes first
+		this.index.reindex(List.of(1), List.of(), List.of());
+		loaded.countDown();
+		older.join();
+
+		// Then
+		assertThat(this.index.search("washington", 10)).extracting(SearchHit::ownerId).containsExactly(1);
+		assertThat(this.index.search("franklin", 10)).isEmpty();
+		assertThat(this.index.replacements()).isZero();
+	}
+
+	@Test
+	void shouldForgetReplacementsOnceNoOlderReindexIsRunning() throws Exception {
+		// Given - a reindex that is still loading
+		CountDownLatch loading = new CountDownLatch(1);
+		CountDownLatch loaded = new CountDownLatch(1);
+		given(this.owners.findByIdIn(anyCollection())).willAnswer(invocation -> {
+			loading.countDown();
+			loaded.await();
+			return List.of(owner(2, "Betty", "Davis", "Sun Prairie", "6085551749"));
+		}).willReturn(List.of(owner(1, "George", "Franklin", "Madison", "6085551023")));
+		Thread older = new Thread(() -> this.index.reindex(List.of(2), List.of(), List.of()));
+		older.start();
+		loading.await();
+
+		// When - a later reindex finishes first
+		this.index.reindex(List.of(1), List.of(), List.of());
+
+		// Then - its replacement is remembered until the older reindex has finished
+		assertThat(this.index.replacements()).isEqualTo(1);
+		loaded.countDown();
+		older.join();
+		assertThat(this.index.replacements()).isZero();
+		assertThat(this.index.size()).isEqualTo(2);
+	}
+
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.samples.petclinic.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.samples.petclinic.owner.Owner;
+import org.springframework.samples.petclinic.owner.OwnerRepository;
+import org.springframework.samples.petclinic.owner.Pet;
+import org.springframework.samples.petclinic.owner.PetTypeRepository;
+import org.springframework.test.annotation.DirtiesContext;
+
+/**
+ * Integration tests for {@link SearchRestController}, covering the index built at startup
+ * and its updates through the entity listener, which are applied asynchronously.
+ */
+@SpringBootTest(webEnvironment = WebEnvironment.RANDOM_PORT)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class SearchRestControllerIntegrationTests {
+
+	@Autowired
+	private TestRestTemplate restTemplate;
+
+	@Autowired
+	private OwnerRepository owners;
+
+	@Autowired
+	private PetTypeRepository types;
+
+	private List<SearchHit> search(String query) {
+		ResponseEntity<List<SearchHit>> response = this.restTemplate.exchange("/api/search?q={q}", HttpMethod.GET, null,
+				new ParameterizedTypeReference<>() {
+				}, query);
+		assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+		return response.getBody();
+	}
+
+	@Test
+	void shouldFindOwnersIndexedAtStartup() {
+		// When
+		List<SearchHit> hits = search("Franklin");
+
+		// Then
+		assertThat(hits).singleElement().satisfies(hit -> {
+			assertThat(hit.firstName()).isEqualTo("George");
+			assertThat(hit.pets()).containsExactly("Leo");
+		});
+	}
+
+	@Test
+	void shouldIndexSavedOwnersAndPets() {
+		// Given
+		Owner owner = new Owner();
+		owner.setFirstName("Zelda");
+		owner.setLastName("Quimby");
+		owner.setAddress("1 Index Lane");
+		owner.setCity("Ogdenville");
+		owner.setTelephone("5559990001");
+		this.owners.save(owner);
+
+		// Then
+		await().atMost(Duration.ofSeconds(5))
+			.untilAsserted(
+					() -> assertThat(search("ogdenvile")).extracting(SearchHit::lastName).containsExactly("Quimby"));
+
+		// When
+		Owner saved = this.owners.findById(owner.getId()).orElseThrow();
+		Pet pet = new Pet();
+		pet.setName("Snowball");
+		pet.setBirthDate(LocalDate.of(2020, 1, 1));
+		pet.setType(this.types.findPetTypes().get(0));
+		saved.addPet(pet);
+		this.owners.save(saved);
+
+		// Then
+		await().atMost(Duration.ofSeconds(5))
+			.untilAsserted(
+					() -> assertThat(search("snowball")).extracting(SearchHit::ownerId).containsExactly(owner.getId()));
+
+		// When
+		this.owners.deleteById(owner.getId());
+
+		// Then
+		await().atMost(Duration.ofSeconds(5)).untilAsserted(() -> assertThat(search("quimby")).isEmpty());
+	}
+
+}
@@ -22,15 +22,18 @@ import java.time.LocalDate;
 import java.util.Collection;
 import java.util.Optional;
 
+import org.hibernate.Hibernate;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase.Replace;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.samples.petclinic.owner.Owner;
 import org.springframework.samples.petclinic.owner.OwnerRepository;
+import org.springframework.samples.petclinic.owner.OwnerSummary;
 import org.springframework.samples.petclinic.owner.PetTypeRepository;
 import org.springframework.samples.petclinic.owner.Pet;
 import org.springframework.samples.petclinic.owner.PetType;
@@ -93,6 +96,38 @@ class ClinicServiceTests {
 		assertThat(owners).isEmpty();
 	}
 
+	@Test
+	void shouldFindOwnersByLastNameIgnoringCase() {
+		assertThat(this.owners.findByLastNameStartingWith("dAV", pageable)).hasSize(2);
+		assertThat(this.owners.findTop2ByLastNameStartingWith("FRANK")).singleElement()
+			.extracting(Owner::getLastName)
+			.isEqualTo("Franklin");
+	}
+
+	@Test
+	void shouldFindOwnersByLastNameWithoutLoadingPets() {
+		Page<Owner> owners = this.owners.findByLastNameStartingWith("Davis", pageable);
+		assertThat(owners).isNotEmpty().allMatch(owner -> !Hibernate.isInitialized(owner.getPets()));
+
+		Collection<Owner> withPets = this.owners.findByIdIn(owners.map(Owner::getId).getContent());
+		assertThat(withPets).hasSize(2).allMatch(owner -> Hibernate.isInitialized(owner.getPets()));
+	}
+
+	@Test
+	void shouldFindOwnerSummariesWithPetCount() {
+		Page<OwnerSummary> davis = this.owners.findSummariesByLastNameStartingWith("Davis", PageRequest.of(0, 5));
+		assertThat(davis.getTotalElements()).isEqualTo(2);
+		assertThat(davis).extracting(OwnerSummary::petCount).containsOnly(1);
+
+		Page<OwnerSummary> coleman = this.owners.findSummariesByLastNameStartingWith("Coleman", PageRequest.of(0, 5));
+		assertThat(coleman).singleElement().satisfies(summary -> {
+			assertThat(summary.firstName()).isEqualTo("Jean");
+			assertThat(summary.petCount()).isEqualTo(2);
+		});
+
+		assertThat(this.owners.findAllSummaries(PageRequest.of(0, 5)).getTotalElements()).isEqualTo(10);
+	}
+
 	@Test
 	void shouldFindSingleOwnerWithPet() {
 		Optional<Owner> optionalOwner = this.owners.findById(1);
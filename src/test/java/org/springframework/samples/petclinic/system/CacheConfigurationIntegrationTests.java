@@ -0,0 +1,107 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.samples.petclinic.system;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.boot.test.context.SpringBootTest.WebEnvironment.RANDOM_PORT;
+
+import java.time.Duration;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.RequestEntity;
+import org.springframework.http.ResponseEntity;
+import org.springframework.samples.petclinic.PetClinicApplication;
+import org.springframework.samples.petclinic.owner.PetTypeRegistry;
+import org.springframework.samples.petclinic.vet.VetDirectory;
+
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.github.benmanes.caffeine.cache.Policy;
+
+/**
+ * Integration tests for the caches created by {@link CacheConfiguration}.
+ */
+@SpringBootTest(classes = PetClinicApplication.class, webEnvironment = RANDOM_PORT,
+		properties = "petclinic.cache.vets.expire-after-access=5m")
+class CacheConfigurationIntegrationTests {
+
+	@Autowired
+	private CaffeineCacheManager cacheManager;
+
+	@Autowired
+	private VetDirectory vetDirectory;
+
+	@Autowired
+	private TestRestTemplate rest;
+
+	@Test
+	void shouldCreateOnlyCachesWithPolicy() {
+		assertThat(this.cacheManager.getCacheNames()).containsExactlyInAnyOrder(VetDirectory.CACHE_NAME,
+				PetTypeRegistry.CACHE_NAME);
+		assertThat(this.cacheManager.getCache("unknown")).isNull();
+	}
+
+	@Test
+	void shouldApplyPolicy() {
+		Policy<Object, Object> policy = nativeCache(VetDirectory.CACHE_NAME).policy();
+
+		assertThat(policy.eviction().orElseThrow().getMaximum()).isEqualTo(1);
+		assertThat(policy.expireAfterWrite().orElseThrow().getExpiresAfter()).isEqualTo(Duration.ofHours(1));
+		assertThat(policy.expireAfterAccess().orElseThrow().getExpiresAfter()).isEqualTo(Duration.ofMinutes(5));
+		assertThat(policy.refreshAfterWrite().orElseThrow().getRefreshesAfter()).isEqualTo(Duration.ofMinutes(10));
+		assertThat(policy.isRecordingStats()).isTrue();
+	}
+
+	@Test
+	void shouldRefreshThroughEntryLoader() {
+		// Given
+		Object before = nativeCache(VetDirectory.CACHE_NAME).getIfPresent("snapshot");
+
+		// When
+		Object after = ((LoadingCache<Object, Object>) nativeCache(VetDirectory.CACHE_NAME)).refresh("snapshot").join();
+
+		// Then
+		assertThat(after).isNotNull().isNotSameAs(before);
+		assertThat(this.vetDirectory.getVets()).hasSize(6);
+	}
+
+	@Test
+	void shouldPublishCacheMetrics() {
+		this.vetDirectory.getVets();
+
+		for (String metric : new String[] { "cache.gets", "cache.evictions", "cache.load.duration" }) {
+			ResponseEntity<Map<String, Object>> response = this.rest.exchange(
+					RequestEntity.get("/actuator/metrics/{metric}?tag=cache:{cache}", metric, VetDirectory.CACHE_NAME)
+						.build(),
+					new ParameterizedTypeReference<Map<String, Object>>() {
+					});
+			assertThat(response.getStatusCode()).as(metric).isEqualTo(HttpStatus.OK);
+		}
+	}
+
+	private com.github.benmanes.caffeine.cache.Cache<Object, Object> nativeCache(String name) {
+		return ((CaffeineCache) this.cacheManager.getCache(name)).getNativeCache();
+	}
+
+}
@@ -0,0 +1,69 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.samples.petclinic.system;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+import java.sql.Connection;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.ConnectionProxy;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+/**
+ * Tests for {@link ConnectionLimitingDataSource}.
+ */
+class ConnectionLimitingDataSourceTests {
+
+	private final ConnectionLimitingDataSource dataSource = new ConnectionLimitingDataSource(
+			new DriverManagerDataSource("jdbc:h2:mem:limiter"), 1, Duration.ofMillis(50));
+
+	@Test
+	void shouldTimeOutBeyondLimit() throws Exception {
+		try (Connection connection = this.dataSource.getConnection()) {
+			assertThat(this.dataSource.getAvailableConnections()).isZero();
+			assertThatExceptionOfType(SQLTransientConnectionException.class).isThrownBy(this.dataSource::getConnection);
+		}
+	}
+
+	@Test
+	void shouldReleasePermitOnClose() throws Exception {
+		Connection connection = this.dataSource.getConnection();
+		assertThat(((ConnectionProxy) connection).getTargetConnection().isClosed()).isFalse();
+
+		connection.close();
+
+		assertThat(this.dataSource.getAvailableConnections()).isOne();
+		try (Connection next = this.dataSource.getConnection()) {
+			assertThat(next.isValid(1)).isTrue();
+		}
+	}
+
+	@Test
+	void shouldReleasePermitOnlyOnce() throws Exception {
+		Connection connection = this.dataSource.getConnection();
+
+		connection.close();
+		connection.close();
+
+		assertThat(this.dataSource.getAvailableConnections()).isOne();
+	}
+
+}
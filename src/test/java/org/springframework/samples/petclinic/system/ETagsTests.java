@@ -0,0 +1,62 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.samples.petclinic.system;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for {@link ETags}.
+ */
+class ETagsTests {
+
+	@Test
+	void shouldDeriveEqualTagsFromEqualParts() {
+		assertThat(ETags.of(List.of(1, 2))).isEqualTo(ETags.of(List.of(1, 2)))
+			.isNotEqualTo(ETags.of(List.of(1, 3)))
+			.startsWith("\"")
+			.endsWith("\"");
+	}
+
+	@Test
+	void shouldMatchIfNoneMatchWeakly() {
+		String eTag = ETags.of(List.of(1));
+
+		assertThat(ETags.matches(null, eTag)).isFalse();
+		assertThat(ETags.matches(eTag, eTag)).isTrue();
+		assertThat(ETags.matches("W/" + eTag, eTag)).isTrue();
+		assertThat(ETags.matches("\"other\", " + eTag, eTag)).isTrue();
+		assertThat(ETags.matches("*", eTag)).isTrue();
+		assertThat(ETags.matches("\"other\"", eTag)).isFalse();
+	}
+
+	@Test
+	void shouldReadVersionFromIfMatch() {
+		String eTag = ETags.of(7, List.of(1, 2));
+
+		assertThat(ETags.version(eTag)).isEqualTo(7);
+		assertThat(ETags.version(null)).isNull();
+		assertThat(ETags.version("*")).isNull();
+		assertThat(ETags.version("W/" + eTag)).isEqualTo(-1);
+		assertThat(ETags.version(ETags.of(List.of(1)))).isEqualTo(-1);
+		assertThat(ETags.version("\"99999999999-x\"")).isEqualTo(-1);
+	}
+
+}
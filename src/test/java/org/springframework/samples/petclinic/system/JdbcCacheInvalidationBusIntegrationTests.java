@@ -0,0 +1,217 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.samples.petclinic.system;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.samples.petclinic.PetClinicApplication;
+import org.springframework.samples.petclinic.owner.Owner;
+import org.springframework.samples.petclinic.owner.OwnerRepository;
+import org.springframework.samples.petclinic.owner.Pet;
+import org.springframework.samples.petclinic.owner.PetType;
+import org.springframework.samples.petclinic.owner.PetTypeRegistry;
+import org.springframework.samples.petclinic.owner.PetTypeRepository;
+import org.springframework.samples.petclinic.owner.Visit;
+import org.springframework.samples.petclinic.vet.Vet;
+import org.springframework.samples.petclinic.vet.VetDirectory;
+import org.springframework.test.annotation.DirtiesContext;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Integration tests for the {@link JdbcCacheInvalidationBus}. Changes of a peer are
+ * simulated by writing to the database directly and appending to the
+ * <code>cache_invalidations</code> table as the peer would.
+ */
+@SpringBootTest(classes = PetClinicApplication.class,
+		properties = { "petclinic.cache-invalidation.bus=jdbc", "petclinic.cache-invalidation.poll-interval=1h",
+				"spring.jpa.properties.hibernate.generate_statistics=true" })
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class JdbcCacheInvalidationBusIntegrationTests {
+
+	@Autowired
+	private JdbcCacheInvalidationBus bus;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private OwnerRepository owners;
+
+	@Autowired
+	private VetDirectory vetDirectory;
+
+	@Autowired
+	private PetTypeRegistry petTypes;
+
+	@Autowired
+	private PetTypeRepository petTypeRepository;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Test
+	void shouldEvictEntitiesChangedByPeer() {
+		// Given
+		assertThat(this.owners.findById(1).orElseThrow().getFirstName()).isEqualTo("George");
+		this.jdbcTemplate.update("UPDATE owners SET first_name = 'Georgina' WHERE id = 1");
+		assertThat(this.owners.findById(1).orElseThrow().getFirstName()).isEqualTo("George");
+
+		// When
+		appendPeerChange(Owner.class, 1);
+		this.bus.poll();
+
+		// Then
+		assertThat(this.owners.findById(1).orElseThrow().getFirstName()).isEqualTo("Georgina");
+	}
+
+	@Test
+	void shouldEvictOnlyCollectionsOfChangedElementsParents() {
+		// Given - pets 7 and 8 of owner 6 have their visits cached
+		assertThat(this.owners.findById(6).orElseThrow().getPet(7).getVisits()).hasSize(2);
+		this.jdbcTemplate.update(
+				"INSERT INTO visits (id, pet_id, visit_date, description) VALUES (100, 7, DATE '2024-05-01', 'checkup')");
+		Cache cache = this.entityManagerFactory.unwrap(SessionFactory.class).getCache();
+		String visits = Pet.class.getName() + ".visits";
+
+		// When
+		appendPeerChange(Visit.class, 100);
+		this.bus.poll();
+
+		// Then
+		assertThat(cache.containsCollection(visits, 7)).isFalse();
+		assertThat(cache.containsCollection(visits, 8)).isTrue();
+		assertThat(this.owners.findById(6).orElseThrow().getPet(7).getVisits()).hasSize(3);
+	}
+
+	@Test
+	void shouldKeepCachedQueriesOverTablesNotChangedByPeer() {
+		// Given
+		Statistics statistics = this.entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		this.petTypeRepository.findPetTypes();
+		appendPeerChange(Owner.class, 1);
+		this.bus.poll();
+		statistics.clear();
+
+		// When
+		this.petTypeRepository.findPetTypes();
+		appendPeerChange(PetType.class, 1);
+		this.bus.poll();
+		this.petTypeRepository.findPetTypes();
+
+		// Then - a hit before the pet types changed, a miss after
+		assertThat(statistics.getQueryCacheHitCount()).isEqualTo(1);
+		assertThat(statistics.getQueryCacheMissCount()).isEqualTo(1);
+	}
+
+	@Test
+	void shouldInvalidateSnapshotsChangedByPeer() {
+		// Given
+		long version = this.vetDirectory.getVersion();
+		this.jdbcTemplate.update("UPDATE types SET name = 'kitten' WHERE id = 1");
+		assertThat(this.petTypes.findByName("cat")).isPresent();
+
+		// When
+		appendPeerChange(Vet.class, 1);
+		appendPeerChange(PetType.class, 1);
+		this.bus.poll();
+
+		// Then
+		assertThat(this.vetDirectory.getVersion()).isGreaterThan(version);
+		assertThat(this.petTypes.findByName("cat")).isEmpty();
+		assertThat(this.petTypes.findByName("kitten")).isPresent();
+	}
+
+	@Test
+	void shouldBroadcastLocalChangesWithoutDeliveringThemTwice() {
+		// Given
+		this.bus.poll();
+		Owner owner = this.owners.findById(1).orElseThrow();
+		owner.setTelephone("6085551000");
+
+		// When
+		this.owners.save(owner);
+		long version = this.vetDirectory.getVersion();
+
+		// Then - the change is appended once, and not delivered again by the next poll
+		await().atMost(Duration.ofSeconds(5))
+			.untilAsserted(() -> assertThat(this.jdbcTemplate.queryForObject(
+					"SELECT COUNT(*) FROM cache_invalidations WHERE entity_name = ? AND entity_id = 1", Integer.class,
+					Owner.class.getName()))
+				.isEqualTo(1));
+		this.bus.poll();
+		assertThat(this.vetDirectory.getVersion()).isEqualTo(version);
+	}
+
+	@Test
+	void shouldDeliverChangesCommittedAfterYoungerOnesOnce() {
+		// Given - the change of a peer whose row is committed after a younger one
+		this.bus.poll();
+		long lateId = appendPeerChange(Vet.class, 1);
+		this.jdbcTemplate.update("DELETE FROM cache_invalidations WHERE id = ?", lateId);
+		appendPeerChange(Owner.class, 1);
+		this.bus.poll();
+		long version = this.vetDirectory.getVersion();
+
+		// When
+		this.jdbcTemplate.update(
+				"INSERT INTO cache_invalidations (id, node, entity_name, entity_id, created_at) VALUES (?, ?, ?, ?, ?)",
+				lateId, "peer", Vet.class.getName(), 1, Timestamp.from(Instant.now()));
+		this.bus.poll();
+		long afterLateCommit = this.vetDirectory.getVersion();
+		this.bus.poll();
+
+		// Then
+		assertThat(afterLateCommit).isGreaterThan(version);
+		assertThat(this.vetDirectory.getVersion()).isEqualTo(afterLateCommit);
+	}
+
+	@Test
+	void shouldPurgeExpiredChanges() {
+		// Given
+		this.jdbcTemplate.update(
+				"INSERT INTO cache_invalidations (node, entity_name, entity_id, created_at) VALUES (?, ?, ?, ?)",
+				"peer", Owner.class.getName(), 1, Timestamp.from(Instant.now().minusSeconds(7200)));
+
+		// When
+		this.bus.purge();
+
+		// Then
+		assertThat(this.jdbcTemplate.queryForObject("SELECT COUNT(*) FROM cache_invalidations", Integer.class))
+			.isZero();
+	}
+
+	private long appendPeerChange(Class<?> type, int id) {
+		this.jdbcTemplate.update(
+				"INSERT INTO cache_invalidations (node, entity_name, entity_id, created_at) VALUES (?, ?, ?, ?)",
+				"peer", type.getName(), id, Timestamp.from(Instant.now()));
+		return this.jdbcTemplate.queryForObject("SELECT MAX(id) FROM cache_invalidations", Long.class);
+	}
+
+}
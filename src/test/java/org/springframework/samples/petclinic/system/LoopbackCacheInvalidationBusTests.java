@@ -0,0 +1,69 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.samples.petclinic.system;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willThrow;
+import static org.mockito.Mockito.verify;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.samples.petclinic.owner.Owner;
+
+/**
+ * Tests for {@link LoopbackCacheInvalidationBus}.
+ */
+@ExtendWith(MockitoExtension.class)
+class LoopbackCacheInvalidationBusTests {
+
+	@Mock
+	private ObjectProvider<CacheInvalidationListener> listeners;
+
+	@Mock
+	private CacheInvalidationListener failing;
+
+	@Mock
+	private CacheInvalidationListener listener;
+
+	@Test
+	void shouldDeliverLocallyEvenIfListenerFails() {
+		// Given
+		given(this.listeners.orderedStream()).willReturn(Stream.of(this.failing, this.listener));
+		willThrow(new IllegalStateException("boom")).given(this.failing).invalidate(any());
+		EntityChange change = new EntityChange(Owner.class.getName(), 1);
+
+		// When
+		new LoopbackCacheInvalidationBus(this.listeners).publish(List.of(change));
+
+		// Then
+		ArgumentCaptor<CacheInvalidation> delivered = ArgumentCaptor.forClass(CacheInvalidation.class);
+		verify(this.listener).invalidate(delivered.capture());
+		assertThat(delivered.getValue().remote()).isFalse();
+		assertThat(delivered.getValue().ids(Owner.class)).containsExactly(1);
+		assertThat(delivered.getValue().affects(Owner.class)).isTrue();
+	}
+
+}
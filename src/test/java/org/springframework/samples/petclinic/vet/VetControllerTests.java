@@ -22,8 +22,13 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.condition.DisabledInNativeImage;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
-import org.springframework.data.domain.PageImpl;
-import org.springframework.data.domain.Pageable;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.FilterType;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.aot.DisabledInAotMode;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
@@ -31,8 +36,10 @@ import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.ResultActions;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 
-import static org.mockito.ArgumentMatchers.any;
+import static org.hamcrest.Matchers.not;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -40,7 +47,9 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
  * Test class for the {@link VetController}
  */
 
-@WebMvcTest(VetController.class)
+@WebMvcTest(value = VetController.class,
+		includeFilters = @ComponentScan.Filter(value = VetDirectory.class, type = FilterType.ASSIGNABLE_TYPE))
+@Import(VetControllerTests.CacheTestConfiguration.class)
 @DisabledInNativeImage
 @DisabledInAotMode
 class VetControllerTests {
@@ -51,6 +60,19 @@ class VetControllerTests {
 	@MockitoBean
 	private VetRepository vets;
 
+	@Autowired
+	private VetDirectory directory;
+
+	@TestConfiguration
+	static class CacheTestConfiguration {
+
+		@Bean
+		CacheManager cacheManager() {
+			return new ConcurrentMapCacheManager(VetDirectory.CACHE_NAME);
+		}
+
+	}
+
 	private Vet james() {
 		Vet james = new Vet();
 		james.setFirstName("James");
@@ -73,9 +95,9 @@ class VetControllerTests {
 
 	@BeforeEach
 	void setup() {
-		given(this.vets.findAll()).willReturn(Lists.newArrayList(james(), helen()));
-		given(this.vets.findAll(any(Pageable.class)))
-			.willReturn(new PageImpl<Vet>(Lists.newArrayList(james(), helen())));
+		given(this.vets.findAll()).willReturn(Lists.newArrayList(helen(), james()));
+		// the snapshot may have been loaded before the repository was stubbed
+		this.directory.invalidate();
 
 	}
 
@@ -97,4 +119,53 @@ class VetControllerTests {
 			.andExpect(jsonPath("$.vetList[0].id").value(1));
 	}
 
+	@Test
+	void testVetListsAreServedFromOneSnapshot() throws Exception {
+		mockMvc.perform(get("/vets.html?page=1")).andExpect(status().isOk());
+		mockMvc.perform(get("/vets").accept(MediaType.APPLICATION_JSON))
+			.andExpect(jsonPath("$.vetList[1].lastName").value("Leary"));
+
+		verify(this.vets, times(1)).findAll();
+	}
+
+	@Test
+	void testShowResourcesVetListNotModified() throws Exception {
+		String eTag = mockMvc.perform(get("/vets").accept(MediaType.APPLICATION_JSON))
+			.andExpect(status().isOk())
+			.andExpect(header().exists("ETag"))
+			.andReturn()
+			.getResponse()
+			.getHeader("ETag");
+
+		mockMvc.perform(get("/vets").accept(MediaType.APPLICATION_JSON).header("If-None-Match", eTag))
+			.andExpect(status().isNotModified())
+			.andExpect(header().string("ETag", eTag))
+			.andExpect(content().string(""));
+		mockMvc.perform(get("/vets").accept(MediaType.APPLICATION_XML).header("If-None-Match", eTag))
+			.andExpect(status().isOk())
+			.andExpect(content().contentType(MediaType.APPLICATION_XML));
+	}
+
+	@Test
+	void testShowResourcesVetListTaggedByNegotiatedMediaType() throws Exception {
+		String eTag = mockMvc.perform(get("/vets").accept(MediaType.APPLICATION_JSON))
+			.andExpect(header().string("Vary", "Accept"))
+			.andReturn()
+			.getResponse()
+			.getHeader("ETag");
+
+		// different Accept headers that are served JSON share its tag
+		mockMvc.perform(get("/vets").accept(MediaType.ALL).header("If-None-Match", eTag))
+			.andExpect(status().isNotModified())
+			.andExpect(header().string("Vary", "Accept"));
+		mockMvc
+			.perform(get("/vets").header("Accept", "application/xml;q=0.5, application/json, text/html;q=0.9")
+				.header("If-None-Match", eTag))
+			.andExpect(status().isNotModified());
+		mockMvc.perform(get("/vets").header("Accept", "application/xml, application/json;q=0.9"))
+			.andExpect(status().isOk())
+			.andExpect(content().contentType(MediaType.APPLICATION_XML))
+			.andExpect(header().string("ETag", not(eTag)));
+	}
+
 }
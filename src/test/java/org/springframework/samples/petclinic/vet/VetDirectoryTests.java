@@ -0,0 +1,89 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.samples.petclinic.vet;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+/**
+ * Test class for {@link VetDirectory}
+ */
+@ExtendWith(MockitoExtension.class)
+class VetDirectoryTests {
+
+	@Mock
+	private VetRepository vets;
+
+	private VetDirectory directory;
+
+	@BeforeEach
+	void setup() {
+		this.directory = new VetDirectory(this.vets, new ConcurrentMapCacheManager());
+		given(this.vets.findAll()).willReturn(List.of(vet(1, "James", "Carter"), vet(2, "Helen", "Leary"),
+				vet(3, "Linda", "Douglas"), vet(4, "Rafael", "Ortega")));
+	}
+
+	@Test
+	void shouldSlicePagesFromOneSortedSnapshot() {
+		this.directory.preload();
+
+		Page<Vet> first = this.directory.getPage(PageRequest.of(0, 3));
+		Page<Vet> second = this.directory.getPage(PageRequest.of(1, 3));
+		Page<Vet> beyond = this.directory.getPage(PageRequest.of(5, 3));
+
+		assertThat(first).extracting(Vet::getLastName).containsExactly("Carter", "Douglas", "Leary");
+		assertThat(second).extracting(Vet::getLastName).containsExactly("Ortega");
+		assertThat(beyond).isEmpty();
+		assertThat(first.getTotalElements()).isEqualTo(4);
+		assertThat(first.getTotalPages()).isEqualTo(2);
+		verify(this.vets, times(1)).findAll();
+	}
+
+	@Test
+	void shouldReloadAndBumpVersionAfterInvalidation() {
+		long version = this.directory.getVersion();
+
+		given(this.vets.findAll()).willReturn(List.of(vet(5, "Henry", "Stevens")));
+		this.directory.invalidate();
+
+		assertThat(this.directory.getVets()).extracting(Vet::getLastName).containsExactly("Stevens");
+		assertThat(this.directory.getVersion()).isGreaterThan(version);
+		verify(this.vets, times(2)).findAll();
+	}
+
+	private Vet vet(int id, String firstName, String lastName) {
+		Vet vet = new Vet();
+		vet.setId(id);
+		vet.setFirstName(firstName);
+		vet.setLastName(lastName);
+		return vet;
+	}
+
+}